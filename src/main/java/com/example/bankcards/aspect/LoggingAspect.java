@@ -1,11 +1,25 @@
 package com.example.bankcards.aspect;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.*;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
 import static net.logstash.logback.argument.StructuredArguments.*;
 
 /**
@@ -13,16 +27,30 @@ import static net.logstash.logback.argument.StructuredArguments.*;
  * <p>
  * Обеспечивает централизованное логирование:
  * - Входящих запросов в контроллеры
- * - Времени выполнения методов сервисов
+ * - Времени выполнения методов сервисов (метрика {@code service.method.duration}, спан трассировки
+ *   и выборочный лог медленных вызовов)
  * - Исключений в сервисном слое
  * <p>
  * Использует StructuredArguments для JSON-формата логов (ELK-совместимость).
  */
 @Aspect
 @Component
+@RequiredArgsConstructor
 @Slf4j
 public class LoggingAspect {
 
+    private static final String SERVICE_TIMER = "service.method.duration";
+
+    private final MeterRegistry meterRegistry;
+    private final Tracer tracer;
+    private final Map<Method, MethodMetrics> methodMetrics = new ConcurrentHashMap<>();
+
+    @Value("${monitoring.service.slow-threshold-ms:1000}")
+    private long slowThresholdMs;
+
+    @Value("${monitoring.service.slow-log-interval-ms:10000}")
+    private long slowLogIntervalMs;
+
     /**
      * Pointcut для всех методов контроллеров.
      */
@@ -67,45 +95,82 @@ public class LoggingAspect {
     }
 
     /**
-     * Логирует время выполнения методов сервисов.
+     * Замеряет время выполнения методов сервисов и записывает его в {@link Timer} с гистограммой
+     * (теги: сервис, метод, результат) и в спан {@code Сервис.метод} текущей трассы. Медленные вызовы логируются не чаще одного раза
+     * за {@code monitoring.service.slow-log-interval-ms} на метод, с числом пропущенных медленных вызовов.
      *
      * @param joinPoint точка соединения
      * @return результат выполнения метода
      * @throws Throwable если метод выбросил исключение
      */
     @Around("serviceMethods()")
-    public Object logServiceMethodExecutionTime(ProceedingJoinPoint joinPoint) throws Throwable {
-        String className = joinPoint.getSignature().getDeclaringType().getSimpleName();
-        String methodName = joinPoint.getSignature().getName();
-
-        long startTime = System.currentTimeMillis();
-        try {
+    public Object timeServiceMethod(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        MethodMetrics metrics = methodMetrics.get(method);
+        if (metrics == null) {
+            metrics = methodMetrics.computeIfAbsent(method, m -> createMetrics(joinPoint));
+        }
+        Span span = tracer.nextSpan().name(metrics.spanName()).start();
+        long startTime = System.nanoTime();
+        boolean success = false;
+        try (Tracer.SpanInScope ignored = tracer.withSpan(span)) {
             Object result = joinPoint.proceed();
-            long executionTime = System.currentTimeMillis() - startTime;
-
-            if (executionTime > 1000) {
-                log.warn("Медленное выполнение сервиса",
-                        kv("service", className),
-                        kv("method", methodName),
-                        kv("executionTimeMs", executionTime),
-                        kv("slow", true));
-            } else {
-                log.debug("Сервис выполнен",
-                        kv("service", className),
-                        kv("method", methodName),
-                        kv("executionTimeMs", executionTime));
-            }
-
+            success = true;
             return result;
         } catch (Throwable ex) {
-            long executionTime = System.currentTimeMillis() - startTime;
-            log.debug("Сервис завершился с ошибкой",
-                    kv("service", className),
-                    kv("method", methodName),
-                    kv("executionTimeMs", executionTime),
-                    kv("error", true));
+            span.error(ex);
             throw ex;
+        } finally {
+            long executionTime = System.nanoTime() - startTime;
+            span.end();
+            (success ? metrics.success() : metrics.error()).record(executionTime, TimeUnit.NANOSECONDS);
+            if (executionTime > TimeUnit.MILLISECONDS.toNanos(slowThresholdMs)) {
+                logSlowCall(metrics, executionTime);
+            }
+        }
+    }
+
+    /**
+     * Создает таймеры и состояние выборки логов для метода сервиса. Вызывается один раз на метод.
+     */
+    private MethodMetrics createMetrics(JoinPoint joinPoint) {
+        String className = joinPoint.getSignature().getDeclaringType().getSimpleName();
+        String methodName = joinPoint.getSignature().getName();
+        return new MethodMetrics(className, methodName, className + "." + methodName,
+                serviceTimer(className, methodName, "success"),
+                serviceTimer(className, methodName, "error"),
+                new AtomicLong(System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(slowLogIntervalMs)),
+                new AtomicLong());
+    }
+
+    private Timer serviceTimer(String className, String methodName, String outcome) {
+        return Timer.builder(SERVICE_TIMER)
+                .description("Время выполнения методов сервисного слоя")
+                .tags("service", className, "method", methodName, "outcome", outcome)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(meterRegistry);
+    }
+
+    /**
+     * Логирует медленный вызов, если с предыдущей записи для этого метода прошло достаточно времени,
+     * иначе только увеличивает счетчик пропущенных.
+     */
+    private void logSlowCall(MethodMetrics metrics, long executionTime) {
+        long now = System.nanoTime();
+        long last = metrics.lastSlowLog().get();
+        if (now - last < TimeUnit.MILLISECONDS.toNanos(slowLogIntervalMs)
+                || !metrics.lastSlowLog().compareAndSet(last, now)) {
+            metrics.suppressedSlowCalls().incrementAndGet();
+            return;
         }
+        log.warn("Медленное выполнение сервиса",
+                kv("service", metrics.service()),
+                kv("method", metrics.method()),
+                kv("executionTimeMs", TimeUnit.NANOSECONDS.toMillis(executionTime)),
+                kv("suppressedSlowCalls", metrics.suppressedSlowCalls().getAndSet(0)),
+                kv("slow", true));
     }
 
     /**
@@ -125,5 +190,11 @@ public class LoggingAspect {
                 kv("exceptionType", ex.getClass().getSimpleName()),
                 kv("exceptionMessage", ex.getMessage()));
     }
-}
 
+    /**
+     * Закешированные для метода сервиса таймеры и состояние выборки логов медленных вызовов.
+     */
+    private record MethodMetrics(String service, String method, String spanName, Timer success, Timer error,
+                                 AtomicLong lastSlowLog, AtomicLong suppressedSlowCalls) {
+    }
+}
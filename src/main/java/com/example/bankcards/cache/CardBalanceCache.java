@@ -0,0 +1,53 @@
+package com.example.bankcards.cache;
+
+import java.util.Collection;
+
+/**
+ * Кеш балансов и статусов карт.
+ * <p>
+ * Чтение заполняет кеш через {@link #putIfCurrent}: значение, прочитанное из БД до завершения
+ * параллельной записи, не попадает в кеш. Запись вызывает {@link #evict} или {@link #evictOwner};
+ * внутри транзакции удаление выполняется после ее фиксации, поэтому следующий запрос на этом узле
+ * видит зафиксированные данные.
+ * </p>
+ */
+public interface CardBalanceCache {
+
+    /**
+     * Возвращает снимок карты из кеша.
+     *
+     * @param cardId Идентификатор карты.
+     * @return Снимок или {@code null}, если его нет или он истек.
+     */
+    CardBalanceSnapshot get(Long cardId);
+
+    /**
+     * Возвращает текущее поколение кеша; оно меняется при каждом удалении записей.
+     * Читатель берет поколение до обращения к БД и передает его в {@link #putIfCurrent}.
+     *
+     * @return Поколение кеша.
+     */
+    long generation();
+
+    /**
+     * Сохраняет снимок, если с момента получения {@code generation} записи не удалялись.
+     *
+     * @param snapshot   Снимок, прочитанный из БД.
+     * @param generation Поколение, полученное до чтения.
+     */
+    void putIfCurrent(CardBalanceSnapshot snapshot, long generation);
+
+    /**
+     * Удаляет записи карт (после фиксации текущей транзакции, если она есть).
+     *
+     * @param cardIds Идентификаторы измененных карт.
+     */
+    void evict(Collection<Long> cardIds);
+
+    /**
+     * Удаляет записи всех карт владельца (после фиксации текущей транзакции, если она есть).
+     *
+     * @param ownerId Идентификатор владельца.
+     */
+    void evictOwner(Long ownerId);
+}
@@ -0,0 +1,43 @@
+package com.example.bankcards.cache;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Зафиксированные в БД баланс и статус карты для ответа {@code GET /cards/{id}/balance}.
+ *
+ * @param cardId     Идентификатор карты.
+ * @param ownerId    Идентификатор владельца (для проверки доступа без загрузки карты).
+ * @param version    Версия карты (для ETag).
+ * @param balance    Баланс.
+ * @param status     Статус.
+ * @param expireDate Дата окончания срока действия.
+ */
+public record CardBalanceSnapshot(Long cardId, Long ownerId, Long version, BigDecimal balance, CardStatus status,
+                                  LocalDate expireDate) {
+
+    /**
+     * Снимок состояния карты; владелец должен быть загружен.
+     *
+     * @param card Карта.
+     * @return Снимок баланса и статуса.
+     */
+    public static CardBalanceSnapshot of(Card card) {
+        return new CardBalanceSnapshot(card.getId(), card.getOwner().getId(), card.getVersion(), card.getBalance(),
+                card.getStatus(), card.getExpireDate());
+    }
+
+    /**
+     * Проверяет, что срок действия истек, а статус еще не обновлен: такой снимок нельзя отдавать,
+     * статус должен пересчитать сервис.
+     *
+     * @param today Текущая дата.
+     * @return {@code true}, если статус карты устарел.
+     */
+    public boolean isStatusOutdated(LocalDate today) {
+        return expireDate != null && expireDate.isBefore(today) && status != CardStatus.EXPIRED;
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.bankcards.cache;
+
+import com.example.bankcards.util.AfterCommit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Кеш балансов в памяти узла.
+ * <p>
+ * Записи этого узла видны сразу после фиксации. Изменения, сделанные другими узлами,
+ * становятся видны не позже чем через {@code card.balance-cache.ttl-ms}.
+ * </p>
+ */
+public class LocalCardBalanceCache implements CardBalanceCache {
+
+    private static final String CACHE = "card.balance.cache";
+
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final Counter hits;
+    private final Counter misses;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    public LocalCardBalanceCache(long ttlMillis, int maxEntries, MeterRegistry meterRegistry) {
+        this.ttlMillis = ttlMillis;
+        this.maxEntries = maxEntries;
+        this.hits = meterRegistry.counter(CACHE, "result", "hit");
+        this.misses = meterRegistry.counter(CACHE, "result", "miss");
+        Gauge.builder(CACHE + ".size", entries, Map::size)
+                .description("Балансы карт в кеше узла")
+                .register(meterRegistry);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CardBalanceSnapshot get(Long cardId) {
+        Entry entry = entries.get(cardId);
+        if (entry == null || entry.isExpired(System.currentTimeMillis())) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.snapshot();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void putIfCurrent(CardBalanceSnapshot snapshot, long expectedGeneration) {
+        // Проверка поколения внутри compute: удаление ключа увеличивает поколение до remove по тому же ключу
+        entries.compute(snapshot.cardId(), (id, current) -> {
+            if (generation.get() != expectedGeneration || current == null && entries.size() >= maxEntries) {
+                return current;
+            }
+            return new Entry(snapshot, System.currentTimeMillis() + ttlMillis);
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void evict(Collection<Long> cardIds) {
+        List<Long> ids = List.copyOf(cardIds);
+        AfterCommit.run(() -> {
+            generation.incrementAndGet();
+            ids.forEach(entries::remove);
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void evictOwner(Long ownerId) {
+        AfterCommit.run(() -> {
+            generation.incrementAndGet();
+            entries.values().removeIf(entry -> ownerId.equals(entry.snapshot().ownerId()));
+        });
+    }
+
+    /**
+     * Удаляет истекшие записи.
+     */
+    @Scheduled(fixedDelayString = "${card.balance-cache.cleanup-interval-ms:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.isExpired(now));
+    }
+
+    /**
+     * Запись кеша.
+     *
+     * @param snapshot  Снимок карты.
+     * @param expiresAt Момент истечения записи (мс).
+     */
+    private record Entry(CardBalanceSnapshot snapshot, long expiresAt) {
+
+        boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.bankcards.cache;
+
+import java.util.Collection;
+
+/**
+ * Отключенный кеш ({@code card.balance-cache.store=none}): каждый запрос баланса читает карту из БД.
+ */
+public class NoOpCardBalanceCache implements CardBalanceCache {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CardBalanceSnapshot get(Long cardId) {
+        return null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long generation() {
+        return 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void putIfCurrent(CardBalanceSnapshot snapshot, long generation) {
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void evict(Collection<Long> cardIds) {
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void evictOwner(Long ownerId) {
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.cache.CardBalanceCache;
+import com.example.bankcards.cache.LocalCardBalanceCache;
+import com.example.bankcards.cache.NoOpCardBalanceCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Конфигурационный класс для кеша балансов карт.
+ */
+@Configuration
+public class CardBalanceCacheConfig {
+
+    /**
+     * Создает кеш балансов в памяти узла (по умолчанию).
+     * @param ttlMillis     время жизни записи, мс.
+     * @param maxEntries    максимальное количество записей.
+     * @param meterRegistry реестр метрик.
+     * @return кеш балансов.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "card.balance-cache.store", havingValue = "local", matchIfMissing = true)
+    public CardBalanceCache localCardBalanceCache(@Value("${card.balance-cache.ttl-ms:5000}") long ttlMillis,
+                                                  @Value("${card.balance-cache.max-entries:100000}") int maxEntries,
+                                                  MeterRegistry meterRegistry) {
+        return new LocalCardBalanceCache(ttlMillis, maxEntries, meterRegistry);
+    }
+
+    /**
+     * Отключает кеширование балансов ({@code card.balance-cache.store=none}).
+     * @return кеш, который ничего не хранит.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "card.balance-cache.store", havingValue = "none")
+    public CardBalanceCache noOpCardBalanceCache() {
+        return new NoOpCardBalanceCache();
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.bankcards.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Конфигурационный класс для рассылки событий карт через SSE.
+ */
+@Configuration
+public class CardEventConfig {
+
+    /**
+     * Создает пул потоков, записывающих события в SSE-соединения.
+     * Поток занят только на время записи, ожидающие соединения потоков не занимают.
+     *
+     * @param threads       Количество потоков ({@code card.events.dispatch-threads}).
+     * @param queueCapacity Размер очереди задач записи ({@code card.events.dispatch-queue-capacity}).
+     * @return Пул потоков рассылки.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor cardEventDispatchExecutor(@Value("${card.events.dispatch-threads:4}") int threads,
+                                                            @Value("${card.events.dispatch-queue-capacity:10000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("card-events-");
+        return executor;
+    }
+}
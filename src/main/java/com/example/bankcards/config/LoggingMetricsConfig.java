@@ -0,0 +1,60 @@
+package com.example.bankcards.config;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import com.example.bankcards.logging.MeteredAsyncAppender;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Iterator;
+
+/**
+ * Конфигурационный класс метрик асинхронного логирования.
+ * <p>
+ * Для каждого {@link MeteredAsyncAppender}, подключенного к корневому логгеру, регистрирует
+ * заполненность очереди ({@code logback.async.queue.depth}), свободное место
+ * ({@code logback.async.queue.remaining}) и число отброшенных событий ({@code logback.async.discarded}).
+ * </p>
+ */
+@Configuration
+public class LoggingMetricsConfig {
+
+    /**
+     * Создает бин, регистрирующий метрики очередей асинхронных appender'ов.
+     *
+     * @return {@link MeterBinder} для метрик логирования.
+     */
+    @Bean
+    public MeterBinder asyncAppenderMetrics() {
+        return registry -> {
+            if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext context)) {
+                return;
+            }
+            Iterator<Appender<ILoggingEvent>> appenders =
+                    context.getLogger(Logger.ROOT_LOGGER_NAME).iteratorForAppenders();
+            while (appenders.hasNext()) {
+                if (!(appenders.next() instanceof MeteredAsyncAppender appender)) {
+                    continue;
+                }
+                Gauge.builder("logback.async.queue.depth", appender, MeteredAsyncAppender::getNumberOfElementsInQueue)
+                        .description("Событий в очереди асинхронного appender'а")
+                        .tag("appender", appender.getName())
+                        .register(registry);
+                Gauge.builder("logback.async.queue.remaining", appender, MeteredAsyncAppender::getRemainingCapacity)
+                        .description("Свободное место в очереди асинхронного appender'а")
+                        .tag("appender", appender.getName())
+                        .register(registry);
+                FunctionCounter.builder("logback.async.discarded", appender, MeteredAsyncAppender::getDiscardedCount)
+                        .description("События INFO и ниже, отброшенные при заполнении очереди")
+                        .tag("appender", appender.getName())
+                        .register(registry);
+            }
+        };
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.Properties;
 
@@ -49,6 +50,30 @@ public class MailConfig {
 
         props.put("mail.smtp.socketFactory.class", "javax.net.ssl.SSLSocketFactory");
 
+        // Зависший почтовый сервер не должен надолго занимать поток отправки
+        props.put("mail.smtp.connectiontimeout", 5000);
+        props.put("mail.smtp.timeout", 10000);
+        props.put("mail.smtp.writetimeout", 10000);
+
         return mailSender;
     }
+
+    /**
+     * Создает ограниченный пул потоков для отправки писем из очереди.
+     * Каждый поток отправляет свою часть порции через одно SMTP-соединение.
+     *
+     * @param workers Количество потоков ({@code sender.outbox.workers}).
+     * @return Пул потоков отправки.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor mailDispatchExecutor(@Value("${sender.outbox.workers:4}") int workers) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(workers);
+        executor.setThreadNamePrefix("mail-dispatch-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
 }
\ No newline at end of file
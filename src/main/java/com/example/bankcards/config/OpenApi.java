@@ -1,9 +1,11 @@
 package com.example.bankcards.config;
 
+import com.example.bankcards.security.CurrentUser;
 import io.swagger.v3.oas.models.Components;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.security.SecurityRequirement;
 import io.swagger.v3.oas.models.security.SecurityScheme;
+import org.springdoc.core.utils.SpringDocUtils;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -13,6 +15,11 @@ import org.springframework.context.annotation.Configuration;
 @Configuration
 public class OpenApi {
 
+    static {
+        // Текущий пользователь подставляется из аутентификации и не является параметром запроса
+        SpringDocUtils.getConfig().addAnnotationsToIgnore(CurrentUser.class);
+    }
+
     /**
      * Создает и настраивает бин OpenAPI для документирования API.
      * Этот метод настраивает схему безопасности "bearerAuth" для аутентификации с помощью JWT.
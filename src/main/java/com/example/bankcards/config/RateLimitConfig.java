@@ -0,0 +1,71 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.filter.RateLimitFilter;
+import com.example.bankcards.ratelimit.JdbcRateLimitStore;
+import com.example.bankcards.ratelimit.LocalRateLimitStore;
+import com.example.bankcards.ratelimit.RateLimitProperties;
+import com.example.bankcards.ratelimit.RateLimitStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+/**
+ * Конфигурационный класс для ограничения частоты запросов.
+ */
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitConfig {
+
+    /**
+     * Создает хранилище корзин в памяти узла (по умолчанию).
+     * @param meterRegistry реестр метрик.
+     * @return хранилище корзин.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "rate-limit.store", havingValue = "local", matchIfMissing = true)
+    public RateLimitStore localRateLimitStore(MeterRegistry meterRegistry) {
+        return new LocalRateLimitStore(meterRegistry);
+    }
+
+    /**
+     * Создает общее для узлов хранилище корзин в PostgreSQL ({@code rate-limit.store=jdbc}).
+     * @param jdbcTemplate шаблон JDBC-запросов.
+     * @return хранилище корзин.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "rate-limit.store", havingValue = "jdbc")
+    public RateLimitStore jdbcRateLimitStore(NamedParameterJdbcTemplate jdbcTemplate) {
+        return new JdbcRateLimitStore(jdbcTemplate);
+    }
+
+    /**
+     * Создает фильтр ограничения частоты запросов. Фильтр подключается в цепочку Spring Security
+     * в {@link SecurityConfig}.
+     * @param properties    настройки ограничения.
+     * @param store         хранилище корзин.
+     * @param meterRegistry реестр метрик.
+     * @return фильтр ограничения частоты.
+     */
+    @Bean
+    public RateLimitFilter rateLimitFilter(RateLimitProperties properties, RateLimitStore store,
+                                           MeterRegistry meterRegistry) {
+        return new RateLimitFilter(properties, store, meterRegistry);
+    }
+
+    /**
+     * Отключает регистрацию фильтра в контейнере сервлетов: он должен выполняться только
+     * внутри цепочки Spring Security, после аутентификации.
+     * @param rateLimitFilter фильтр ограничения частоты.
+     * @return регистрация фильтра.
+     */
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(RateLimitFilter rateLimitFilter) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(rateLimitFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
+}
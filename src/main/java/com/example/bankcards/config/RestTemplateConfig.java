@@ -1,5 +1,6 @@
 package com.example.bankcards.config;
 
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestTemplate;
@@ -18,13 +19,15 @@ public class RestTemplateConfig {
      * Создает бин {@link RestTemplate}.
      * <p>
      * Этот бин может быть внедрен в другие компоненты для взаимодействия
-     * с внешними REST API.
+     * с внешними REST API. Создается через {@link RestTemplateBuilder}, поэтому исходящие
+     * запросы попадают в трассу отдельным спаном и передают заголовок {@code traceparent}.
      * </p>
      *
+     * @param builder Построитель с настройками наблюдаемости Spring Boot.
      * @return Новый экземпляр {@link RestTemplate}.
      */
     @Bean
-    public RestTemplate getRestTemplate() {
-        return new RestTemplate();
+    public RestTemplate getRestTemplate(RestTemplateBuilder builder) {
+        return builder.build();
     }
 }
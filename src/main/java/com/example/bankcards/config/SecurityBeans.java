@@ -1,9 +1,15 @@
 package com.example.bankcards.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import java.util.Map;
 
 /**
  * Конфигурационный класс для бинов безопасности.
@@ -11,12 +17,63 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 @Configuration
 public class SecurityBeans {
 
+    public static final String BCRYPT = "bcrypt";
+    public static final String PBKDF2 = "pbkdf2";
+
+    /**
+     * Создает бин PasswordEncoder с выбором алгоритма по префиксу хеша ({@code {bcrypt}...}).
+     * Новые хеши создаются алгоритмом {@code auth.password-hashing.algorithm}; хеши без префикса,
+     * созданные до перехода, проверяются как BCrypt. Хеш другого алгоритма или с меньшей стоимостью
+     * пересчитывается при следующем успешном входе.
+     *
+     * @param algorithm      Алгоритм новых хешей: {@code bcrypt} или {@code pbkdf2}.
+     * @param bcryptStrength Стоимость BCrypt (log2 числа раундов).
+     * @return экземпляр PasswordEncoder.
+     */
+    @Bean
+    public PasswordEncoder passwordEncoder(@Value("${auth.password-hashing.algorithm:bcrypt}") String algorithm,
+                                           @Value("${auth.password-hashing.bcrypt-strength:10}") int bcryptStrength) {
+        return createPasswordEncoder(algorithm, bcryptStrength);
+    }
+
     /**
-     * Создает бин PasswordEncoder, который использует BCrypt для хеширования паролей.
+     * Создает PasswordEncoder с указанными параметрами (используется также бенчмарком хеширования).
+     *
+     * @param algorithm      Алгоритм новых хешей.
+     * @param bcryptStrength Стоимость BCrypt.
      * @return экземпляр PasswordEncoder.
+     * @throws IllegalArgumentException если алгоритм не поддерживается.
+     */
+    public static PasswordEncoder createPasswordEncoder(String algorithm, int bcryptStrength) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        Map<String, PasswordEncoder> encoders = Map.of(
+                BCRYPT, bcrypt,
+                PBKDF2, Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+        if (!encoders.containsKey(algorithm)) {
+            throw new IllegalArgumentException("Неподдерживаемый алгоритм хеширования паролей: " + algorithm);
+        }
+        DelegatingPasswordEncoder passwordEncoder = new DelegatingPasswordEncoder(algorithm, encoders);
+        passwordEncoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return passwordEncoder;
+    }
+
+    /**
+     * Создает ограниченный пул потоков для хеширования и проверки паролей (bcrypt).
+     * Потоки Tomcat только ждут результат, поэтому всплеск входов занимает не больше {@code threads} ядер,
+     * а при заполненной очереди новые задачи отклоняются сразу.
+     *
+     * @param threads       Количество потоков ({@code auth.password-hashing.threads}).
+     * @param queueCapacity Размер очереди ожидающих проверок ({@code auth.password-hashing.queue-capacity}).
+     * @return Пул потоков хеширования паролей.
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public ThreadPoolTaskExecutor passwordHashingExecutor(@Value("${auth.password-hashing.threads:2}") int threads,
+                                                          @Value("${auth.password-hashing.queue-capacity:32}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("password-hashing-");
+        return executor;
     }
 }
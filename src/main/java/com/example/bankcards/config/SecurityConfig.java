@@ -1,14 +1,17 @@
 package com.example.bankcards.config;
 
+import com.example.bankcards.filter.RateLimitFilter;
 import com.example.bankcards.security.ExceptionHandlerFilter;
 import com.example.bankcards.security.RefreshTokenFilter;
 import com.example.bankcards.security.jwt.JwtTokenFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
@@ -24,14 +27,17 @@ import java.util.Arrays;
  * Конфигурационный класс для настройки безопасности веб-приложения.
  * Этот класс настраивает CORS, цепочку фильтров безопасности, включая обработку JWT,
  * и определяет правила авторизации для различных эндпоинтов.
+ * Проверки {@code @PreAuthorize} на контроллерах включены через {@link EnableMethodSecurity}.
  */
 @Configuration
 @EnableWebSecurity
+@EnableMethodSecurity
 @RequiredArgsConstructor
 public class SecurityConfig {
 
     private final JwtTokenFilter jwtTokenFilter;
     private final RefreshTokenFilter refreshTokenFilter;
+    private final RateLimitFilter rateLimitFilter;
 
     private final ExceptionHandlerFilter exceptionHandlerFilter;
 
@@ -66,9 +72,12 @@ public class SecurityConfig {
                 .addFilterBefore(exceptionHandlerFilter, UsernamePasswordAuthenticationFilter.class)
                 .addFilterAfter(jwtTokenFilter, ExceptionHandlerFilter.class)
                 .addFilterAfter(refreshTokenFilter, JwtTokenFilter.class)
+                .addFilterAfter(rateLimitFilter, RefreshTokenFilter.class)
                 .exceptionHandling(Customizer.withDefaults())
                 .authorizeHttpRequests(c ->
                         c
+                                // Повторный проход асинхронного запроса (завершение SSE) уже авторизован при открытии потока
+                                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                                 .requestMatchers("/favicon.ico", "/css/**", "/js/**", "/images/**").permitAll()
                                 .requestMatchers("/swagger/**", "/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll()
                                 .requestMatchers("/docs/**").permitAll()
@@ -77,6 +86,7 @@ public class SecurityConfig {
                                 .requestMatchers("/authorize/**").permitAll()
 
                                 .requestMatchers("/users/**").authenticated()
+                                .requestMatchers(HttpMethod.GET, "/cards/events").authenticated()
                                 .requestMatchers(HttpMethod.GET, "/cards/{id}").authenticated()
                                 .requestMatchers("/cards/search", "/cards/page").authenticated()
                                 .requestMatchers(HttpMethod.GET, "/cards").authenticated()
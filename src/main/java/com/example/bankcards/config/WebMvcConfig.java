@@ -0,0 +1,24 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.security.CurrentUserArgumentResolver;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Конфигурационный класс Spring MVC.
+ */
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    /**
+     * Регистрирует разрешение параметров {@link com.example.bankcards.security.CurrentUser}.
+     * @param resolvers список обработчиков аргументов.
+     */
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(new CurrentUserArgumentResolver());
+    }
+}
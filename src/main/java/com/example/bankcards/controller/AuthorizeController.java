@@ -38,13 +38,15 @@ public class AuthorizeController {
      * Всё остальное (проверка пароля, генерация токенов, установка cookie) реализовано в {@link AuthorizeService}.
      *
      * @param userAuthorizeDTO DTO с полями для авторизации (email, password). Должен проходить валидацию.
+     * @param request         HttpServletRequest, используется для определения IP-адреса клиента.
      * @param response        HttpServletResponse, используется для установки HttpOnly cookie (access/refresh токены).
      * @return {@link ResponseEntity} с телом {@link TokenRespDTO}, содержащим access и refresh токены.
      */
     @PostMapping("/login")
     @Operation(summary = "Эндпоинт для авторизации: принимает email и password и устанавливает HttpOnly cookies с access/refresh токенами")
-    public ResponseEntity<TokenRespDTO> authorizeUser(@Valid @RequestBody UserAuthorizeReqDTO userAuthorizeDTO, HttpServletResponse response) {
-        return authorizeService.authorizeUser(userAuthorizeDTO, response);
+    public ResponseEntity<TokenRespDTO> authorizeUser(@Valid @RequestBody UserAuthorizeReqDTO userAuthorizeDTO,
+                                                      HttpServletRequest request, HttpServletResponse response) {
+        return authorizeService.authorizeUser(userAuthorizeDTO, request, response);
     }
 
     /**
@@ -5,19 +5,20 @@ import com.example.bankcards.dto.request.TransferReqDTO;
 import com.example.bankcards.dto.response.CardBalanceRespDTO;
 import com.example.bankcards.dto.response.CardRespDTO;
 import com.example.bankcards.entity.User;
-import com.example.bankcards.exception.NotFoundException;
-import com.example.bankcards.exception.errors.NotFoundError;
-import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.CurrentUser;
+import com.example.bankcards.service.CardEventService;
 import com.example.bankcards.service.CardService;
-import com.example.bankcards.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -25,9 +26,10 @@ import java.util.List;
  * Контроллер для управления банковскими картами пользователя.
  * <p>
  * Предоставляет REST-эндпоинты для получения информации о картах текущего пользователя,
- * получения баланса, поиска/пагинации карт и перевода средств между своими картами.
- * Вся бизнес-логика делегируется в {@link CardService}, а информация о текущем пользователе
- * получается через {@link UserService} и {@link UserRepository}.
+ * получения баланса, поиска/пагинации карт, перевода средств между своими картами
+ * и подписки на изменения карт через SSE.
+ * Вся бизнес-логика делегируется в {@link CardService}, а текущий пользователь
+ * подставляется в параметры, помеченные {@link CurrentUser}.
  */
 @RestController
 @RequiredArgsConstructor
@@ -35,8 +37,7 @@ import java.util.List;
 public class CardController {
 
     private final CardService cardService;
-    private final UserService userService;
-    private final UserRepository userRepository;
+    private final CardEventService cardEventService;
 
 
     /**
@@ -44,28 +45,41 @@ public class CardController {
      * <p>
      * Возвращает DTO с подробной информацией о карте, если она принадлежит текущему пользователю.
      * Валидацию прав доступа и проверку существования карты выполняет {@link CardService}.
+     * Ответ снабжается заголовком {@code ETag}; если он совпадает с {@code If-None-Match}, возвращается
+     * {@code 304 Not Modified} без загрузки и расшифровки карты.
      *
      * @param id идентификатор карты
-     * @return {@link CardRespDTO} с информацией о карте
+     * @param user текущий пользователь
+     * @param request текущий запрос (проверка {@code If-None-Match})
+     * @return {@link CardRespDTO} с информацией о карте или {@code null} при ответе 304
      * @throws com.example.bankcards.exception.NotFoundException если карта не найдена или не принадлежит пользователю
      */
     @GetMapping("/{id}")
     @Operation(summary = "Получить карту по id")
-    @PreAuthorize("hasRole('ADMIN') or @cardRepository.findById(#id).get().getOwner().getEmail() == authentication.name")
-    public CardRespDTO getCard(@PathVariable Long id) {
-        User user = getCurrentUser();
+    @PreAuthorize("@cardAccessEvaluator.canAccess(#id, authentication)")
+    public CardRespDTO getCard(@PathVariable Long id, @CurrentUser User user, WebRequest request) {
+        if (isNotModified(request, cardService.getCardETag(id))) {
+            return null;
+        }
         return cardService.getCardById(id, user);
     }
 
     /**
      * Получить все карты текущего пользователя.
+     * <p>
+     * ETag списка вычисляется одним агрегирующим запросом по версиям карт; при совпадении
+     * с {@code If-None-Match} возвращается {@code 304 Not Modified}.
      *
-     * @return список {@link CardRespDTO} — все карты, принадлежащие текущему пользователю
+     * @param user текущий пользователь
+     * @param request текущий запрос (проверка {@code If-None-Match})
+     * @return список {@link CardRespDTO} — все карты, принадлежащие текущему пользователю, или {@code null} при ответе 304
      */
     @GetMapping
     @Operation(summary = "Получить все свои карты")
-    public List<CardRespDTO> getMyCards() {
-        User user = getCurrentUser();
+    public List<CardRespDTO> getMyCards(@CurrentUser User user, WebRequest request) {
+        if (isNotModified(request, cardService.getCardsETag(user))) {
+            return null;
+        }
         return cardService.getCardsByOwner(user);
     }
 
@@ -76,29 +90,51 @@ public class CardController {
      * Все проверки (наличие средств, принадлежность карт пользователю, валидность сумм) выполняются в {@link CardService}.
      *
      * @param transferReqDTO DTO с параметрами перевода. Должен быть валидирован (аннотация {@link Valid}).
+     * @param user текущий пользователь
      */
     @PostMapping("/transfer")
     @Operation(summary = "Перевод между своими картами")
-    public void transfer(@Valid @RequestBody TransferReqDTO transferReqDTO) {
-        User user = getCurrentUser();
+    public void transfer(@Valid @RequestBody TransferReqDTO transferReqDTO, @CurrentUser User user) {
         cardService.transferBetweenCards(transferReqDTO, user);
     }
 
     /**
      * Получить баланс конкретной карты текущего пользователя.
+     * <p>
+     * Поддерживает условный запрос по {@code If-None-Match} так же, как {@link #getCard(Long, User, WebRequest)}.
      *
      * @param id идентификатор карты
-     * @return {@link CardBalanceRespDTO} с информацией о балансе карты
+     * @param user текущий пользователь
+     * @param request текущий запрос (проверка {@code If-None-Match})
+     * @return {@link CardBalanceRespDTO} с информацией о балансе карты или {@code null} при ответе 304
      * @throws com.example.bankcards.exception.NotFoundException если карта не найдена или не принадлежит пользователю
      */
     @GetMapping("/{id}/balance")
     @Operation(summary = "Получить баланс карты по id")
-    @PreAuthorize("hasRole('ADMIN') or @cardRepository.findById(#id).get().getOwner().getEmail() == authentication.name")
-    public CardBalanceRespDTO getCardBalance(@PathVariable Long id) {
-        User user = getCurrentUser();
+    @PreAuthorize("@cardAccessEvaluator.canAccess(#id, authentication)")
+    public CardBalanceRespDTO getCardBalance(@PathVariable Long id, @CurrentUser User user, WebRequest request) {
+        if (isNotModified(request, cardService.getCardBalanceETag(id))) {
+            return null;
+        }
         return cardService.getCardBalance(id, user);
     }
 
+    /**
+     * Подписаться на изменения баланса и статуса карт текущего пользователя (Server-Sent Events).
+     * <p>
+     * События {@code BALANCE_CHANGED} и {@code STATUS_CHANGED} приходят после переводов, блокировки
+     * и активации (в том числе массовых), одобрения запросов на блокировку и истечения срока действия. Соединение закрывается по таймауту или при отставании
+     * клиента; после переподключения актуальное состояние карт читается обычными запросами.
+     *
+     * @param user текущий пользователь
+     * @return поток событий {@code text/event-stream}
+     */
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Поток изменений баланса и статуса своих карт (SSE)")
+    public SseEmitter streamCardEvents(@CurrentUser User user) {
+        return cardEventService.subscribe(user.getId());
+    }
+
     /**
      * Поиск и пагинация карт текущего пользователя.
      * <p>
@@ -107,27 +143,24 @@ public class CardController {
      *
      * @param query    необязательная строка поиска
      * @param pageable параметры пагинации и сортировки
+     * @param user     текущий пользователь
      * @return {@link ResponseEntity} со страницей {@link CardRespDTO}
      */
     @GetMapping("/search")
     @Operation(summary = "Поиск и пагинация своих карт")
     public ResponseEntity<Page<CardRespDTO>> searchUserCards(@RequestParam(required = false) String query,
-                                                            Pageable pageable) {
-        User user = getCurrentUser();
+                                                            Pageable pageable, @CurrentUser User user) {
         return ResponseEntity.ok(cardService.searchCards(user, query, pageable));
     }
 
     /**
-     * Получить сущность пользователя, соответствующую текущей аутентифицированной сессии.
-     * <p>
-     * Извлекает email текущего пользователя через {@link UserService#getCurrentUserInfo()} и затем
-     * загружает {@link User} из {@link UserRepository}. В случае отсутствия выдаёт {@link NotFoundException}.
+     * Устанавливает заголовок {@code ETag} и сверяет его с {@code If-None-Match}.
      *
-     * @return {@link User} текущего пользователя
-     * @throws NotFoundException если пользователь не найден
+     * @param request текущий запрос
+     * @param etag    ETag ответа или {@code null}, если его нельзя вычислить без формирования ответа
+     * @return {@code true}, если клиенту нужно вернуть {@code 304 Not Modified}
      */
-    private User getCurrentUser() {
-        String email = userService.getCurrentUserInfo().getEmail();
-        return userRepository.findByEmail(email).orElseThrow(() -> new NotFoundException(NotFoundError.USER_NOT_FOUND));
+    private static boolean isNotModified(WebRequest request, String etag) {
+        return etag != null && request.checkNotModified(etag);
     }
 }
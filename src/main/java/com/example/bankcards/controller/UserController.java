@@ -4,11 +4,15 @@ import io.swagger.v3.oas.annotations.Operation;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import com.example.bankcards.constant.PathConstants;
 import com.example.bankcards.dto.request.UpdateCurrentUserReqDTO;
 import com.example.bankcards.dto.response.UserRespDTO;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.security.CurrentUser;
 import com.example.bankcards.service.CookieService;
 import com.example.bankcards.service.UserService;
+import com.example.bankcards.util.ETags;
 
 /**
  * Контроллер для операций, связанных с текущим пользователем.
@@ -29,13 +33,20 @@ public class UserController {
      * Получить информацию о текущем авторизованном пользователе.
      * <p>
      * Возвращает DTO с основными полями пользователя (email, имя и т.п.), полученными из контекста безопасности.
+     * ETag строится по версии пользователя из контекста безопасности; при совпадении с {@code If-None-Match}
+     * возвращается {@code 304 Not Modified}. Ответ строится из того же пользователя без повторной загрузки из базы.
      *
-     * @return {@link UserRespDTO} с информацией о текущем пользователе
+     * @param user    текущий пользователь
+     * @param request текущий запрос (проверка {@code If-None-Match})
+     * @return {@link UserRespDTO} с информацией о текущем пользователе или {@code null} при ответе 304
      */
     @GetMapping("/info")
     @Operation(summary = "Получение информации о текущем авторизированном пользователе")
-    public UserRespDTO getUserInfo() {
-        return userService.getCurrentUserInfo();
+    public UserRespDTO getUserInfo(@CurrentUser User user, WebRequest request) {
+        if (user.getVersion() != null && request.checkNotModified(ETags.of("u", user.getId(), user.getVersion()))) {
+            return null;
+        }
+        return userService.getResponseDTO(user);
     }
 
     /**
@@ -1,19 +1,26 @@
 package com.example.bankcards.controller.admin;
 
 import com.example.bankcards.constant.PathConstants;
+import com.example.bankcards.dto.request.BulkBlockRequestDecisionReqDTO;
+import com.example.bankcards.dto.response.BlockRequestDecisionResultRespDTO;
 import com.example.bankcards.dto.response.CardBlockRequestRespDTO;
+import com.example.bankcards.entity.CardBlockRequest;
 import com.example.bankcards.entity.User;
-import com.example.bankcards.exception.NotFoundException;
-import com.example.bankcards.exception.errors.NotFoundError;
-import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.CurrentUser;
 import com.example.bankcards.service.CardBlockRequestService;
-import com.example.bankcards.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -22,8 +29,8 @@ import java.util.List;
  * Предоставляет API для просмотра всех запросов на блокировку карт и действий администратора
  * по подтверждению или отклонению этих запросов. Доступ к контроллеру ограничен ролью ADMIN
  * (аннотация {@link PreAuthorize}). Бизнес-логику обработки запросов делегирует в
- * {@link CardBlockRequestService}. Для получения информации о текущем администраторе используется
- * {@link UserService} и {@link UserRepository}.
+ * {@link CardBlockRequestService}. Текущий администратор подставляется в параметры,
+ * помеченные {@link CurrentUser}.
  */
 @RestController
 @RequiredArgsConstructor
@@ -32,8 +39,6 @@ import java.util.List;
 public class AdminCardBlockRequestController {
 
     private final CardBlockRequestService blockRequestService;
-    private final UserService userService;
-    private final UserRepository userRepository;
 
 
     /**
@@ -50,6 +55,29 @@ public class AdminCardBlockRequestController {
         return blockRequestService.getAllBlockRequests();
     }
 
+    /**
+     * Получить очередь запросов на блокировку карт.
+     * <p>
+     * Возвращает страницу запросов с указанным статусом (по умолчанию PENDING), отсортированных
+     * по времени создания — от самых старых к новым. Фильтрация и пагинация выполняются на стороне БД.
+     * Параметры {@code from} и {@code to} ограничивают период создания запросов и являются необязательными.
+     *
+     * @param status   статус запросов (по умолчанию PENDING)
+     * @param from     (необязательный) нижняя граница даты создания, включительно
+     * @param to       (необязательный) верхняя граница даты создания, не включительно
+     * @param pageable параметры пагинации и сортировки
+     * @return страница {@link CardBlockRequestRespDTO}
+     */
+    @GetMapping("/queue")
+    @Operation(summary = "Получить очередь запросов на блокировку карт (фильтрация и пагинация)")
+    public Page<CardBlockRequestRespDTO> getBlockRequestQueue(
+            @RequestParam(defaultValue = "PENDING") CardBlockRequest.Status status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @PageableDefault(size = 20, sort = "createdAt", direction = Sort.Direction.ASC) Pageable pageable) {
+        return blockRequestService.getBlockRequestQueue(status, from, to, pageable);
+    }
+
     /**
      * Подтвердить запрос на блокировку карты.
      * <p>
@@ -59,13 +87,13 @@ public class AdminCardBlockRequestController {
      *
      * @param requestId идентификатор запроса на блокировку
      * @param comment   (необязательный) комментарий администратора к решению
+     * @param admin     текущий администратор
      * @return {@link ResponseEntity} с телом {@link CardBlockRequestRespDTO} и статусом 200 OK
      */
     @PostMapping("/{requestId}/approve")
     @Operation(summary = "Подтвердить запрос на блокировку карты (карта будет заблокирована)")
     public ResponseEntity<CardBlockRequestRespDTO> approveBlockRequest(@PathVariable Long requestId,
-                                                                        @RequestParam(required = false) String comment) {
-        User admin = getCurrentUser();
+                                                                        @RequestParam(required = false) String comment, @CurrentUser User admin) {
         CardBlockRequestRespDTO resp = blockRequestService.approveBlockRequest(requestId, admin, comment);
         return ResponseEntity.ok(resp);
     }
@@ -79,28 +107,43 @@ public class AdminCardBlockRequestController {
      *
      * @param requestId идентификатор запроса на блокировку
      * @param comment   (необязательный) комментарий администратора с объяснением причины отклонения
+     * @param admin     текущий администратор
      * @return {@link ResponseEntity} с телом {@link CardBlockRequestRespDTO} и статусом 200 OK
      */
     @PostMapping("/{requestId}/reject")
     @Operation(summary = "Отклонить запрос на блокировку карты")
     public ResponseEntity<CardBlockRequestRespDTO> rejectBlockRequest(@PathVariable Long requestId,
-                                                                       @RequestParam(required = false) String comment) {
-        User admin = getCurrentUser();
+                                                                       @RequestParam(required = false) String comment, @CurrentUser User admin) {
         CardBlockRequestRespDTO resp = blockRequestService.rejectBlockRequest(requestId, admin, comment);
         return ResponseEntity.ok(resp);
     }
 
     /**
-     * Получить сущность текущего аутентифицированного администратора.
+     * Массово подтвердить запросы на блокировку карт.
      * <p>
-     * Извлекает email текущего пользователя через {@link UserService#getCurrentUserInfo()} и затем
-     * загружает {@link User} из {@link UserRepository}. В случае отсутствия пользователя будет
-     * выброшено соответствующее исключение из {@code Optional#orElseThrow()}.
+     * Обрабатывает все переданные запросы в одной транзакции: карты по одобренным запросам блокируются.
+     * Не найденные или уже обработанные запросы не прерывают операцию и возвращаются с именем ошибки.
+     *
+     * @param reqDTO идентификаторы запросов и общий комментарий администратора
+     * @param admin текущий администратор
+     * @return результаты обработки по каждому идентификатору
+     */
+    @PostMapping("/bulk/approve")
+    @Operation(summary = "Массово подтвердить запросы на блокировку карт")
+    public List<BlockRequestDecisionResultRespDTO> approveBlockRequests(@Valid @RequestBody BulkBlockRequestDecisionReqDTO reqDTO, @CurrentUser User admin) {
+        return blockRequestService.approveBlockRequests(reqDTO.getRequestIds(), admin, reqDTO.getComment());
+    }
+
+    /**
+     * Массово отклонить запросы на блокировку карт.
      *
-     * @return текущий {@link User} (администратор)
+     * @param reqDTO идентификаторы запросов и общий комментарий администратора
+     * @param admin текущий администратор
+     * @return результаты обработки по каждому идентификатору
      */
-    private User getCurrentUser() {
-        String email = userService.getCurrentUserInfo().getEmail();
-        return userRepository.findByEmail(email).orElseThrow(() -> new NotFoundException(NotFoundError.USER_NOT_FOUND));
+    @PostMapping("/bulk/reject")
+    @Operation(summary = "Массово отклонить запросы на блокировку карт")
+    public List<BlockRequestDecisionResultRespDTO> rejectBlockRequests(@Valid @RequestBody BulkBlockRequestDecisionReqDTO reqDTO, @CurrentUser User admin) {
+        return blockRequestService.rejectBlockRequests(reqDTO.getRequestIds(), admin, reqDTO.getComment());
     }
 }
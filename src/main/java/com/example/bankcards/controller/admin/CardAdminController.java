@@ -1,23 +1,36 @@
 package com.example.bankcards.controller.admin;
 
 import com.example.bankcards.constant.PathConstants;
+import com.example.bankcards.dto.request.BulkCardStatusReqDTO;
+import com.example.bankcards.dto.request.BulkIssueCardsReqDTO;
 import com.example.bankcards.dto.request.CreateCardReqDTO;
+import com.example.bankcards.dto.response.BulkCardStatusRespDTO;
+import com.example.bankcards.dto.response.BulkIssueResultRespDTO;
 import com.example.bankcards.dto.response.CardRespDTO;
 import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.BadRequestException;
+import com.example.bankcards.exception.EncryptionException;
 import com.example.bankcards.exception.NotFoundException;
-import com.example.bankcards.exception.errors.NotFoundError;
-import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.CurrentUser;
 import com.example.bankcards.service.CardService;
-import com.example.bankcards.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
 /**
  * REST-контроллер для операций с банковскими картами, доступный только администраторам.
  * <p>
@@ -28,13 +41,13 @@ import java.util.List;
  */
 @RestController
 @RequiredArgsConstructor
+@Slf4j
 @RequestMapping(PathConstants.CARD_ADMIN_CONTROLLER_PATH)
 @PreAuthorize("hasAuthority('ADMIN')")
 public class CardAdminController {
 
     private final CardService cardService;
-    private final UserService userService;
-    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
 
     /**
      * Создает новую банковскую карту на основе предоставленных данных.
@@ -48,15 +61,55 @@ public class CardAdminController {
         return cardService.createCard(createCardReqDTO);
     }
 
+    /**
+     * Массово выпускает карты: по одной карте на каждый идентификатор владельца из запроса.
+     * <p>
+     * Результат отдается потоком в формате NDJSON (одна карта на строку) по мере фиксации
+     * каждой порции. Если владелец не найден, ошибка возвращается до выпуска первой карты.
+     * Поток заканчивается итоговой строкой {@link BulkIssueResultRespDTO}: {@code COMPLETED} либо,
+     * если порция не выпущена после отправки предыдущих, {@code FAILED} с числом уже выпущенных карт.
+     * Ошибка до отправки первой карты возвращается обычным JSON-ответом об ошибке.
+     *
+     * @param reqDTO   DTO со списком владельцев.
+     * @param response HTTP-ответ, в который пишутся выпущенные карты.
+     * @param user     Текущий администратор.
+     * @throws IOException если не удалось записать ответ.
+     */
+    @PostMapping("/bulk")
+    @Operation(summary = "Массово выпустить карты (ответ — поток NDJSON)")
+    public void issueCards(@Valid @RequestBody BulkIssueCardsReqDTO reqDTO, HttpServletResponse response,
+                           @CurrentUser User user) throws IOException {
+        int[] streamed = {0};
+        BulkIssueResultRespDTO result;
+        try {
+            int issued = cardService.issueCards(reqDTO, user, cards -> {
+                writeNdjson(response, cards);
+                streamed[0] += cards.size();
+            });
+            result = BulkIssueResultRespDTO.completed(issued);
+        } catch (UncheckedIOException e) {
+            // Клиент закрыл соединение: итоговую строку отправить некуда
+            throw e;
+        } catch (RuntimeException e) {
+            if (streamed[0] == 0 && !response.isCommitted()) {
+                throw e;
+            }
+            log.error("Массовый выпуск карт прерван после отправки части карт", kv("issued", streamed[0]), e);
+            result = BulkIssueResultRespDTO.failed(streamed[0], errorName(e));
+        }
+        writeNdjson(response, List.of(result));
+        response.flushBuffer();
+    }
+
     /**
      * Блокирует банковскую карту по ее идентификатору.
      *
      * @param id Идентификатор карты, которую необходимо заблокировать.
+     * @param user Текущий администратор.
      */
     @PatchMapping("/{id}/block")
     @Operation(summary = "Блокировать карту")
-    public void blockCard(@PathVariable Long id) {
-        User user = getCurrentUser();
+    public void blockCard(@PathVariable Long id, @CurrentUser User user) {
         cardService.blockCard(id, user);
     }
 
@@ -64,23 +117,50 @@ public class CardAdminController {
      * Активирует заблокированную банковскую карту по ее идентификатору.
      *
      * @param id Идентификатор карты, которую необходимо активировать.
+     * @param user Текущий администратор.
      */
     @PatchMapping("/{id}/activate")
     @Operation(summary = "Активировать карту")
-    public void activateCard(@PathVariable Long id) {
-        User user = getCurrentUser();
+    public void activateCard(@PathVariable Long id, @CurrentUser User user) {
         cardService.activateCard(id, user);
     }
 
+    /**
+     * Экстренно блокирует все активные карты из списка или все активные карты указанного владельца.
+     * Выполняется одним SQL-запросом, без загрузки карт.
+     *
+     * @param reqDTO DTO со списком карт ({@code cardIds}) или идентификатором владельца ({@code ownerId}).
+     * @param user Текущий администратор.
+     * @return DTO с количеством заблокированных карт.
+     */
+    @PatchMapping("/bulk/block")
+    @Operation(summary = "Массово заблокировать карты (по списку или по владельцу)")
+    public BulkCardStatusRespDTO blockCards(@Valid @RequestBody BulkCardStatusReqDTO reqDTO, @CurrentUser User user) {
+        return cardService.blockCards(reqDTO, user);
+    }
+
+    /**
+     * Массово активирует заблокированные карты из списка или заблокированные карты указанного владельца.
+     *
+     * @param reqDTO DTO со списком карт ({@code cardIds}) или идентификатором владельца ({@code ownerId}).
+     * @param user Текущий администратор.
+     * @return DTO с количеством активированных карт.
+     */
+    @PatchMapping("/bulk/activate")
+    @Operation(summary = "Массово активировать карты (по списку или по владельцу)")
+    public BulkCardStatusRespDTO activateCards(@Valid @RequestBody BulkCardStatusReqDTO reqDTO, @CurrentUser User user) {
+        return cardService.activateCards(reqDTO, user);
+    }
+
     /**
      * Удаляет банковскую карту по ее идентификатору.
      *
      * @param id Идентификатор карты для удаления.
+     * @param user Текущий администратор.
      */
     @DeleteMapping("/{id}")
     @Operation(summary = "Удалить карту")
-    public void deleteCard(@PathVariable Long id) {
-        User user = getCurrentUser();
+    public void deleteCard(@PathVariable Long id, @CurrentUser User user) {
         cardService.deleteCard(id, user);
     }
 
@@ -101,24 +181,51 @@ public class CardAdminController {
      *
      * @param id      Идентификатор карты для обновления баланса.
      * @param balance Новое значение баланса.
+     * @param user    Текущий администратор.
      * @return {@link ResponseEntity} со статусом 204 No Content в случае успеха.
      */
     @PatchMapping("/{id}/test-balance")
     @Operation(summary = "Изменить баланс карты (только для тестирования)", description = "Тестовый endpoint. Не использовать в проде!")
-    public ResponseEntity<Void> updateCardBalanceForTest(@PathVariable Long id, @RequestParam("balance") java.math.BigDecimal balance) {
-        User user = getCurrentUser();
+    public ResponseEntity<Void> updateCardBalanceForTest(@PathVariable Long id, @RequestParam("balance") java.math.BigDecimal balance, @CurrentUser User user) {
         cardService.updateCardBalance(id, balance, user);
         return ResponseEntity.noContent().build();
     }
 
     /**
-     * Вспомогательный метод для получения текущего аутентифицированного пользователя.
-     *
-     * @return Объект {@link User}, представляющий текущего пользователя.
-     * @throws NotFoundException если пользователь не найден в репозитории.
+     * Имя ошибки для итоговой строки потока: имя из перечисления ошибок для исключений предметной области,
+     * иначе {@code INTERNAL_SERVER_ERROR}.
+     */
+    private static String errorName(RuntimeException e) {
+        if (e instanceof NotFoundException notFound) {
+            return notFound.getErrorName();
+        }
+        if (e instanceof BadRequestException badRequest) {
+            return badRequest.getErrorName();
+        }
+        if (e instanceof EncryptionException encryption) {
+            return encryption.getErrorName();
+        }
+        return "INTERNAL_SERVER_ERROR";
+    }
+
+    /**
+     * Дописывает строки в ответ в формате NDJSON и отправляет их клиенту.
+     * Тип содержимого устанавливается при первой записи, чтобы ошибки валидации до выпуска
+     * оставались обычным JSON-ответом.
      */
-    private User getCurrentUser() {
-        String email = userService.getCurrentUserInfo().getEmail();
-        return userRepository.findByEmail(email).orElseThrow(() -> new NotFoundException(NotFoundError.USER_NOT_FOUND));
+    private void writeNdjson(HttpServletResponse response, List<?> lines) {
+        try {
+            if (!response.isCommitted()) {
+                response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+            }
+            OutputStream out = response.getOutputStream();
+            for (Object line : lines) {
+                out.write(objectMapper.writeValueAsBytes(line));
+                out.write('\n');
+            }
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 }
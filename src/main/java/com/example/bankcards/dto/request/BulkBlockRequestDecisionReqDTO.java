@@ -0,0 +1,27 @@
+package com.example.bankcards.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * DTO для массового одобрения или отклонения запросов на блокировку карт.
+ */
+@Data
+public class BulkBlockRequestDecisionReqDTO {
+
+    /**
+     * Идентификаторы запросов на блокировку. Не более 1000 за один вызов.
+     */
+    @NotEmpty
+    @Size(max = 1000, message = "За один вызов можно обработать не более 1000 запросов")
+    private List<@NotNull Long> requestIds;
+
+    /**
+     * Комментарий администратора, применяемый ко всем запросам.
+     */
+    private String comment;
+}
@@ -0,0 +1,26 @@
+package com.example.bankcards.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * DTO для массового изменения статуса карт (экстренная блокировка/активация).
+ * Должно быть указано ровно одно из полей: {@code cardIds} или {@code ownerId}.
+ */
+@Data
+public class BulkCardStatusReqDTO {
+
+    /**
+     * Идентификаторы карт. Не более 1000 за один вызов.
+     */
+    @Size(max = 1000, message = "За один вызов можно обработать не более 1000 карт")
+    private List<@NotNull Long> cardIds;
+
+    /**
+     * Идентификатор владельца, все карты которого нужно обработать.
+     */
+    private Long ownerId;
+}
@@ -0,0 +1,23 @@
+package com.example.bankcards.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * DTO для массового выпуска карт (например, при онбординге сотрудников корпоративного клиента).
+ */
+@Data
+public class BulkIssueCardsReqDTO {
+
+    /**
+     * Идентификаторы владельцев: на каждый элемент выпускается одна карта,
+     * повторяющийся идентификатор означает несколько карт одному владельцу.
+     */
+    @NotEmpty(message = "Список владельцев не может быть пустым")
+    @Size(max = 50000, message = "За один вызов можно выпустить не более 50000 карт")
+    private List<@NotNull Long> ownerIds;
+}
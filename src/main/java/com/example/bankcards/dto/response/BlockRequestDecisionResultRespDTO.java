@@ -0,0 +1,35 @@
+package com.example.bankcards.dto.response;
+
+import com.example.bankcards.entity.CardBlockRequest;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO с результатом обработки одного запроса на блокировку в рамках массовой операции.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BlockRequestDecisionResultRespDTO {
+
+    /**
+     * Идентификатор запроса на блокировку.
+     */
+    private Long requestId;
+
+    /**
+     * Признак успешной обработки запроса.
+     */
+    private boolean success;
+
+    /**
+     * Статус запроса после обработки (или текущий статус, если запрос не был изменен).
+     */
+    private CardBlockRequest.Status status;
+
+    /**
+     * Имя ошибки, если запрос не был обработан (например, BLOCK_REQUEST_NOT_FOUND).
+     */
+    private String error;
+}
@@ -0,0 +1,25 @@
+package com.example.bankcards.dto.response;
+
+import com.example.bankcards.entity.CardStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO с результатом массового изменения статуса карт.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkCardStatusRespDTO {
+
+    /**
+     * Статус, установленный картам.
+     */
+    private CardStatus status;
+
+    /**
+     * Количество карт, статус которых был изменен.
+     */
+    private int affected;
+}
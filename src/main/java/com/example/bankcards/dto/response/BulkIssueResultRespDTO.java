@@ -0,0 +1,64 @@
+package com.example.bankcards.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Итоговая строка потока массового выпуска карт.
+ * <p>
+ * Каждый поток NDJSON заканчивается ровно одной такой строкой; от строк с картами она отличается
+ * наличием поля {@code issued}.
+ * </p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkIssueResultRespDTO {
+
+    /**
+     * Итог выпуска.
+     */
+    private Status status;
+
+    /**
+     * Количество выпущенных (зафиксированных и отданных в потоке) карт.
+     */
+    private int issued;
+
+    /**
+     * Имя ошибки, прервавшей выпуск; только для {@link Status#FAILED}.
+     */
+    private String error;
+
+    /**
+     * Итог успешного выпуска.
+     *
+     * @param issued Количество выпущенных карт.
+     * @return Итоговая строка.
+     */
+    public static BulkIssueResultRespDTO completed(int issued) {
+        return new BulkIssueResultRespDTO(Status.COMPLETED, issued, null);
+    }
+
+    /**
+     * Итог выпуска, прерванного ошибкой после отправки части карт.
+     *
+     * @param issued Количество карт, выпущенных до ошибки.
+     * @param error  Имя ошибки.
+     * @return Итоговая строка.
+     */
+    public static BulkIssueResultRespDTO failed(int issued, String error) {
+        return new BulkIssueResultRespDTO(Status.FAILED, issued, error);
+    }
+
+    /**
+     * Итог массового выпуска.
+     */
+    public enum Status {
+        COMPLETED,
+        FAILED
+    }
+}
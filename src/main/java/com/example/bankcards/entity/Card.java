@@ -23,7 +23,8 @@ public class Card {
      * Уникальный идентификатор карты.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "card_pk_seq")
+    @SequenceGenerator(name = "card_pk_seq", sequenceName = "card_pk_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -32,6 +33,20 @@ public class Card {
     @Column(name = "card_number", nullable = false)
     private String cardNumber;
 
+    /**
+     * Последние 4 цифры номера карты в открытом виде.
+     * Позволяют строить маскированный номер без расшифровки PAN.
+     */
+    @Column(name = "last_four", length = 4)
+    private String lastFour;
+
+    /**
+     * Слепой индекс номера карты (HMAC-SHA256 от PAN).
+     * Позволяет проверять уникальность номера без расшифровки.
+     */
+    @Column(name = "pan_hash", length = 64, unique = true)
+    private String panHash;
+
     /**
      * Владелец карты.
      */
@@ -58,6 +73,14 @@ public class Card {
     @Column(name = "balance", nullable = false)
     private BigDecimal balance;
 
+    /**
+     * Версия записи: увеличивается при каждом изменении карты, в том числе массовыми {@code UPDATE}.
+     * Используется для оптимистической блокировки и вычисления ETag.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
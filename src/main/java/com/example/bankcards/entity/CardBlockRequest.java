@@ -22,7 +22,8 @@ public class CardBlockRequest {
      * Уникальный идентификатор запроса на блокировку.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "card_block_request_pk_seq")
+    @SequenceGenerator(name = "card_block_request_pk_seq", sequenceName = "card_block_request_pk_seq", allocationSize = 50)
     private Long id;
 
     /**
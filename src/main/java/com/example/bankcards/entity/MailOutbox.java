@@ -0,0 +1,107 @@
+package com.example.bankcards.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Представляет исходящее письмо в очереди отправки (transactional outbox).
+ * <p>
+ * Письмо сохраняется в той же транзакции, что и бизнес-операция, а отправляется позже
+ * фоновым диспетчером, поэтому недоступность почтового сервера не влияет на операцию.
+ * </p>
+ */
+@Entity
+@Table(name = "mail_outbox")
+@Getter
+@Setter
+@NoArgsConstructor
+public class MailOutbox {
+
+    /**
+     * Уникальный идентификатор письма.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "mail_outbox_pk_seq")
+    @SequenceGenerator(name = "mail_outbox_pk_seq", sequenceName = "mail_outbox_pk_seq", allocationSize = 50)
+    private Long id;
+
+    /**
+     * Email получателя.
+     */
+    @Column(name = "recipient", nullable = false)
+    private String recipient;
+
+    /**
+     * Тема письма.
+     */
+    @Column(name = "subject", nullable = false)
+    private String subject;
+
+    /**
+     * Содержимое письма (HTML).
+     */
+    @Column(name = "body", nullable = false, columnDefinition = "TEXT")
+    private String body;
+
+    /**
+     * Статус отправки.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 16)
+    private Status status;
+
+    /**
+     * Количество выполненных попыток отправки.
+     */
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    /**
+     * Время, раньше которого письмо не будет взято на отправку.
+     */
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    /**
+     * Временная метка постановки письма в очередь.
+     */
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Временная метка успешной отправки.
+     */
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    /**
+     * Текст последней ошибки отправки.
+     */
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    /**
+     * Представляет статус отправки письма.
+     */
+    public enum Status {
+        PENDING, SENT, FAILED
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        MailOutbox that = (MailOutbox) o;
+        return id != null && Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
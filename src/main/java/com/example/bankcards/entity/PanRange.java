@@ -0,0 +1,50 @@
+package com.example.bankcards.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.Objects;
+
+/**
+ * Представляет диапазон номеров карт одного BIN.
+ * <p>
+ * Хранит первый еще не зарезервированный порядковый номер счета внутри BIN.
+ * Узлы приложения резервируют блоки номеров, сдвигая этот счетчик под блокировкой строки,
+ * поэтому выданные разными узлами номера не пересекаются.
+ * </p>
+ */
+@Entity
+@Table(name = "pan_range")
+@Getter
+@Setter
+@NoArgsConstructor
+public class PanRange {
+
+    /**
+     * BIN (первые 6–8 цифр номера карты).
+     */
+    @Id
+    @Column(name = "bin", length = 8)
+    private String bin;
+
+    /**
+     * Первый незарезервированный порядковый номер в диапазоне BIN.
+     */
+    @Column(name = "next_value", nullable = false)
+    private Long nextValue;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        PanRange panRange = (PanRange) o;
+        return bin != null && Objects.equals(bin, panRange.bin);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(bin);
+    }
+}
@@ -32,7 +32,8 @@ public class User implements UserDetails {
      * Уникальный идентификатор пользователя. Генерируется автоматически.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_pk_seq")
+    @SequenceGenerator(name = "users_pk_seq", sequenceName = "users_pk_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -89,6 +90,14 @@ public class User implements UserDetails {
     @Column(name = "date_update")
     private LocalDateTime dateUpdate;
 
+    /**
+     * Версия записи: увеличивается при каждом изменении пользователя.
+     * Используется для оптимистической блокировки и вычисления ETag.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     /**
      * Набор ролей пользователя. Определяет уровень доступа к ресурсам системы.
      * Загружается нетерпеливо (EAGER) для нужд Spring Security.
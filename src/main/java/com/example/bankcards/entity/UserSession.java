@@ -22,7 +22,8 @@ public class UserSession {
      * Уникальный идентификатор сеанса пользователя.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_session_pk_seq")
+    @SequenceGenerator(name = "user_session_pk_seq", sequenceName = "user_session_pk_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -0,0 +1,34 @@
+package com.example.bankcards.event;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardStatus;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Изменение баланса или статуса карты для рассылки владельцу через SSE.
+ *
+ * @param ownerId    Идентификатор владельца — получателя события (в тело события не попадает).
+ * @param cardId     Идентификатор карты.
+ * @param type       Тип изменения.
+ * @param balance    Баланс после изменения.
+ * @param status     Статус после изменения.
+ * @param occurredAt Время изменения.
+ */
+public record CardEvent(@JsonIgnore Long ownerId, Long cardId, CardEventType type, BigDecimal balance,
+                        CardStatus status, LocalDateTime occurredAt) {
+
+    /**
+     * Событие по текущему состоянию карты.
+     *
+     * @param type Тип изменения.
+     * @param card Карта; идентификатор владельца должен быть доступен.
+     * @return Событие.
+     */
+    public static CardEvent of(CardEventType type, Card card) {
+        return new CardEvent(card.getOwner().getId(), card.getId(), type, card.getBalance(), card.getStatus(),
+                LocalDateTime.now());
+    }
+}
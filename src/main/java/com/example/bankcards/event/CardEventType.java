@@ -0,0 +1,17 @@
+package com.example.bankcards.event;
+
+/**
+ * Тип изменения карты, передаваемого подписчикам.
+ */
+public enum CardEventType {
+
+    /**
+     * Изменился баланс (перевод между картами, изменение администратором).
+     */
+    BALANCE_CHANGED,
+
+    /**
+     * Изменился статус (блокировка, активация, одобрение запроса на блокировку, истечение срока действия).
+     */
+    STATUS_CHANGED
+}
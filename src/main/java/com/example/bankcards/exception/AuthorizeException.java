@@ -25,7 +25,7 @@ public class AuthorizeException extends BusinessException {
      * @param authorizedError Элемент перечисления {@link AuthorizedError}, содержащий сообщение и имя ошибки.
      */
     public AuthorizeException(AuthorizedError authorizedError) {
-        super(authorizedError.getMessage());
+        super(authorizedError.getMessage(), false);
         this.errorName = authorizedError.name();
     }
 
@@ -36,7 +36,7 @@ public class AuthorizeException extends BusinessException {
      * @param errorName Пользовательское имя ошибки.
      */
     public AuthorizeException(String message, String errorName) {
-        super(message);
+        super(message, false);
         this.errorName = errorName;
     }
 }
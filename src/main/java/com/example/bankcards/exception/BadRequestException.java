@@ -25,7 +25,7 @@ public class BadRequestException extends BusinessException {
      * @param badRequestError Элемент перечисления {@link BadRequestError}, содержащий сообщение и имя ошибки.
      */
     public BadRequestException(BadRequestError badRequestError) {
-        super(badRequestError.getMessage());
+        super(badRequestError.getMessage(), false);
         errorName = badRequestError.name();
     }
 
@@ -36,7 +36,7 @@ public class BadRequestException extends BusinessException {
      * @param errorName Пользовательское имя ошибки.
      */
     public BadRequestException(String message, String errorName) {
-        super(message);
+        super(message, false);
         this.errorName = errorName;
     }
 }
@@ -8,10 +8,23 @@ import lombok.Getter;
  * Является непроверяемым исключением (наследуется от {@link RuntimeException}),
  * что упрощает его обработку в коде бизнес-логики.
  * </p>
+ * <p>
+ * Ожидаемые ошибки предметной области создаются без стектрейса
+ * через {@link #BusinessException(String, boolean)}.
+ * </p>
  */
 @Getter
 public class BusinessException extends RuntimeException {
 
+    /**
+     * Возвращает имя ошибки из перечисления; подклассы хранят его в собственном поле.
+     *
+     * @return Имя ошибки или {@code null}, если оно не задано.
+     */
+    public String getErrorName() {
+        return null;
+    }
+
     /**
      * Создает новый экземпляр BusinessException с указанным сообщением.
      *
@@ -20,4 +33,19 @@ public class BusinessException extends RuntimeException {
     public BusinessException(String message) {
         super(message);
     }
+
+    /**
+     * Создает новый экземпляр BusinessException с указанным сообщением.
+     * <p>
+     * Используется для ожидаемых ошибок предметной области (недостаточно средств, карта не найдена и т.п.):
+     * под нагрузкой они выбрасываются постоянно, а заполнение стека — основная стоимость создания
+     * исключения. Место ошибки однозначно определяет имя ошибки из перечисления.
+     * </p>
+     *
+     * @param message            Сообщение об ошибке.
+     * @param writableStackTrace {@code false}, чтобы не заполнять стектрейс и не хранить подавленные исключения.
+     */
+    protected BusinessException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
 }
@@ -25,7 +25,7 @@ public class NotFoundException extends BusinessException {
      * @param notFoundError Элемент перечисления {@link NotFoundError}, содержащий сообщение и имя ошибки.
      */
     public NotFoundException(NotFoundError notFoundError) {
-        super(notFoundError.getMessage());
+        super(notFoundError.getMessage(), false);
         errorName = notFoundError.name();
     }
 
@@ -36,7 +36,7 @@ public class NotFoundException extends BusinessException {
      * @param errorName Пользовательское имя ошибки.
      */
     public NotFoundException(String message, String errorName) {
-        super(message);
+        super(message, false);
         this.errorName = errorName;
     }
 }
@@ -9,6 +9,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.mapping.PropertyReferenceException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -27,7 +28,6 @@ import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
 import java.time.LocalDateTime;
-import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -45,6 +45,11 @@ import java.util.stream.Collectors;
 @Order(Ordered.HIGHEST_PRECEDENCE)
 public class RestExceptionHandler extends ResponseEntityExceptionHandler {
 
+    /**
+     * Максимальная длина фрагмента стектрейса в поле debugInfo ответа.
+     */
+    private static final int DEBUG_INFO_MAX_LENGTH = 200;
+
     /**
      * Обрабатывает исключения типа {@link NotFoundException}.
      * Возвращает HTTP статус 404 Not Found.
@@ -75,10 +80,7 @@ public class RestExceptionHandler extends ResponseEntityExceptionHandler {
     @ResponseBody
     public BusinessExceptionRespDTO handleExceptions(Throwable ex, HttpServletRequest request) {
         long httpStatusCode = 500L;
-        String stackTrace = Arrays.stream(ex.getStackTrace())
-                .map(StackTraceElement::toString)
-                .reduce("", (frstStr, scndStr) -> frstStr + "\n " + scndStr);
-        stackTrace = stackTrace.length() > 200 ? stackTrace.substring(0, 200) : stackTrace;
+        String stackTrace = formatStackTrace(ex, DEBUG_INFO_MAX_LENGTH);
 
         BusinessExceptionRespDTO businessExceptionRespDTO = formBusinessExceptionDTO(httpStatusCode, "INTERNAL_SERVER_ERROR",
                 ex.getMessage(), request.getRequestURI());
@@ -206,6 +208,59 @@ public class RestExceptionHandler extends ResponseEntityExceptionHandler {
         return formBusinessExceptionDTO(httpStatusCode, ex.getErrorName(), ex.getMessage(), request.getRequestURI());
     }
 
+    /**
+     * Обрабатывает кастомные исключения {@link TooManyRequestsException}.
+     * Возвращает HTTP статус 429 Too Many Requests.
+     *
+     * @param ex      Перехваченное исключение.
+     * @param request HTTP запрос.
+     * @return DTO с информацией об ошибке.
+     */
+    @ExceptionHandler(TooManyRequestsException.class)
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+    @ResponseBody
+    public BusinessExceptionRespDTO handleExceptions(TooManyRequestsException ex, HttpServletRequest request) {
+        long httpStatusCode = 429L;
+        return formBusinessExceptionDTO(httpStatusCode, ex.getErrorName(), ex.getMessage(), request.getRequestURI());
+    }
+
+    /**
+     * Обрабатывает конфликт оптимистической блокировки: запись изменена параллельной транзакцией
+     * (версия строки не совпала). Возвращает HTTP статус 409 Conflict; клиент может повторить запрос.
+     *
+     * @param ex      Перехваченное исключение.
+     * @param request HTTP запрос.
+     * @return DTO с информацией об ошибке.
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    @ResponseBody
+    public BusinessExceptionRespDTO handleExceptions(OptimisticLockingFailureException ex, HttpServletRequest request) {
+        long httpStatusCode = 409L;
+        log.warn("Конфликт версий при сохранении: {}", ex.getMessage());
+        return formBusinessExceptionDTO(httpStatusCode, "CONFLICT",
+                "Данные были изменены другим запросом, повторите операцию", request.getRequestURI());
+    }
+
+    /**
+     * Форматирует начало стектрейса: каждый кадр с новой строки, не длиннее {@code maxLength} символов.
+     * Кадры перебираются только до заполнения лимита.
+     *
+     * @param ex        Исключение.
+     * @param maxLength Максимальная длина результата.
+     * @return Фрагмент стектрейса.
+     */
+    static String formatStackTrace(Throwable ex, int maxLength) {
+        StringBuilder stackTrace = new StringBuilder(maxLength + 64);
+        for (StackTraceElement element : ex.getStackTrace()) {
+            if (stackTrace.length() >= maxLength) {
+                break;
+            }
+            stackTrace.append("\n ").append(element);
+        }
+        return stackTrace.length() > maxLength ? stackTrace.substring(0, maxLength) : stackTrace.toString();
+    }
+
     /**
      * Вспомогательный метод для формирования DTO с общей информацией об ошибке.
      */
@@ -0,0 +1,31 @@
+package com.example.bankcards.exception;
+
+import com.example.bankcards.exception.errors.TooManyRequestsError;
+import lombok.Getter;
+
+/**
+ * Исключение, выбрасываемое, когда запрос отклонен из-за превышения нагрузки (HTTP 429 Too Many Requests).
+ * <p>
+ * Наследуется от {@link BusinessException} и используется для сигнализации
+ * о превышении лимита попыток или переполнении очереди обработки.
+ * Хранит имя ошибки из перечисления {@link TooManyRequestsError}.
+ * </p>
+ */
+@Getter
+public class TooManyRequestsException extends BusinessException {
+
+    /**
+     * Имя ошибки, соответствующее одному из значений в {@link TooManyRequestsError}.
+     */
+    private final String errorName;
+
+    /**
+     * Создает новый экземпляр исключения на основе предопределенной ошибки превышения нагрузки.
+     *
+     * @param tooManyRequestsError Элемент перечисления {@link TooManyRequestsError}, содержащий сообщение и имя ошибки.
+     */
+    public TooManyRequestsException(TooManyRequestsError tooManyRequestsError) {
+        super(tooManyRequestsError.getMessage(), false);
+        errorName = tooManyRequestsError.name();
+    }
+}
@@ -24,7 +24,8 @@ public enum BadRequestError {
     FROM_CARD_EXPIRED("С карты-отправителя нельзя совершать операции, так как срок действия истёк"),
     TO_CARD_EXPIRED("На карту-получатель нельзя совершать операции, так как срок действия истёк"),
     BLOCK_REQUEST_ALREADY_EXISTS("Запрос на блокировку этой карты уже создан и ожидает обработки."),
-    BLOCK_REQUEST_ALREADY_PROCESSED("Запрос уже обработан.");
+    BLOCK_REQUEST_ALREADY_PROCESSED("Запрос уже обработан."),
+    INVALID_BULK_TARGET("Необходимо указать либо список карт, либо владельца карт");
 
     /**
      * Сообщение об ошибке, предназначенное для отображения пользователю.
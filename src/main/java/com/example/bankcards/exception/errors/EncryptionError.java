@@ -8,7 +8,8 @@ public enum EncryptionError {
     ENCRYPTION_KEY_NOT_FOUND("Ключ шифрования не получен из Vault"),
     INVALID_KEY_LENGTH("Неверная длина ключа для AES. Ожидается 16, 24 или 32 символа."),
     ENCRYPTION_FAILED("Ошибка шифрования номера карты"),
-    DECRYPTION_FAILED("Ошибка дешифрования номера карты");
+    DECRYPTION_FAILED("Ошибка дешифрования номера карты"),
+    BLIND_INDEX_FAILED("Ошибка вычисления слепого индекса номера карты");
 
     /**
      * Сообщение об ошибке, предназначенное для отображения пользователю.
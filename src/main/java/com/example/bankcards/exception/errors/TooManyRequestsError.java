@@ -0,0 +1,38 @@
+package com.example.bankcards.exception.errors;
+
+/**
+ * Перечисление, определяющее типы ошибок превышения допустимой нагрузки (Too Many Requests).
+ * <p>
+ * Каждый элемент перечисления описывает причину, по которой запрос отклонен без обработки,
+ * и содержит соответствующее сообщение для пользователя на русском языке.
+ * </p>
+ */
+public enum TooManyRequestsError {
+
+    TOO_MANY_LOGIN_ATTEMPTS("Слишком много неудачных попыток входа. Повторите позже"),
+    LOGIN_OVERLOADED("Сервис авторизации перегружен. Повторите позже"),
+    RATE_LIMIT_EXCEEDED("Превышена частота запросов. Повторите позже");
+
+    /**
+     * Сообщение об ошибке, предназначенное для отображения пользователю.
+     */
+    private final String message;
+
+    /**
+     * Конструктор для инициализации элемента перечисления с сообщением.
+     *
+     * @param message Сообщение об ошибке.
+     */
+    TooManyRequestsError(String message) {
+        this.message = message;
+    }
+
+    /**
+     * Возвращает сообщение об ошибке.
+     *
+     * @return Строка с текстом ошибки.
+     */
+    public String getMessage() {
+        return message;
+    }
+}
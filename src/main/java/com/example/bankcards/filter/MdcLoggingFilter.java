@@ -8,29 +8,33 @@ import lombok.extern.slf4j.Slf4j;
 import org.slf4j.MDC;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Фильтр для добавления контекстной информации в MDC (Mapped Diagnostic Context).
  * <p>
  * Добавляет в каждый лог-запись:
  * - requestId — уникальный идентификатор запроса для трассировки
- * - userId — ID текущего пользователя (если аутентифицирован)
+ * - traceId / spanId — контекст трассировки (добавляет Micrometer Tracing для каждого спана)
+ * - userId — ID текущего пользователя (если аутентифицирован, см. {@link #putUser(Long, String)})
  * - userEmail — email текущего пользователя
  * - clientIp — IP-адрес клиента
  * - requestUri — URI запроса
  * - httpMethod — HTTP-метод запроса
  * <p>
  * Это позволяет связать все логи одного запроса в ELK/Kibana.
+ * <p>
+ * Фильтр выполняется сразу после фильтра HTTP-наблюдения Spring Boot (он открывает корневой спан запроса
+ * и принимает входящий {@code traceparent}), но раньше Spring Security, поэтому данные пользователя
+ * на этом этапе еще неизвестны: их добавляет {@code JwtTokenFilter} после успешной аутентификации.
  */
 @Component
-@Order(Ordered.HIGHEST_PRECEDENCE)
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
 @Slf4j
 public class MdcLoggingFilter extends OncePerRequestFilter {
 
@@ -44,44 +48,70 @@ public class MdcLoggingFilter extends OncePerRequestFilter {
     private static final String X_REQUEST_ID_HEADER = "X-Request-ID";
     private static final String X_FORWARDED_FOR_HEADER = "X-Forwarded-For";
 
+    private static final char[] BASE62 =
+            "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz".toCharArray();
+
+    /**
+     * Префикс узла (4 символа base62), чтобы идентификаторы разных экземпляров не пересекались.
+     */
+    private static final String NODE_ID = randomBase62(4);
+    private static final AtomicLong REQUEST_COUNTER = new AtomicLong();
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
-        long startTime = System.currentTimeMillis();
+        long startTime = System.nanoTime();
 
         try {
             // Устанавливаем MDC-контекст
-            setupMdc(request);
+            String requestId = setupMdc(request);
 
             // Добавляем requestId в заголовок ответа для клиента
-            response.setHeader(X_REQUEST_ID_HEADER, MDC.get(REQUEST_ID));
+            response.setHeader(X_REQUEST_ID_HEADER, requestId);
 
             log.debug("Входящий запрос: {} {}", request.getMethod(), request.getRequestURI());
 
             filterChain.doFilter(request, response);
 
         } finally {
-            long duration = System.currentTimeMillis() - startTime;
-            log.debug("Запрос завершён: {} {} - {} за {} мс",
-                    request.getMethod(),
-                    request.getRequestURI(),
-                    response.getStatus(),
-                    duration);
+            if (log.isDebugEnabled()) {
+                log.debug("Запрос завершён: {} {} - {} за {} мс",
+                        request.getMethod(),
+                        request.getRequestURI(),
+                        response.getStatus(),
+                        (System.nanoTime() - startTime) / 1_000_000);
+            }
 
             // Очищаем MDC после завершения запроса
             clearMdc();
         }
     }
 
+    /**
+     * Добавляет в MDC данные аутентифицированного пользователя.
+     * Вызывается после аутентификации; значения очищаются вместе с остальным контекстом запроса.
+     *
+     * @param userId ID пользователя.
+     * @param email  Email пользователя.
+     */
+    public static void putUser(Long userId, String email) {
+        MDC.put(USER_EMAIL, email);
+        if (userId != null) {
+            MDC.put(USER_ID, userId.toString());
+        }
+    }
+
     /**
      * Устанавливает значения в MDC для текущего запроса.
+     *
+     * @return Идентификатор запроса.
      */
-    private void setupMdc(HttpServletRequest request) {
+    private String setupMdc(HttpServletRequest request) {
         // Request ID - берём из заголовка или генерируем новый
         String requestId = request.getHeader(X_REQUEST_ID_HEADER);
         if (requestId == null || requestId.isBlank()) {
-            requestId = UUID.randomUUID().toString().substring(0, 8);
+            requestId = nextRequestId();
         }
         MDC.put(REQUEST_ID, requestId);
 
@@ -89,17 +119,7 @@ public class MdcLoggingFilter extends OncePerRequestFilter {
         MDC.put(REQUEST_URI, request.getRequestURI());
         MDC.put(HTTP_METHOD, request.getMethod());
         MDC.put(CLIENT_IP, getClientIp(request));
-
-        // Информация о пользователе (если аутентифицирован)
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        if (auth != null && auth.isAuthenticated() && !"anonymousUser".equals(auth.getPrincipal())) {
-            MDC.put(USER_EMAIL, auth.getName());
-
-            // Если principal содержит User entity с ID
-            if (auth.getPrincipal() instanceof com.example.bankcards.entity.User user) {
-                MDC.put(USER_ID, String.valueOf(user.getId()));
-            }
-        }
+        return requestId;
     }
 
     /**
@@ -121,11 +141,39 @@ public class MdcLoggingFilter extends OncePerRequestFilter {
         String xForwardedFor = request.getHeader(X_FORWARDED_FOR_HEADER);
         if (xForwardedFor != null && !xForwardedFor.isBlank()) {
             // Берём первый IP из списка (реальный клиент)
-            return xForwardedFor.split(",")[0].trim();
+            int comma = xForwardedFor.indexOf(',');
+            return (comma < 0 ? xForwardedFor : xForwardedFor.substring(0, comma)).trim();
         }
         return request.getRemoteAddr();
     }
 
+    /**
+     * Генерирует идентификатор запроса: префикс узла и порядковый номер в base62.
+     * В отличие от {@code UUID.randomUUID()} не обращается к {@code SecureRandom}.
+     */
+    static String nextRequestId() {
+        long n = REQUEST_COUNTER.incrementAndGet();
+        char[] buf = new char[15];
+        int pos = buf.length;
+        do {
+            buf[--pos] = BASE62[(int) (n % 62)];
+            n /= 62;
+        } while (n > 0);
+        for (int i = NODE_ID.length() - 1; i >= 0; i--) {
+            buf[--pos] = NODE_ID.charAt(i);
+        }
+        return new String(buf, pos, buf.length - pos);
+    }
+
+    private static String randomBase62(int length) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        char[] buf = new char[length];
+        for (int i = 0; i < length; i++) {
+            buf[i] = BASE62[random.nextInt(BASE62.length)];
+        }
+        return new String(buf);
+    }
+
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) {
         String path = request.getRequestURI();
@@ -135,4 +183,3 @@ public class MdcLoggingFilter extends OncePerRequestFilter {
                path.startsWith("/favicon.ico");
     }
 }
-
@@ -0,0 +1,77 @@
+package com.example.bankcards.filter;
+
+import com.example.bankcards.exception.TooManyRequestsException;
+import com.example.bankcards.exception.errors.TooManyRequestsError;
+import com.example.bankcards.ratelimit.RateLimitProperties;
+import com.example.bankcards.ratelimit.RateLimitRoute;
+import com.example.bankcards.ratelimit.RateLimitStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Фильтр ограничения частоты запросов к маршрутам {@link RateLimitRoute}.
+ * <p>
+ * Выполняется в цепочке Spring Security после JWT-фильтров, поэтому маршруты с ключом по пользователю
+ * видят аутентификацию. Запрос сверх лимита получает HTTP 429 с заголовком {@code Retry-After};
+ * тело ответа формирует {@code ExceptionHandlerFilter}. Отказы считаются в {@code rate_limit.rejected}.
+ * </p>
+ */
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String REJECTED = "rate_limit.rejected";
+
+    private final RateLimitProperties properties;
+    private final RateLimitStore store;
+    private final Map<RateLimitRoute, Counter> rejectedCounters = new EnumMap<>(RateLimitRoute.class);
+
+    public RateLimitFilter(RateLimitProperties properties, RateLimitStore store, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.store = store;
+        for (RateLimitRoute route : RateLimitRoute.values()) {
+            rejectedCounters.put(route, Counter.builder(REJECTED)
+                    .description("Запросы, отклоненные ограничением частоты")
+                    .tag("route", route.name())
+                    .tag("store", properties.getStore().name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RateLimitRoute route = RateLimitRoute.match(request);
+        RateLimitProperties.Limit limit = route == null ? null : properties.limit(route);
+        if (limit != null) {
+            long waitNanos = store.tryAcquire(route.key(request), limit);
+            if (waitNanos > 0) {
+                rejectedCounters.get(route).increment();
+                long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999));
+                response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+                log.debug("Запрос отклонен ограничением частоты", kv("route", route.name()),
+                        kv("retryAfterSeconds", retryAfterSeconds));
+                throw new TooManyRequestsException(TooManyRequestsError.RATE_LIMIT_EXCEEDED);
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled();
+    }
+}
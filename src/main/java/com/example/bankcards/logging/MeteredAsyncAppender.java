@@ -0,0 +1,47 @@
+package com.example.bankcards.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Асинхронный appender Logback с подсчетом отброшенных событий.
+ * <p>
+ * Поток запроса только кладет событие в ограниченную очередь, кодирование и запись в stdout
+ * выполняет отдельный поток. Когда свободного места в очереди остается меньше
+ * {@code discardingThreshold}, события уровней TRACE/DEBUG/INFO отбрасываются, а WARN/ERROR
+ * ставятся в очередь всегда (при {@code neverBlock=false} поток ждет освобождения места).
+ * Количество отброшенных событий доступно через {@link #getDiscardedCount()} и экспортируется
+ * в Prometheus вместе с заполненностью очереди.
+ * </p>
+ */
+public class MeteredAsyncAppender extends AsyncAppender {
+
+    private final LongAdder discarded = new LongAdder();
+
+    /**
+     * Вызывается, только когда очередь заполнена выше порога; {@code true} означает,
+     * что событие будет отброшено.
+     *
+     * @param event Событие логирования.
+     * @return {@code true} для событий уровня INFO и ниже.
+     */
+    @Override
+    protected boolean isDiscardable(ILoggingEvent event) {
+        boolean discardable = super.isDiscardable(event);
+        if (discardable) {
+            discarded.increment();
+        }
+        return discardable;
+    }
+
+    /**
+     * Возвращает количество событий, отброшенных из-за переполнения очереди.
+     *
+     * @return Количество отброшенных событий с момента запуска appender'а.
+     */
+    public long getDiscardedCount() {
+        return discarded.sum();
+    }
+}
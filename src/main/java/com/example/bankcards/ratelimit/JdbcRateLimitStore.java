@@ -0,0 +1,67 @@
+package com.example.bankcards.ratelimit;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Общее для всех узлов хранилище корзин в PostgreSQL (таблица {@code rate_limit_bucket}).
+ * <p>
+ * Та же схема GCRA, что и в {@link TokenBucket}, выполняется одним запросом {@code INSERT ... ON CONFLICT}
+ * по часам БД, поэтому расхождение часов узлов не влияет на лимит. Каждый ограничиваемый запрос — одно
+ * обращение к БД, так что хранилище рассчитано на маршруты входа и переводов, а не на весь трафик.
+ * Деление на полосы здесь не применяется: конкурентные обращения к ключу упорядочивает блокировка строки.
+ * </p>
+ */
+public class JdbcRateLimitStore implements RateLimitStore {
+
+    private static final String ACQUIRE_SQL = """
+            WITH clock AS (SELECT (EXTRACT(EPOCH FROM clock_timestamp()) * 1000000)::BIGINT AS now_us),
+            acquired AS (
+                INSERT INTO rate_limit_bucket AS b (bucket_key, tat)
+                SELECT :key, clock.now_us + :interval FROM clock
+                ON CONFLICT (bucket_key) DO UPDATE
+                    SET tat = GREATEST(b.tat, EXCLUDED.tat - :interval) + :interval
+                    WHERE GREATEST(b.tat, EXCLUDED.tat - :interval) - (EXCLUDED.tat - :interval) <= :tolerance
+                RETURNING b.tat
+            )
+            SELECT CASE WHEN EXISTS (SELECT 1 FROM acquired) THEN 0
+                        ELSE (SELECT b.tat FROM rate_limit_bucket b WHERE b.bucket_key = :key) - clock.now_us - :tolerance
+                   END
+            FROM clock
+            """;
+
+    private static final String EVICT_SQL =
+            "DELETE FROM rate_limit_bucket WHERE tat < (EXTRACT(EPOCH FROM clock_timestamp()) * 1000000)::BIGINT";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public JdbcRateLimitStore(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long tryAcquire(String key, RateLimitProperties.Limit limit) {
+        long intervalMicros = TimeUnit.NANOSECONDS.toMicros(limit.intervalNanos());
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("key", key)
+                .addValue("interval", intervalMicros)
+                .addValue("tolerance", (limit.getCapacity() - 1) * intervalMicros);
+        Long waitMicros = jdbcTemplate.queryForObject(ACQUIRE_SQL, params, Long.class);
+        return waitMicros == null || waitMicros <= 0 ? 0 : TimeUnit.MICROSECONDS.toNanos(waitMicros);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${rate-limit.eviction-interval-ms:60000}")
+    public void evictIdle() {
+        jdbcTemplate.getJdbcTemplate().update(EVICT_SQL);
+    }
+}
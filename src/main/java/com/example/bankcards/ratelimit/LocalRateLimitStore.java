@@ -0,0 +1,54 @@
+package com.example.bankcards.ratelimit;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Хранилище корзин в памяти узла. При нескольких узлах лимит действует на каждом узле отдельно.
+ */
+public class LocalRateLimitStore implements RateLimitStore {
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    public LocalRateLimitStore(MeterRegistry meterRegistry) {
+        Gauge.builder("rate_limit.buckets", buckets, Map::size)
+                .description("Корзины ограничения частоты запросов в памяти узла")
+                .register(meterRegistry);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long tryAcquire(String key, RateLimitProperties.Limit limit) {
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(limit, now));
+        }
+        return bucket.tryAcquire(now);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${rate-limit.eviction-interval-ms:60000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> bucket.isIdle(now));
+    }
+
+    /**
+     * Возвращает количество корзин.
+     *
+     * @return Количество корзин в памяти.
+     */
+    public int size() {
+        return buckets.size();
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.bankcards.ratelimit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Настройки ограничения частоты запросов ({@code rate-limit.*}).
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+    /**
+     * Включено ли ограничение.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Хранилище корзин: {@code local} — в памяти узла, {@code jdbc} — общее для узлов в PostgreSQL.
+     */
+    private Store store = Store.LOCAL;
+
+    /**
+     * Лимиты маршрутов; маршрут без лимита не ограничивается.
+     */
+    private Map<RateLimitRoute, Limit> routes = new EnumMap<>(RateLimitRoute.class);
+
+    /**
+     * Возвращает лимит маршрута.
+     *
+     * @param route Маршрут.
+     * @return Лимит или {@code null}, если маршрут не ограничен.
+     */
+    public Limit limit(RateLimitRoute route) {
+        return routes.get(route);
+    }
+
+    /**
+     * Хранилище корзин.
+     */
+    public enum Store {
+        LOCAL,
+        JDBC
+    }
+
+    /**
+     * Лимит маршрута: емкость корзины и скорость ее пополнения.
+     */
+    @Getter
+    @Setter
+    public static class Limit {
+
+        /**
+         * Емкость корзины — сколько запросов можно выполнить подряд.
+         */
+        private int capacity = 10;
+
+        /**
+         * Сколько токенов добавляется в минуту.
+         */
+        private int refillPerMinute = 60;
+
+        /**
+         * Число полос корзины для горячих ключей (локальное хранилище); 1 — без деления.
+         */
+        private int stripes = 1;
+
+        /**
+         * Возвращает интервал между токенами.
+         *
+         * @return Интервал в наносекундах.
+         */
+        public long intervalNanos() {
+            return TimeUnit.MINUTES.toNanos(1) / refillPerMinute;
+        }
+    }
+}
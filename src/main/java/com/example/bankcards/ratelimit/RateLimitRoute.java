@@ -0,0 +1,90 @@
+package com.example.bankcards.ratelimit;
+
+import com.example.bankcards.constant.PathConstants;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+/**
+ * Маршруты с ограничением частоты запросов.
+ * <p>
+ * Маршрут задает HTTP-метод (или любой метод), шаблон пути на основе {@link PathConstants}
+ * и способ определения ключа корзины: IP-адрес клиента или аутентифицированный пользователь.
+ * Запрос относится к первому подходящему маршруту в порядке объявления; лимиты маршрутов
+ * настраиваются в {@code rate-limit.routes.<маршрут>}.
+ * </p>
+ */
+public enum RateLimitRoute {
+
+    LOGIN("POST", PathConstants.AUTHORIZE_CONTROLLER_PATH + "/login", KeyType.IP),
+    AUTHORIZE(null, PathConstants.AUTHORIZE_CONTROLLER_PATH + "/**", KeyType.IP),
+    TRANSFER("POST", PathConstants.CARD_CONTROLLER_PATH + "/transfer", KeyType.USER);
+
+    private static final RateLimitRoute[] ROUTES = values();
+
+    private final String method;
+    private final PathPattern pattern;
+    private final KeyType keyType;
+
+    RateLimitRoute(String method, String pattern, KeyType keyType) {
+        this.method = method;
+        this.pattern = PathPatternParser.defaultInstance.parse(pattern);
+        this.keyType = keyType;
+    }
+
+    /**
+     * Находит маршрут для запроса.
+     *
+     * @param request HTTP запрос.
+     * @return Маршрут или {@code null}, если запрос не ограничивается.
+     */
+    public static RateLimitRoute match(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        String path = uri.substring(request.getContextPath().length());
+        PathContainer pathContainer = null;
+        for (RateLimitRoute route : ROUTES) {
+            if (route.method != null && !route.method.equals(request.getMethod())) {
+                continue;
+            }
+            if (pathContainer == null) {
+                pathContainer = PathContainer.parsePath(path);
+            }
+            if (route.pattern.matches(pathContainer)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Возвращает ключ корзины запроса: маршрут и IP-адрес или пользователь.
+     * Для {@link KeyType#USER} без аутентификации используется IP-адрес.
+     * IP-адрес берется из {@link HttpServletRequest#getRemoteAddr()}: X-Forwarded-For учитывается Tomcat
+     * только от доверенных прокси ({@code server.tomcat.remoteip.internal-proxies}).
+     *
+     * @param request HTTP запрос.
+     * @return Ключ корзины.
+     */
+    public String key(HttpServletRequest request) {
+        if (keyType == KeyType.USER) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null && authentication.isAuthenticated()
+                    && !(authentication instanceof AnonymousAuthenticationToken)) {
+                return name() + ":user:" + authentication.getName();
+            }
+        }
+        return name() + ":ip:" + request.getRemoteAddr();
+    }
+
+    /**
+     * Способ определения ключа корзины.
+     */
+    public enum KeyType {
+        IP,
+        USER
+    }
+}
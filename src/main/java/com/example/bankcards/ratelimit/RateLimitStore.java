@@ -0,0 +1,21 @@
+package com.example.bankcards.ratelimit;
+
+/**
+ * Хранилище корзин токенов.
+ */
+public interface RateLimitStore {
+
+    /**
+     * Пытается забрать токен из корзины ключа; корзина создается полной при первом обращении.
+     *
+     * @param key   Ключ корзины (маршрут и IP-адрес или пользователь).
+     * @param limit Лимит маршрута.
+     * @return 0, если запрос разрешен, иначе время до появления токена в наносекундах.
+     */
+    long tryAcquire(String key, RateLimitProperties.Limit limit);
+
+    /**
+     * Удаляет полностью пополненные корзины, чтобы не накапливать ключи разовых клиентов.
+     */
+    void evictIdle();
+}
@@ -0,0 +1,96 @@
+package com.example.bankcards.ratelimit;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Корзина токенов без блокировок (алгоритм GCRA).
+ * <p>
+ * Состояние полосы — одно число: теоретическое время следующего запроса (TAT). Запрос пропускается,
+ * если TAT опережает текущее время не больше чем на {@code (capacity - 1)} интервалов, и сдвигает TAT
+ * на один интервал через CAS. Это эквивалентно корзине на {@code capacity} токенов, пополняемой
+ * по токену за интервал, но без потока пополнения и без блокировок.
+ * </p>
+ * <p>
+ * Корзину горячего ключа можно разделить на полосы: каждая получает свою долю емкости и скорости,
+ * поток начинает со случайной полосы и переходит к следующим, только если она пуста. Конкурирующие
+ * потоки так редко спорят за одну ячейку, а суммарный лимит сохраняется с точностью до округления емкости.
+ * </p>
+ */
+public final class TokenBucket {
+
+    /**
+     * Ячейки полос разнесены на 64 байта, чтобы не делить строку кеша.
+     */
+    private static final int PADDING = 8;
+
+    private final AtomicLongArray cells;
+    private final int stripes;
+    private final long intervalNanos;
+    private final long toleranceNanos;
+
+    /**
+     * Создает полную корзину.
+     *
+     * @param limit Лимит маршрута.
+     * @param now   Текущее время ({@link System#nanoTime()}).
+     */
+    public TokenBucket(RateLimitProperties.Limit limit, long now) {
+        this.stripes = Math.max(1, Math.min(limit.getStripes(), limit.getCapacity()));
+        this.intervalNanos = limit.intervalNanos() * stripes;
+        this.toleranceNanos = (limit.getCapacity() / stripes - 1) * intervalNanos;
+        this.cells = new AtomicLongArray(stripes * PADDING);
+        for (int i = 0; i < stripes; i++) {
+            cells.set(i * PADDING, now);
+        }
+    }
+
+    /**
+     * Пытается забрать токен.
+     *
+     * @param now Текущее время ({@link System#nanoTime()}).
+     * @return 0, если токен получен, иначе время до появления токена в наносекундах.
+     */
+    public long tryAcquire(long now) {
+        int start = stripes == 1 ? 0 : ThreadLocalRandom.current().nextInt(stripes);
+        long minWait = Long.MAX_VALUE;
+        for (int i = 0; i < stripes; i++) {
+            long wait = tryAcquireCell(((start + i) % stripes) * PADDING, now);
+            if (wait == 0) {
+                return 0;
+            }
+            minWait = Math.min(minWait, wait);
+        }
+        return minWait;
+    }
+
+    /**
+     * Проверяет, полностью ли пополнена корзина. Такую корзину можно удалить без потери состояния:
+     * новая корзина для того же ключа будет в точности такой же.
+     *
+     * @param now Текущее время ({@link System#nanoTime()}).
+     * @return {@code true}, если все полосы полны.
+     */
+    public boolean isIdle(long now) {
+        for (int i = 0; i < stripes; i++) {
+            if (cells.get(i * PADDING) - now > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long tryAcquireCell(int index, long now) {
+        while (true) {
+            long tat = cells.get(index);
+            long base = tat - now > 0 ? tat : now;
+            long wait = base - now - toleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (cells.compareAndSet(index, tat, base + intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+}
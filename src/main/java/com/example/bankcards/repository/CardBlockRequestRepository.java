@@ -1,10 +1,20 @@
 package com.example.bankcards.repository;
 
+import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.CardBlockRequest;
 import com.example.bankcards.entity.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -32,5 +42,75 @@ public interface CardBlockRequestRepository extends JpaRepository<CardBlockReque
      * @return Список запросов на блокировку с заданным статусом.
      */
     List<CardBlockRequest> findByStatus(CardBlockRequest.Status status);
-}
 
+    /**
+     * Проверяет, существует ли для карты запрос на блокировку с указанным статусом.
+     * <p>
+     * Для статуса PENDING запрос обслуживается частичным уникальным индексом
+     * {@code uq_card_block_request_pending_card_id}.
+     * </p>
+     *
+     * @param card   Карта, для которой выполняется проверка.
+     * @param status Статус запроса.
+     * @return {@code true}, если такой запрос существует.
+     */
+    boolean existsByCardAndStatus(Card card, CardBlockRequest.Status status);
+
+    /**
+     * Выполняет постраничную выборку запросов на блокировку для очереди администратора.
+     * <p>
+     * Карта, пользователь и администратор подгружаются одним запросом ({@code JOIN FETCH}),
+     * поэтому при построении DTO не возникает дополнительных обращений к базе.
+     * Фильтр по статусу и дате создания обслуживается индексом {@code (status, created_at)}.
+     * Если границы периода ({@code from}, {@code to}) равны {@code null}, они не применяются.
+     * </p>
+     *
+     * @param status   Статус запросов.
+     * @param from     Нижняя граница даты создания (включительно).
+     * @param to       Верхняя граница даты создания (не включительно).
+     * @param pageable Параметры пагинации (номер страницы, размер, сортировка).
+     * @return Страница ({@link Page}) с найденными запросами на блокировку.
+     */
+    @Query(value = "SELECT r FROM CardBlockRequest r JOIN FETCH r.card JOIN FETCH r.user LEFT JOIN FETCH r.admin " +
+            "WHERE r.status = :status AND (:from IS NULL OR r.createdAt >= :from) AND (:to IS NULL OR r.createdAt < :to)",
+            countQuery = "SELECT COUNT(r) FROM CardBlockRequest r " +
+                    "WHERE r.status = :status AND (:from IS NULL OR r.createdAt >= :from) AND (:to IS NULL OR r.createdAt < :to)")
+    Page<CardBlockRequest> findQueue(@Param("status") CardBlockRequest.Status status,
+                                     @Param("from") LocalDateTime from,
+                                     @Param("to") LocalDateTime to,
+                                     Pageable pageable);
+
+    /**
+     * Загружает запросы на блокировку вместе с картами одним запросом и блокирует строки
+     * до конца транзакции ({@code SELECT ... FOR UPDATE}).
+     * <p>
+     * Используется при массовой обработке запросов администратором: блокировка исключает
+     * параллельное одобрение/отклонение тех же запросов.
+     * </p>
+     *
+     * @param ids Идентификаторы запросов.
+     * @return Список найденных запросов (отсутствующие идентификаторы пропускаются).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM CardBlockRequest r JOIN FETCH r.card WHERE r.id IN :ids")
+    List<CardBlockRequest> findAllWithCardByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Массово переводит ожидающие обработки запросы в итоговый статус одним {@code UPDATE}.
+     *
+     * @param ids         Идентификаторы запросов.
+     * @param status      Новый статус (APPROVED или REJECTED).
+     * @param admin       Администратор, обработавший запросы.
+     * @param comment     Комментарий администратора.
+     * @param processedAt Время обработки.
+     * @return Количество обновленных строк.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE CardBlockRequest r SET r.status = :status, r.admin = :admin, r.adminComment = :comment, " +
+            "r.processedAt = :processedAt WHERE r.id IN :ids AND r.status = com.example.bankcards.entity.CardBlockRequest.Status.PENDING")
+    int updatePendingStatusByIdIn(@Param("ids") Collection<Long> ids,
+                                  @Param("status") CardBlockRequest.Status status,
+                                  @Param("admin") User admin,
+                                  @Param("comment") String comment,
+                                  @Param("processedAt") LocalDateTime processedAt);
+}
@@ -2,14 +2,21 @@ package com.example.bankcards.repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardStatus;
 import com.example.bankcards.entity.User;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 /**
  * Репозиторий для управления сущностями {@link Card}.
@@ -30,6 +37,75 @@ public interface CardRepository extends JpaRepository<Card, Long> {
      */
     List<Card> findByOwner(User owner);
 
+    /**
+     * Находит карту вместе с владельцем одним запросом ({@code JOIN} вместо отдельной загрузки владельца).
+     *
+     * @param id Идентификатор карты.
+     * @return Карта с инициализированным владельцем или пустой {@link Optional}.
+     */
+    @EntityGraph(attributePaths = "owner")
+    Optional<Card> findWithOwnerById(Long id);
+
+    /**
+     * Возвращает идентификатор владельца карты без загрузки сущностей ({@code select owner_id from card}).
+     *
+     * @param id Идентификатор карты.
+     * @return Идентификатор владельца или пустой {@link Optional}, если карты нет.
+     */
+    @Query("SELECT c.owner.id FROM Card c WHERE c.id = :id")
+    Optional<Long> findOwnerIdById(@Param("id") Long id);
+
+    /**
+     * Возвращает версии карты и ее владельца, статус и срок действия без загрузки сущностей.
+     *
+     * @param id Идентификатор карты.
+     * @return Версии карты или пустой {@link Optional}, если карты нет.
+     */
+    @Query("SELECT new com.example.bankcards.repository.CardVersionView(c.id, c.version, o.version, c.status, c.expireDate) "
+            + "FROM Card c JOIN c.owner o WHERE c.id = :id")
+    Optional<CardVersionView> findVersionById(@Param("id") Long id);
+
+    /**
+     * Возвращает сводку версий всех карт владельца одним агрегирующим запросом по индексу {@code idx_card_owner_id}.
+     *
+     * @param ownerId Идентификатор владельца.
+     * @param today   Текущая дата (для подсчета карт с устаревшим статусом).
+     * @param expired Статус истекшей карты.
+     * @return Сводка версий; для владельца без карт — нулевые значения.
+     */
+    @Query("SELECT new com.example.bankcards.repository.OwnerCardsVersionView(COUNT(c), COALESCE(SUM(c.id), 0L), "
+            + "COALESCE(SUM(c.version), 0L), "
+            + "COALESCE(SUM(CASE WHEN c.expireDate < :today AND c.status <> :expired THEN 1L ELSE 0L END), 0L)) "
+            + "FROM Card c WHERE c.owner.id = :ownerId")
+    OwnerCardsVersionView findVersionsByOwnerId(@Param("ownerId") Long ownerId,
+                                                @Param("today") LocalDate today,
+                                                @Param("expired") CardStatus expired);
+
+    /**
+     * Возвращает состояние карт с указанными идентификаторами, находящихся в заданном статусе.
+     *
+     * @param ids    Идентификаторы карт.
+     * @param status Статус карт.
+     * @return Состояние карт.
+     */
+    @Query("SELECT new com.example.bankcards.repository.CardStateView(c.id, c.owner.id, c.balance, c.status) "
+            + "FROM Card c WHERE c.id IN :ids AND c.status = :status")
+    List<CardStateView> findStatesByIdInAndStatus(@Param("ids") Collection<Long> ids,
+                                                  @Param("status") CardStatus status);
+
+    /**
+     * Возвращает состояние карт владельца, находящихся в заданном статусе.
+     * Запрос обслуживается индексом {@code idx_card_owner_id}.
+     *
+     * @param ownerId Идентификатор владельца.
+     * @param status  Статус карт.
+     * @return Состояние карт.
+     */
+    @Query("SELECT new com.example.bankcards.repository.CardStateView(c.id, c.owner.id, c.balance, c.status) "
+            + "FROM Card c WHERE c.owner.id = :ownerId AND c.status = :status")
+    List<CardStateView> findStatesByOwnerIdAndStatus(@Param("ownerId") Long ownerId,
+                                                     @Param("status") CardStatus status);
+
     /**
      * Выполняет постраничный поиск карт пользователя по заданному запросу.
      * <p>
@@ -49,4 +125,55 @@ public interface CardRepository extends JpaRepository<Card, Long> {
      */
     @Query("SELECT c FROM Card c WHERE c.owner = :owner AND (:query IS NULL OR LOWER(c.cardNumber) LIKE LOWER(CONCAT('%', :query, '%')) OR LOWER(c.status) LIKE LOWER(CONCAT('%', :query, '%')))")
     Page<Card> searchUserCards(@Param("owner") User owner, @Param("query") String query, Pageable pageable);
+
+    /**
+     * Массово устанавливает статус картам с указанными идентификаторами одним {@code UPDATE}.
+     *
+     * @param ids    Идентификаторы карт.
+     * @param status Новый статус.
+     * @return Количество обновленных строк.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Card c SET c.status = :status, c.version = c.version + 1 WHERE c.id IN :ids")
+    int updateStatusByIdIn(@Param("ids") Collection<Long> ids, @Param("status") CardStatus status);
+
+    /**
+     * Массово переводит карты с указанными идентификаторами из одного статуса в другой одним {@code UPDATE}.
+     * Карты, находящиеся в другом статусе, не изменяются.
+     *
+     * @param ids        Идентификаторы карт.
+     * @param fromStatus Текущий статус карт, подлежащих изменению.
+     * @param toStatus   Новый статус.
+     * @return Количество обновленных строк.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Card c SET c.status = :toStatus, c.version = c.version + 1 WHERE c.id IN :ids AND c.status = :fromStatus")
+    int updateStatusByIdInAndStatus(@Param("ids") Collection<Long> ids,
+                                    @Param("fromStatus") CardStatus fromStatus,
+                                    @Param("toStatus") CardStatus toStatus);
+
+    /**
+     * Массово переводит все карты владельца из одного статуса в другой одним {@code UPDATE}.
+     * Запрос обслуживается индексом {@code idx_card_owner_id}.
+     *
+     * @param ownerId    Идентификатор владельца карт.
+     * @param fromStatus Текущий статус карт, подлежащих изменению.
+     * @param toStatus   Новый статус.
+     * @return Количество обновленных строк.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Card c SET c.status = :toStatus, c.version = c.version + 1 WHERE c.owner.id = :ownerId AND c.status = :fromStatus")
+    int updateStatusByOwnerIdAndStatus(@Param("ownerId") Long ownerId,
+                                       @Param("fromStatus") CardStatus fromStatus,
+                                       @Param("toStatus") CardStatus toStatus);
+
+    /**
+     * Возвращает те слепые индексы номеров из переданных, которые уже заняты существующими картами.
+     * Запрос обслуживается уникальным индексом {@code uq_card_pan_hash}.
+     *
+     * @param panHashes Проверяемые слепые индексы.
+     * @return Занятые слепые индексы.
+     */
+    @Query("SELECT c.panHash FROM Card c WHERE c.panHash IN :panHashes")
+    Set<String> findPanHashesByPanHashIn(@Param("panHashes") Collection<String> panHashes);
 }
@@ -0,0 +1,16 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.CardStatus;
+
+import java.math.BigDecimal;
+
+/**
+ * Состояние карты без загрузки сущностей; по нему публикуются события после массовых изменений.
+ *
+ * @param cardId  Идентификатор карты.
+ * @param ownerId Идентификатор владельца.
+ * @param balance Баланс карты.
+ * @param status  Статус карты.
+ */
+public record CardStateView(Long cardId, Long ownerId, BigDecimal balance, CardStatus status) {
+}
@@ -0,0 +1,29 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.CardStatus;
+
+import java.time.LocalDate;
+
+/**
+ * Версии карты и ее владельца без загрузки сущностей; по ним вычисляется ETag ответа с картой.
+ *
+ * @param cardId       Идентификатор карты.
+ * @param cardVersion  Версия карты.
+ * @param ownerVersion Версия владельца (в ответ входит его email).
+ * @param status       Статус карты.
+ * @param expireDate   Дата окончания срока действия.
+ */
+public record CardVersionView(Long cardId, Long cardVersion, Long ownerVersion, CardStatus status,
+                              LocalDate expireDate) {
+
+    /**
+     * Проверяет, что срок действия истек, а статус еще не обновлен: ETag для такой карты не выдается,
+     * статус должен пересчитать сервис.
+     *
+     * @param today Текущая дата.
+     * @return {@code true}, если статус карты устарел.
+     */
+    public boolean isStatusOutdated(LocalDate today) {
+        return expireDate != null && expireDate.isBefore(today) && status != CardStatus.EXPIRED;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.MailOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Репозиторий для управления очередью исходящих писем {@link MailOutbox}.
+ */
+@Repository
+public interface MailOutboxRepository extends JpaRepository<MailOutbox, Long> {
+
+    /**
+     * Выбирает письма, готовые к отправке, с блокировкой строк до конца транзакции.
+     * Строки, уже заблокированные другим узлом, пропускаются.
+     *
+     * @param now   Текущее время.
+     * @param limit Максимальное количество писем.
+     * @return Письма в статусе PENDING, время следующей попытки которых наступило.
+     */
+    @Query(value = "SELECT * FROM mail_outbox WHERE status = 'PENDING' AND next_attempt_at <= :now "
+            + "ORDER BY next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<MailOutbox> findDueForUpdate(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * Удаляет порцию отправленных и окончательно неотправленных писем, созданных раньше указанного времени.
+     *
+     * @param before Граница времени создания.
+     * @param limit  Максимальное количество удаляемых писем.
+     * @return Количество удаленных писем.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM mail_outbox WHERE id IN (SELECT id FROM mail_outbox "
+            + "WHERE status IN ('SENT', 'FAILED') AND created_at < :before LIMIT :limit)", nativeQuery = true)
+    int deleteFinishedBefore(@Param("before") LocalDateTime before, @Param("limit") int limit);
+}
@@ -0,0 +1,16 @@
+package com.example.bankcards.repository;
+
+/**
+ * Сводка версий всех карт владельца для ETag списка карт.
+ * <p>
+ * Версия карты только растет, поэтому при неизменном наборе карт (количество и сумма идентификаторов)
+ * любое изменение карты увеличивает сумму версий.
+ * </p>
+ *
+ * @param count         Количество карт.
+ * @param idSum         Сумма идентификаторов карт.
+ * @param versionSum    Сумма версий карт.
+ * @param outdatedCount Количество карт с истекшим сроком, статус которых еще не обновлен.
+ */
+public record OwnerCardsVersionView(Long count, Long idSum, Long versionSum, Long outdatedCount) {
+}
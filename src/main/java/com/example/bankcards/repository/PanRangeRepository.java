@@ -0,0 +1,40 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.PanRange;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Репозиторий для управления диапазонами номеров карт {@link PanRange}.
+ */
+@Repository
+public interface PanRangeRepository extends JpaRepository<PanRange, String> {
+
+    /**
+     * Создает счетчик для BIN, если его еще нет. Безопасен при одновременном вызове с нескольких узлов.
+     *
+     * @param bin BIN.
+     * @return Количество вставленных строк (0, если счетчик уже существует).
+     */
+    @Modifying
+    @Query(value = "INSERT INTO pan_range (bin, next_value) VALUES (:bin, 0) ON CONFLICT (bin) DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("bin") String bin);
+
+    /**
+     * Находит счетчик BIN с блокировкой строки до конца транзакции.
+     *
+     * @param bin BIN.
+     * @return Счетчик диапазона, если он существует.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM PanRange r WHERE r.bin = :bin")
+    Optional<PanRange> findForUpdate(@Param("bin") String bin);
+}
@@ -0,0 +1,123 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.CardRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Проверка доступа к карте для выражений {@code @PreAuthorize}.
+ * <p>
+ * Доступ есть у администратора и у владельца карты. Владелец определяется запросом
+ * {@code select owner_id from card where id = ?} без загрузки сущностей; ответ кешируется в памяти узла
+ * на {@code card.access-cache.ttl-ms}. Владелец карты не меняется, а удаленная карта после проверки
+ * все равно не будет найдена сервисом, поэтому кеш не требует инвалидации, только удаления истекших записей.
+ * </p>
+ */
+@Component
+public class CardAccessEvaluator {
+
+    private static final String CACHE = "card.access.cache";
+
+    private final CardRepository cardRepository;
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final Counter hits;
+    private final Counter misses;
+
+    private final Map<Long, Ownership> owners = new ConcurrentHashMap<>();
+
+    public CardAccessEvaluator(CardRepository cardRepository,
+                               MeterRegistry meterRegistry,
+                               @Value("${card.access-cache.ttl-ms:30000}") long ttlMillis,
+                               @Value("${card.access-cache.max-entries:100000}") int maxEntries) {
+        this.cardRepository = cardRepository;
+        this.ttlMillis = ttlMillis;
+        this.maxEntries = maxEntries;
+        this.hits = meterRegistry.counter(CACHE, "result", "hit");
+        this.misses = meterRegistry.counter(CACHE, "result", "miss");
+        Gauge.builder(CACHE + ".size", owners, Map::size)
+                .description("Закешированные владельцы карт")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Проверяет, может ли аутентифицированный пользователь обращаться к карте.
+     *
+     * @param cardId         Идентификатор карты.
+     * @param authentication Текущая аутентификация.
+     * @return {@code true} для администратора и владельца карты; {@code false}, если карты нет
+     * или она принадлежит другому пользователю.
+     */
+    public boolean canAccess(Long cardId, Authentication authentication) {
+        if (authentication == null || cardId == null) {
+            return false;
+        }
+        if (isAdmin(authentication)) {
+            return true;
+        }
+        if (!(authentication.getPrincipal() instanceof User user)) {
+            return false;
+        }
+        Long ownerId = ownerId(cardId);
+        return ownerId != null && Objects.equals(ownerId, user.getId());
+    }
+
+    /**
+     * Удаляет истекшие записи кеша владельцев.
+     */
+    @Scheduled(fixedDelayString = "${card.access-cache.cleanup-interval-ms:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        owners.values().removeIf(ownership -> ownership.isExpired(now));
+    }
+
+    private Long ownerId(Long cardId) {
+        long now = System.currentTimeMillis();
+        Ownership cached = owners.get(cardId);
+        if (cached != null && !cached.isExpired(now)) {
+            hits.increment();
+            return cached.ownerId();
+        }
+        misses.increment();
+        Long ownerId = cardRepository.findOwnerIdById(cardId).orElse(null);
+        // Отсутствие карты не кешируется: карта с этим id может быть создана позже
+        if (ownerId != null && (cached != null || owners.size() < maxEntries)) {
+            owners.put(cardId, new Ownership(ownerId, now + ttlMillis));
+        }
+        return ownerId;
+    }
+
+    private static boolean isAdmin(Authentication authentication) {
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            if (Role.ADMIN.getAuthority().equals(authority.getAuthority())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Закешированный владелец карты.
+     *
+     * @param ownerId   Идентификатор владельца.
+     * @param expiresAt Момент истечения записи (мс).
+     */
+    private record Ownership(Long ownerId, long expiresAt) {
+
+        boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.bankcards.security;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Помечает параметр метода контроллера, в который подставляется текущий аутентифицированный
+ * пользователь ({@link com.example.bankcards.entity.User}).
+ * <p>
+ * Значение разрешает {@link CurrentUserArgumentResolver} из principal аутентификации, которую
+ * выставил {@link com.example.bankcards.security.jwt.JwtTokenFilter}, без повторных запросов к БД.
+ * </p>
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CurrentUser {
+}
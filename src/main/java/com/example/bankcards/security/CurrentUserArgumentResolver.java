@@ -0,0 +1,39 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.AuthorizeException;
+import com.example.bankcards.exception.errors.AuthorizedError;
+import org.springframework.core.MethodParameter;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * Подставляет в параметры контроллеров, помеченные {@link CurrentUser}, текущего пользователя.
+ * <p>
+ * Пользователь уже загружен {@link com.example.bankcards.security.jwt.JwtTokenFilter} при проверке токена
+ * и хранится в principal аутентификации, поэтому разрешение аргумента не обращается к БД.
+ * Если principal не является {@link User} (запрос без аутентификации), выбрасывается {@link AuthorizeException}.
+ * </p>
+ */
+public class CurrentUserArgumentResolver implements HandlerMethodArgumentResolver {
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(CurrentUser.class)
+                && User.class.isAssignableFrom(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof User user) {
+            return user;
+        }
+        throw new AuthorizeException(AuthorizedError.NOT_CORRECT_TOKEN);
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.dto.response.BusinessExceptionRespDTO;
+import com.example.bankcards.exception.AuthorizeException;
+import com.example.bankcards.exception.BadRequestException;
+import com.example.bankcards.exception.NotFoundException;
+import com.example.bankcards.exception.RestExceptionHandler;
+import com.example.bankcards.exception.TooManyRequestsException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.AuthenticationException;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * Запись JSON-ответа об ошибке, возникшей вне контроллеров (в цепочке фильтров).
+ * <p>
+ * Тип исключения сопоставляется со статусом и методом {@link RestExceptionHandler} по таблице
+ * {@link #mappings}: первая подходящая строка побеждает, последняя строка ({@link Throwable}) — ответ 500.
+ * DTO сериализуется закешированным {@link ObjectWriter} сразу в выходной поток ответа, без промежуточной строки.
+ * </p>
+ * <p>
+ * Не является бином: экземпляр создает владелец (например, {@link ExceptionHandlerFilter}), чтобы фильтр
+ * оставался самодостаточным и в срезах {@code @WebMvcTest}.
+ * </p>
+ */
+public class ErrorResponseWriter {
+
+    private static final String ENCODE = "UTF-8";
+    private static final String CONTENT_TYPE = "application/json;charset=UTF-8";
+
+    private final ObjectWriter objectWriter;
+    private final List<ErrorMapping<?>> mappings;
+
+    public ErrorResponseWriter(RestExceptionHandler exceptionHandler, ObjectMapper objectMapper) {
+        this.objectWriter = objectMapper.writerFor(BusinessExceptionRespDTO.class);
+        this.mappings = List.of(
+                new ErrorMapping<>(NotFoundException.class, HttpStatus.NOT_FOUND, exceptionHandler::handleExceptions),
+                new ErrorMapping<>(AccessDeniedException.class, HttpStatus.FORBIDDEN, exceptionHandler::handleExceptions),
+                new ErrorMapping<>(AuthenticationException.class, HttpStatus.UNAUTHORIZED, exceptionHandler::handleExceptions),
+                new ErrorMapping<>(AuthorizeException.class, HttpStatus.UNAUTHORIZED, exceptionHandler::handleExceptions),
+                new ErrorMapping<>(BadRequestException.class, HttpStatus.BAD_REQUEST, exceptionHandler::handleExceptions),
+                new ErrorMapping<>(TooManyRequestsException.class, HttpStatus.TOO_MANY_REQUESTS, exceptionHandler::handleExceptions),
+                new ErrorMapping<>(OptimisticLockingFailureException.class, HttpStatus.CONFLICT, exceptionHandler::handleExceptions),
+                new ErrorMapping<>(Throwable.class, HttpStatus.INTERNAL_SERVER_ERROR, exceptionHandler::handleExceptions));
+    }
+
+    /**
+     * Формирует и записывает ответ об ошибке.
+     *
+     * @param ex       Перехваченное исключение.
+     * @param request  HTTP запрос.
+     * @param response HTTP ответ.
+     * @throws IOException если не удалось записать тело ответа.
+     */
+    public void write(Throwable ex, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ErrorMapping<?> mapping = find(ex);
+        BusinessExceptionRespDTO responseBody = mapping.handle(ex, request);
+        response.setStatus(mapping.status().value());
+        response.setCharacterEncoding(ENCODE);
+        response.setContentType(CONTENT_TYPE);
+        try {
+            objectWriter.writeValue(response.getOutputStream(), responseBody);
+        } catch (IllegalStateException e) {
+            // Нижележащий код уже открыл Writer ответа — поток байтов для этого ответа недоступен
+            objectWriter.writeValue(response.getWriter(), responseBody);
+        }
+    }
+
+    private ErrorMapping<?> find(Throwable ex) {
+        for (ErrorMapping<?> mapping : mappings) {
+            if (mapping.type().isInstance(ex)) {
+                return mapping;
+            }
+        }
+        throw new IllegalStateException("Нет обработчика для " + ex.getClass().getName());
+    }
+
+    /**
+     * Строка таблицы: тип исключения, статус ответа и метод обработчика, формирующий DTO.
+     */
+    private record ErrorMapping<T extends Throwable>(Class<T> type, HttpStatus status,
+                                                     BiFunction<T, HttpServletRequest, BusinessExceptionRespDTO> handler) {
+
+        BusinessExceptionRespDTO handle(Throwable ex, HttpServletRequest request) {
+            return handler.apply(type.cast(ex), request);
+        }
+    }
+}
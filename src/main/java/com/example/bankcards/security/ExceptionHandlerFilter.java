@@ -1,9 +1,5 @@
 package com.example.bankcards.security;
 
-import com.example.bankcards.dto.response.BusinessExceptionRespDTO;
-import com.example.bankcards.exception.AuthorizeException;
-import com.example.bankcards.exception.BadRequestException;
-import com.example.bankcards.exception.NotFoundException;
 import com.example.bankcards.exception.RestExceptionHandler;
 import com.example.bankcards.security.jwt.JwtTokenFilter;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -11,11 +7,7 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.HttpStatus;
-import org.springframework.security.access.AccessDeniedException;
-import org.springframework.security.core.AuthenticationException;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
@@ -27,8 +19,8 @@ import java.io.IOException;
  * Этот фильтр является одним из первых в цепочке и его основная задача —
  * обернуть выполнение последующих фильтров в блок try-catch. Если в каком-либо
  * из фильтров (например, в {@link JwtTokenFilter}) возникнет исключение,
- * этот фильтр перехватит его и делегирует обработку глобальному обработчику
- * {@link RestExceptionHandler}.
+ * этот фильтр перехватит его и запишет ответ через {@link ErrorResponseWriter},
+ * который формирует тело глобальным обработчиком {@link RestExceptionHandler}.
  * <p>
  * Это необходимо, так как стандартный {@code @ControllerAdvice} перехватывает
  * исключения только на уровне контроллеров, но не на уровне фильтров. Без этого
@@ -37,15 +29,17 @@ import java.io.IOException;
  * </p>
  */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class ExceptionHandlerFilter extends OncePerRequestFilter {
 
     private static final String ENCODE = "UTF-8";
     private static final String CONTENT_TYPE = "application/json;charset=UTF-8";
 
-    private final RestExceptionHandler exceptionHandler;
-    private final ObjectMapper objectMapper;
+    private final ErrorResponseWriter errorResponseWriter;
+
+    public ExceptionHandlerFilter(RestExceptionHandler exceptionHandler, ObjectMapper objectMapper) {
+        this.errorResponseWriter = new ErrorResponseWriter(exceptionHandler, objectMapper);
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
@@ -53,30 +47,8 @@ public class ExceptionHandlerFilter extends OncePerRequestFilter {
         response.setContentType(CONTENT_TYPE);
         try {
             filterChain.doFilter(request, response);
-        } catch (NotFoundException e) {
-            BusinessExceptionRespDTO responseBody = exceptionHandler.handleExceptions(e, request);
-            response.setStatus(HttpStatus.NOT_FOUND.value());
-            response.getWriter().write(objectMapper.writeValueAsString(responseBody));
-        } catch (AccessDeniedException e) {
-            BusinessExceptionRespDTO responseBody = exceptionHandler.handleExceptions(e, request);
-            response.setStatus(HttpStatus.FORBIDDEN.value());
-            response.getWriter().write(objectMapper.writeValueAsString(responseBody));
-        } catch (AuthenticationException e) {
-            BusinessExceptionRespDTO responseBody = exceptionHandler.handleExceptions(e, request);
-            response.setStatus(HttpStatus.UNAUTHORIZED.value());
-            response.getWriter().write(objectMapper.writeValueAsString(responseBody));
-        } catch (AuthorizeException e) {
-            BusinessExceptionRespDTO responseBody = exceptionHandler.handleExceptions(e, request);
-            response.setStatus(HttpStatus.UNAUTHORIZED.value());
-            response.getWriter().write(objectMapper.writeValueAsString(responseBody));
-        } catch (BadRequestException e) {
-            BusinessExceptionRespDTO responseBody = exceptionHandler.handleExceptions(e, request);
-            response.setStatus(HttpStatus.BAD_REQUEST.value());
-            response.getWriter().write(objectMapper.writeValueAsString(responseBody));
         } catch (Throwable throwable) {
-            BusinessExceptionRespDTO responseBody = exceptionHandler.handleExceptions(throwable, request);
-            response.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
-            response.getWriter().write(objectMapper.writeValueAsString(responseBody));
+            errorResponseWriter.write(throwable, request, response);
         }
     }
 
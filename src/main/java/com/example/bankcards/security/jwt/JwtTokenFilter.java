@@ -4,8 +4,11 @@ import com.example.bankcards.constant.PathConstants;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.exception.AuthorizeException;
 import com.example.bankcards.exception.errors.AuthorizedError;
+import com.example.bankcards.filter.MdcLoggingFilter;
 import com.example.bankcards.repository.UserRepository;
 import com.example.bankcards.service.UserService;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
@@ -32,6 +35,9 @@ import java.util.Arrays;
  * токенов (access и refresh), и они устанавливаются в cookie ответа. Этот процесс
  * называется ротацией токенов.
  * </p>
+ * <p>
+ * Проверка токенов выделяется в трассе отдельным спаном {@code jwt.authenticate}.
+ * </p>
  */
 @Component
 @RequiredArgsConstructor
@@ -46,6 +52,7 @@ public class JwtTokenFilter extends OncePerRequestFilter {
     private final UserService userService;
     private final JwtUtils jwtUtils;
     private final UserRepository userRepository;
+    private final Tracer tracer;
 
     /**
      * Основной метод фильтра, выполняющий проверку и обновление токенов.
@@ -55,13 +62,29 @@ public class JwtTokenFilter extends OncePerRequestFilter {
         String accessToken = getCookieValue(request, "accessToken");
         String refreshToken = getCookieValue(request, "refreshToken");
 
+        if (accessToken != null || refreshToken != null) {
+            Span span = tracer.nextSpan().name("jwt.authenticate").start();
+            try (Tracer.SpanInScope ignored = tracer.withSpan(span)) {
+                authenticate(accessToken, refreshToken, response);
+            } finally {
+                span.end();
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Устанавливает аутентификацию по access-токену или, если он истек или отсутствует, по refresh-токену.
+     */
+    private void authenticate(String accessToken, String refreshToken, HttpServletResponse response) {
         if (accessToken != null) {
             try {
                 // 1. Попытка валидации access-токена
                 jwtUtils.validateToken(accessToken);
                 String email = jwtUtils.getUserEmailFromToken(accessToken);
                 User user = (User) userService.loadUserByUsername(email);
-                SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(email, null, user.getAuthorities()));
+                authenticateUser(user);
             } catch (AuthorizeException ex) {
                 // 2. Если access-токен истек, пытаемся его обновить
                 if (AuthorizedError.TOKEN_WAS_EXPIRED.name().equals(ex.getErrorName())) {
@@ -72,8 +95,6 @@ public class JwtTokenFilter extends OncePerRequestFilter {
             // 3. Если access-токена нет, но есть refresh-токен
             tryRotateTokens(refreshToken, response);
         }
-
-        filterChain.doFilter(request, response);
     }
 
     private void tryRotateTokens(String refreshJwt, HttpServletResponse response) {
@@ -95,7 +116,7 @@ public class JwtTokenFilter extends OncePerRequestFilter {
                     // Установка новых токенов в HttpOnly cookie
                     addHttpOnlyCookie(response, "accessToken", newAccess, accessExpirationSeconds);
                     addHttpOnlyCookie(response, "refreshToken", newRefresh, refreshExpirationSeconds);
-                    SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(email, null, user.getAuthorities()));
+                    authenticateUser(user);
                 }
             }
         } catch (Exception ignore) {
@@ -104,6 +125,16 @@ public class JwtTokenFilter extends OncePerRequestFilter {
         }
     }
 
+    /**
+     * Выставляет аутентификацию с загруженным пользователем в качестве principal.
+     * Контроллеры получают его через {@link com.example.bankcards.security.CurrentUser} без повторного запроса к БД;
+     * {@code authentication.name} по-прежнему равен email.
+     */
+    private void authenticateUser(User user) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+        MdcLoggingFilter.putUser(user.getId(), user.getEmail());
+    }
+
     /**
      * Извлекает значение cookie по имени.
      *
@@ -16,11 +16,18 @@ public interface AuthorizeService {
     /**
      * Авторизует пользователя и возвращает токены доступа и обновления.
      *
+     * Неудачные попытки ограничиваются по email и IP-адресу клиента, а пароль проверяется
+     * на ограниченном пуле bcrypt.
+     *
      * @param userAuthorizeDTO DTO с учетными данными пользователя (email и пароль).
+     * @param request          Объект HttpServletRequest для определения IP-адреса клиента.
      * @param response         Объект HttpServletResponse для установки cookie с токеном обновления.
      * @return ResponseEntity с DTO, содержащим токен доступа.
+     * @throws com.example.bankcards.exception.TooManyRequestsException если превышен лимит попыток
+     *                                                                   или пул проверки паролей перегружен.
      */
-    ResponseEntity<TokenRespDTO> authorizeUser(UserAuthorizeReqDTO userAuthorizeDTO, HttpServletResponse response);
+    ResponseEntity<TokenRespDTO> authorizeUser(UserAuthorizeReqDTO userAuthorizeDTO, HttpServletRequest request,
+                                               HttpServletResponse response);
 
     /**
      * Регистрирует нового пользователя в системе.
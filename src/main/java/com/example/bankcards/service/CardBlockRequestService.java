@@ -1,8 +1,13 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.dto.response.BlockRequestDecisionResultRespDTO;
 import com.example.bankcards.dto.response.CardBlockRequestRespDTO;
+import com.example.bankcards.entity.CardBlockRequest;
 import com.example.bankcards.entity.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -40,6 +45,19 @@ public interface CardBlockRequestService {
      */
     List<CardBlockRequestRespDTO> getAllBlockRequests();
 
+    /**
+     * Получает постраничную очередь запросов на блокировку с фильтрацией по статусу и периоду создания
+     * (только для администраторов).
+     *
+     * @param status   Статус запросов (обычно PENDING).
+     * @param from     Нижняя граница даты создания (включительно), может быть {@code null}.
+     * @param to       Верхняя граница даты создания (не включительно), может быть {@code null}.
+     * @param pageable Параметры пагинации.
+     * @return Страница с DTO запросов на блокировку.
+     */
+    Page<CardBlockRequestRespDTO> getBlockRequestQueue(CardBlockRequest.Status status, LocalDateTime from,
+                                                       LocalDateTime to, Pageable pageable);
+
     /**
      * Одобряет запрос на блокировку карты. Доступно только администраторам.
      *
@@ -63,4 +81,31 @@ public interface CardBlockRequestService {
      * @throws com.example.bankcards.exception.BadRequestException если запрос уже обработан.
      */
     CardBlockRequestRespDTO rejectBlockRequest(Long requestId, User admin, String comment);
+
+    /**
+     * Массово одобряет запросы на блокировку карт. Доступно только администраторам.
+     * <p>
+     * Все запросы и карты загружаются одним запросом, статусы меняются пакетными {@code UPDATE}
+     * в одной транзакции. Запросы, которые не найдены или уже обработаны, не прерывают операцию,
+     * а возвращаются в результате с указанием ошибки.
+     * </p>
+     *
+     * @param requestIds ID запросов на блокировку.
+     * @param admin      Администратор, выполняющий операцию.
+     * @param comment    Комментарий администратора.
+     * @return Результаты обработки по каждому ID в порядке их передачи.
+     * @throws com.example.bankcards.exception.BadRequestException если пользователь не администратор.
+     */
+    List<BlockRequestDecisionResultRespDTO> approveBlockRequests(List<Long> requestIds, User admin, String comment);
+
+    /**
+     * Массово отклоняет запросы на блокировку карт. Доступно только администраторам.
+     *
+     * @param requestIds ID запросов на блокировку.
+     * @param admin      Администратор, выполняющий операцию.
+     * @param comment    Комментарий администратора.
+     * @return Результаты обработки по каждому ID в порядке их передачи.
+     * @throws com.example.bankcards.exception.BadRequestException если пользователь не администратор.
+     */
+    List<BlockRequestDecisionResultRespDTO> rejectBlockRequests(List<Long> requestIds, User admin, String comment);
 }
@@ -0,0 +1,31 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.event.CardEvent;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Рассылка изменений баланса и статуса карт их владельцам через Server-Sent Events.
+ * <p>
+ * Шина событий работает в памяти узла: подписчик получает изменения, зафиксированные этим узлом.
+ * У каждого подписчика ограниченный буфер; подписчик, не успевающий читать события, отключается,
+ * а клиент после переподключения перечитывает карты обычными запросами.
+ * </p>
+ */
+public interface CardEventService {
+
+    /**
+     * Открывает поток событий по картам пользователя.
+     *
+     * @param userId Идентификатор пользователя.
+     * @return Эмиттер SSE, который контроллер возвращает как асинхронный ответ.
+     */
+    SseEmitter subscribe(Long userId);
+
+    /**
+     * Публикует изменение карты. Внутри транзакции событие рассылается только после ее фиксации,
+     * поэтому откаченные изменения подписчикам не отправляются.
+     *
+     * @param event Событие.
+     */
+    void publish(CardEvent event);
+}
@@ -1,7 +1,10 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.dto.request.BulkCardStatusReqDTO;
+import com.example.bankcards.dto.request.BulkIssueCardsReqDTO;
 import com.example.bankcards.dto.request.CreateCardReqDTO;
 import com.example.bankcards.dto.request.TransferReqDTO;
+import com.example.bankcards.dto.response.BulkCardStatusRespDTO;
 import com.example.bankcards.dto.response.CardBalanceRespDTO;
 import com.example.bankcards.dto.response.CardRespDTO;
 import com.example.bankcards.entity.User;
@@ -10,6 +13,7 @@ import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Сервис для управления банковскими картами.
@@ -118,6 +122,31 @@ public interface CardService {
      */
     CardBalanceRespDTO getCardBalance(Long cardId, User requester);
 
+    /**
+     * Вычисляет ETag ответа с картой по версиям карты и ее владельца, не загружая и не расшифровывая карту.
+     *
+     * @param cardId ID карты.
+     * @return ETag или {@code null}, если карта не найдена либо ее статус нужно обновить
+     * (тогда ответ формирует {@link #getCardById(Long, User)}).
+     */
+    String getCardETag(Long cardId);
+
+    /**
+     * Вычисляет ETag списка карт владельца одним агрегирующим запросом.
+     *
+     * @param owner Владелец карт.
+     * @return ETag или {@code null}, если статус какой-либо карты нужно обновить.
+     */
+    String getCardsETag(User owner);
+
+    /**
+     * Вычисляет ETag ответа с балансом карты по ее версии; при наличии карты в кеше баланса БД не читается.
+     *
+     * @param cardId ID карты.
+     * @return ETag или {@code null}, если карта не найдена либо ее статус нужно обновить.
+     */
+    String getCardBalanceETag(Long cardId);
+
     /**
      * Обновляет баланс карты.
      * ВНИМАНИЕ: Этот метод предназначен только для администраторов.
@@ -129,4 +158,45 @@ public interface CardService {
      * @throws com.example.bankcards.exception.BadRequestException если у пользователя нет прав на это действие.
      */
     void updateCardBalance(Long cardId, BigDecimal newBalance, User requester);
+
+    /**
+     * Экстренно блокирует все активные карты из списка или все активные карты владельца одним запросом.
+     * Доступно только администраторам.
+     *
+     * @param reqDTO    DTO со списком карт или идентификатором владельца.
+     * @param requester Пользователь, выполняющий операцию.
+     * @return DTO с количеством заблокированных карт.
+     * @throws com.example.bankcards.exception.NotFoundException если владелец не найден.
+     * @throws com.example.bankcards.exception.BadRequestException если нет прав или цель операции указана некорректно.
+     */
+    BulkCardStatusRespDTO blockCards(BulkCardStatusReqDTO reqDTO, User requester);
+
+    /**
+     * Массово активирует заблокированные карты из списка или заблокированные карты владельца одним запросом.
+     * Доступно только администраторам.
+     *
+     * @param reqDTO    DTO со списком карт или идентификатором владельца.
+     * @param requester Пользователь, выполняющий операцию.
+     * @return DTO с количеством активированных карт.
+     * @throws com.example.bankcards.exception.NotFoundException если владелец не найден.
+     * @throws com.example.bankcards.exception.BadRequestException если нет прав или цель операции указана некорректно.
+     */
+    BulkCardStatusRespDTO activateCards(BulkCardStatusReqDTO reqDTO, User requester);
+
+    /**
+     * Массово выпускает карты: по одной карте на каждый элемент {@code ownerIds}. Доступно только администраторам.
+     * <p>
+     * Все владельцы проверяются до выпуска первой карты. Карты выпускаются порциями, каждая порция
+     * сохраняется пакетной вставкой в отдельной транзакции и после фиксации передается в {@code sink},
+     * поэтому результат можно отдавать клиенту потоком.
+     * </p>
+     *
+     * @param reqDTO    DTO со списком владельцев.
+     * @param requester Пользователь, выполняющий операцию.
+     * @param sink      Получатель выпущенных карт, вызывается для каждой зафиксированной порции.
+     * @return Общее количество выпущенных карт.
+     * @throws com.example.bankcards.exception.NotFoundException если хотя бы один владелец не найден.
+     * @throws com.example.bankcards.exception.BadRequestException если у пользователя нет прав.
+     */
+    int issueCards(BulkIssueCardsReqDTO reqDTO, User requester, Consumer<List<CardRespDTO>> sink);
 }
@@ -0,0 +1,34 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.exception.TooManyRequestsException;
+
+/**
+ * Сервис ограничения частоты неудачных попыток входа по email и по IP-адресу клиента.
+ */
+public interface LoginAttemptService {
+
+    /**
+     * Проверяет, разрешена ли попытка входа. Вызывается до проверки пароля,
+     * чтобы перебор не расходовал время bcrypt.
+     *
+     * @param email    Email, под которым выполняется вход.
+     * @param clientIp IP-адрес клиента.
+     * @throws TooManyRequestsException если по email или IP превышен лимит неудачных попыток.
+     */
+    void checkAllowed(String email, String clientIp);
+
+    /**
+     * Учитывает неудачную попытку входа.
+     *
+     * @param email    Email, под которым выполнялся вход.
+     * @param clientIp IP-адрес клиента.
+     */
+    void recordFailure(String email, String clientIp);
+
+    /**
+     * Сбрасывает счетчик неудачных попыток по email после успешного входа.
+     *
+     * @param email Email пользователя.
+     */
+    void recordSuccess(String email);
+}
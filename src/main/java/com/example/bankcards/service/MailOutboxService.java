@@ -0,0 +1,20 @@
+package com.example.bankcards.service;
+
+/**
+ * Сервис отправки писем из очереди исходящих писем.
+ * <p>
+ * Письма ставятся в очередь {@link MailService} в транзакции бизнес-операции, а этот сервис
+ * периодически отправляет их с повторными попытками при ошибках почтового сервера.
+ * </p>
+ */
+public interface MailOutboxService {
+
+    /**
+     * Отправляет письма, время отправки которых наступило. Неудачные попытки планируются повторно
+     * с экспоненциальной задержкой; после исчерпания попыток письмо помечается как FAILED.
+     * Письма SENT и FAILED удаляются по истечении срока хранения.
+     *
+     * @return Количество успешно отправленных писем.
+     */
+    int dispatchPending();
+}
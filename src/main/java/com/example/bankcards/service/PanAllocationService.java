@@ -0,0 +1,31 @@
+package com.example.bankcards.service;
+
+import java.util.List;
+
+/**
+ * Сервис выдачи уникальных номеров карт (PAN).
+ * <p>
+ * Номера строятся из настроенных BIN, порядкового номера счета и контрольной цифры Луна.
+ * Порядковые номера резервируются в базе данных блоками, поэтому выдача номера
+ * обычно не требует обращения к базе, а номера разных узлов не пересекаются.
+ * </p>
+ */
+public interface PanAllocationService {
+
+    /**
+     * Выдает следующий уникальный номер карты.
+     *
+     * @return 16-значный номер карты, соответствующий алгоритму Луна.
+     * @throws IllegalStateException если все настроенные диапазоны BIN исчерпаны.
+     */
+    String nextPan();
+
+    /**
+     * Выдает несколько уникальных номеров карт за один вызов.
+     *
+     * @param count Количество номеров.
+     * @return Список 16-значных номеров карт.
+     * @throws IllegalStateException если все настроенные диапазоны BIN исчерпаны.
+     */
+    List<String> nextPans(int count);
+}
@@ -0,0 +1,41 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.exception.TooManyRequestsException;
+
+/**
+ * Сервис хеширования и проверки паролей на выделенном ограниченном пуле потоков.
+ * <p>
+ * Bcrypt намеренно медленный, поэтому вызовы не выполняются в потоке запроса без ограничений:
+ * при переполнении очереди запрос сразу отклоняется с {@link TooManyRequestsException} (HTTP 429).
+ * </p>
+ */
+public interface PasswordHashingService {
+
+    /**
+     * Проверяет пароль по хешу.
+     *
+     * @param rawPassword     Введенный пароль.
+     * @param encodedPassword Хеш пароля из БД.
+     * @return {@code true}, если пароль совпадает.
+     * @throws TooManyRequestsException если очередь проверок переполнена или ожидание превысило лимит.
+     */
+    boolean matches(CharSequence rawPassword, String encodedPassword);
+
+    /**
+     * Хеширует пароль.
+     *
+     * @param rawPassword Пароль.
+     * @return Хеш пароля.
+     * @throws TooManyRequestsException если очередь переполнена или ожидание превысило лимит.
+     */
+    String encode(CharSequence rawPassword);
+
+    /**
+     * Проверяет, нужно ли пересчитать хеш под текущие параметры (алгоритм или стоимость изменились).
+     * Не обращается к пулу: разбирается только префикс и заголовок хеша.
+     *
+     * @param encodedPassword Хеш пароля из БД.
+     * @return {@code true}, если хеш создан с устаревшими параметрами.
+     */
+    boolean upgradeEncoding(String encodedPassword);
+}
@@ -1,6 +1,7 @@
 package com.example.bankcards.service.impl;
 
 import com.example.bankcards.exception.AuthorizeException;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.transaction.Transactional;
@@ -8,7 +9,6 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import com.example.bankcards.dto.request.RegisterReqDTO;
 import com.example.bankcards.dto.request.UserAuthorizeReqDTO;
@@ -16,12 +16,15 @@ import com.example.bankcards.dto.response.TokenRespDTO;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.exception.BadRequestException;
 import com.example.bankcards.exception.NotFoundException;
+import com.example.bankcards.exception.TooManyRequestsException;
 import com.example.bankcards.exception.errors.AuthorizedError;
 import com.example.bankcards.exception.errors.BadRequestError;
 import com.example.bankcards.exception.errors.NotFoundError;
 import com.example.bankcards.security.jwt.JwtUtils;
 import com.example.bankcards.repository.UserRepository;
 import com.example.bankcards.service.AuthorizeService;
+import com.example.bankcards.service.LoginAttemptService;
+import com.example.bankcards.service.PasswordHashingService;
 
 import java.util.Optional;
 
@@ -39,33 +42,45 @@ import static net.logstash.logback.argument.StructuredArguments.kv;
 @Slf4j
 public class AuthorizeServiceImpl implements AuthorizeService {
 
+    private static final String LOGINS = "auth.logins";
+    private static final String REHASHED = "auth.password.rehashed";
+
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
+    private final LoginAttemptService loginAttemptService;
     private final MailServiceImpl mailService;
     private final SessionServiceImpl sessionService;
     private final JwtUtils jwtUtils;
     private final CookieServiceImpl cookieService;
+    private final MeterRegistry meterRegistry;
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public ResponseEntity<TokenRespDTO> authorizeUser(UserAuthorizeReqDTO userAuthorizeDTO, HttpServletResponse response) {
+    public ResponseEntity<TokenRespDTO> authorizeUser(UserAuthorizeReqDTO userAuthorizeDTO, HttpServletRequest request,
+                                                      HttpServletResponse response) {
         String userEmail = userAuthorizeDTO.getEmail();
         String userPassword = userAuthorizeDTO.getPassword();
+        String clientIp = request.getRemoteAddr();
         log.debug("Попытка авторизации", kv("email", userEmail));
+        loginAttemptService.checkAllowed(userEmail, clientIp);
         Optional<User> userOptional = userRepository.findByEmail(userEmail);
 
         if (userOptional.isEmpty()) {
             log.warn("Авторизация не удалась: пользователь не найден", kv("email", userEmail));
-            throw new AuthorizeException(AuthorizedError.USER_WITH_THIS_EMAIL_NOT_FOUND);
+            loginAttemptService.recordFailure(userEmail, clientIp);
+            throw loginFailed(AuthorizedError.USER_WITH_THIS_EMAIL_NOT_FOUND);
         }
         User user = userOptional.get();
-        if (!passwordEncoder.matches(userPassword, user.getPassword())) {
+        if (!passwordHashingService.matches(userPassword, user.getPassword())) {
             log.warn("Авторизация не удалась: неверный пароль", kv("email", userEmail));
-            throw new AuthorizeException(AuthorizedError.NOT_CORRECT_PASSWORD);
+            loginAttemptService.recordFailure(userEmail, clientIp);
+            throw loginFailed(AuthorizedError.NOT_CORRECT_PASSWORD);
         }
+        loginAttemptService.recordSuccess(userEmail);
         checkUserCanAuthorize(user);
+        rehashIfNeeded(user, userPassword);
 
         user.setRefreshToken(jwtUtils.generateRandomSequence());
         String jwtToken = jwtUtils.generateToken(user);
@@ -79,6 +94,7 @@ public class AuthorizeServiceImpl implements AuthorizeService {
         sessionService.saveNewSession(user.getId());
         cookieService.addAuthCookies(response, jwtToken, refreshToken);
 
+        meterRegistry.counter(LOGINS, "outcome", "success", "reason", "NONE").increment();
         log.info("Авторизация успешна", kv("email", userEmail), kv("userId", user.getId()));
         return ResponseEntity.ok(tokenDTO);
     }
@@ -98,7 +114,7 @@ public class AuthorizeServiceImpl implements AuthorizeService {
         user.setEmail(registerDTO.getEmail());
         user.setFirstName(registerDTO.getFirstName());
         user.setLastName(registerDTO.getLastName());
-        user.setPassword(passwordEncoder.encode(registerDTO.getPassword()));
+        user.setPassword(passwordHashingService.encode(registerDTO.getPassword()));
         user.setIsEmailVerificated(Boolean.FALSE);
         user.setToken(generateValidatingToken());
         userRepository.save(user);
@@ -157,8 +173,40 @@ public class AuthorizeServiceImpl implements AuthorizeService {
      */
     private void checkUserCanAuthorize(User user) {
         if (!user.getIsEmailVerificated()) {
-            throw new AuthorizeException(AuthorizedError.USER_NOT_VERIFY);
+            throw loginFailed(AuthorizedError.USER_NOT_VERIFY);
+        }
+    }
+
+    /**
+     * Пересчитывает хеш пароля, если он создан с устаревшими алгоритмом или стоимостью.
+     * Новый хеш сохраняется вместе с рефреш-токеном. Если пул bcrypt перегружен, пересчет
+     * откладывается до следующего входа, а вход не прерывается.
+     *
+     * @param user        Пользователь после успешной проверки пароля.
+     * @param rawPassword Введенный пароль.
+     */
+    private void rehashIfNeeded(User user, String rawPassword) {
+        if (!passwordHashingService.upgradeEncoding(user.getPassword())) {
+            return;
         }
+        try {
+            user.setPassword(passwordHashingService.encode(rawPassword));
+            meterRegistry.counter(REHASHED).increment();
+            log.info("Хеш пароля обновлен под текущие параметры", kv("userId", user.getId()));
+        } catch (TooManyRequestsException e) {
+            log.debug("Обновление хеша пароля отложено: пул bcrypt перегружен", kv("userId", user.getId()));
+        }
+    }
+
+    /**
+     * Учитывает неудачную попытку авторизации в метриках и создает исключение для нее.
+     *
+     * @param error Причина отказа.
+     * @return Исключение авторизации.
+     */
+    private AuthorizeException loginFailed(AuthorizedError error) {
+        meterRegistry.counter(LOGINS, "outcome", "failure", "reason", error.name()).increment();
+        return new AuthorizeException(error);
     }
 
     /**
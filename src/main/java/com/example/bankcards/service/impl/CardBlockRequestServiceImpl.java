@@ -1,9 +1,14 @@
 package com.example.bankcards.service.impl;
 
+import com.example.bankcards.cache.CardBalanceCache;
+import com.example.bankcards.dto.response.BlockRequestDecisionResultRespDTO;
 import com.example.bankcards.dto.response.CardBlockRequestRespDTO;
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.CardBlockRequest;
+import com.example.bankcards.entity.CardStatus;
 import com.example.bankcards.entity.User;
+import com.example.bankcards.event.CardEvent;
+import com.example.bankcards.event.CardEventType;
 import com.example.bankcards.exception.BadRequestException;
 import com.example.bankcards.exception.NotFoundException;
 import com.example.bankcards.exception.errors.BadRequestError;
@@ -11,27 +16,71 @@ import com.example.bankcards.exception.errors.NotFoundError;
 import com.example.bankcards.repository.CardBlockRequestRepository;
 import com.example.bankcards.repository.CardRepository;
 import com.example.bankcards.service.CardBlockRequestService;
+import com.example.bankcards.service.CardEventService;
 import com.example.bankcards.service.CardService;
 import com.example.bankcards.util.CardEncryptor;
-import lombok.RequiredArgsConstructor;
+import com.example.bankcards.util.CardMasks;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
  * Реализация сервиса для управления запросами на блокировку карт.
  */
 @Service
-@RequiredArgsConstructor
 public class CardBlockRequestServiceImpl implements CardBlockRequestService {
 
+    private static final String BLOCK_REQUESTS_CREATED = "block.requests.created";
+    private static final String BLOCK_REQUESTS_DECIDED = "block.requests.decided";
+    private static final String BLOCK_REQUESTS_PENDING = "block.requests.pending.duration";
+
     private final CardBlockRequestRepository blockRequestRepository;
     private final CardRepository cardRepository;
     private final CardService cardService;
     private final CardEncryptor cardEncryptor;
+    private final MeterRegistry meterRegistry;
+    private final CardBalanceCache cardBalanceCache;
+    private final CardEventService cardEventService;
+    private final Map<CardBlockRequest.Status, Timer> pendingTimers = new EnumMap<>(CardBlockRequest.Status.class);
+
+    public CardBlockRequestServiceImpl(CardBlockRequestRepository blockRequestRepository,
+                                       CardRepository cardRepository,
+                                       CardService cardService,
+                                       CardEncryptor cardEncryptor,
+                                       MeterRegistry meterRegistry,
+                                       CardBalanceCache cardBalanceCache,
+                                       CardEventService cardEventService) {
+        this.blockRequestRepository = blockRequestRepository;
+        this.cardRepository = cardRepository;
+        this.cardService = cardService;
+        this.cardEncryptor = cardEncryptor;
+        this.meterRegistry = meterRegistry;
+        this.cardBalanceCache = cardBalanceCache;
+        this.cardEventService = cardEventService;
+        for (CardBlockRequest.Status decision : List.of(CardBlockRequest.Status.APPROVED, CardBlockRequest.Status.REJECTED)) {
+            pendingTimers.put(decision, Timer.builder(BLOCK_REQUESTS_PENDING)
+                    .description("Время ожидания запроса на блокировку до решения администратора")
+                    .tag("decision", decision.name())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
 
     /**
      * {@inheritDoc}
@@ -45,9 +94,7 @@ public class CardBlockRequestServiceImpl implements CardBlockRequestService {
             throw new BadRequestException(BadRequestError.NO_ACCESS);
         }
 
-        boolean alreadyRequested = blockRequestRepository.findByUser(user).stream()
-                .anyMatch(r -> r.getCard().equals(card) && r.getStatus() == CardBlockRequest.Status.PENDING);
-        if (alreadyRequested) {
+        if (blockRequestRepository.existsByCardAndStatus(card, CardBlockRequest.Status.PENDING)) {
             throw new BadRequestException(BadRequestError.BLOCK_REQUEST_ALREADY_EXISTS);
         }
         CardBlockRequest request = new CardBlockRequest();
@@ -55,7 +102,14 @@ public class CardBlockRequestServiceImpl implements CardBlockRequestService {
         request.setUser(user);
         request.setStatus(CardBlockRequest.Status.PENDING);
         request.setCreatedAt(LocalDateTime.now());
-        blockRequestRepository.save(request);
+        try {
+            // Параллельный запрос мог успеть создать PENDING-запрос после проверки выше:
+            // уникальный частичный индекс отклонит вставку
+            blockRequestRepository.saveAndFlush(request);
+        } catch (DataIntegrityViolationException e) {
+            throw new BadRequestException(BadRequestError.BLOCK_REQUEST_ALREADY_EXISTS);
+        }
+        meterRegistry.counter(BLOCK_REQUESTS_CREATED).increment();
         return toDto(request);
     }
 
@@ -79,6 +133,17 @@ public class CardBlockRequestServiceImpl implements CardBlockRequestService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Page<CardBlockRequestRespDTO> getBlockRequestQueue(CardBlockRequest.Status status, LocalDateTime from,
+                                                              LocalDateTime to, Pageable pageable) {
+        return blockRequestRepository.findQueue(status, from, to, pageable)
+                .map(this::toDto);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -101,6 +166,7 @@ public class CardBlockRequestServiceImpl implements CardBlockRequestService {
         blockRequestRepository.save(request);
 
         cardService.blockCard(request.getCard().getId(), admin);
+        recordDecisions(CardBlockRequest.Status.APPROVED, "single", List.of(request), request.getProcessedAt());
         return toDto(request);
     }
 
@@ -123,9 +189,121 @@ public class CardBlockRequestServiceImpl implements CardBlockRequestService {
         request.setAdminComment(comment);
         request.setAdmin(admin);
         blockRequestRepository.save(request);
+        recordDecisions(CardBlockRequest.Status.REJECTED, "single", List.of(request), request.getProcessedAt());
         return toDto(request);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional
+    public List<BlockRequestDecisionResultRespDTO> approveBlockRequests(List<Long> requestIds, User admin, String comment) {
+        return decideBlockRequests(requestIds, admin, comment, CardBlockRequest.Status.APPROVED);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional
+    public List<BlockRequestDecisionResultRespDTO> rejectBlockRequests(List<Long> requestIds, User admin, String comment) {
+        return decideBlockRequests(requestIds, admin, comment, CardBlockRequest.Status.REJECTED);
+    }
+
+    /**
+     * Общая логика массовой обработки запросов на блокировку.
+     * <p>
+     * Запросы загружаются и блокируются одним запросом вместе с картами. Ожидающие обработки
+     * переводятся в итоговый статус одним {@code UPDATE}; при одобрении соответствующие карты
+     * блокируются также одним {@code UPDATE}.
+     * </p>
+     *
+     * @param requestIds ID запросов.
+     * @param admin      Администратор, выполняющий операцию.
+     * @param comment    Комментарий администратора.
+     * @param decision   Итоговый статус (APPROVED или REJECTED).
+     * @return Результаты обработки по каждому уникальному ID в порядке их передачи.
+     */
+    private List<BlockRequestDecisionResultRespDTO> decideBlockRequests(List<Long> requestIds, User admin, String comment,
+                                                                        CardBlockRequest.Status decision) {
+        if (admin.getRoles().stream().noneMatch(r -> r.name().equals("ADMIN"))) {
+            throw new BadRequestException(BadRequestError.NO_ACCESS);
+        }
+        Set<Long> ids = new LinkedHashSet<>(requestIds);
+        Map<Long, CardBlockRequest> requests = blockRequestRepository.findAllWithCardByIdIn(ids).stream()
+                .collect(Collectors.toMap(CardBlockRequest::getId, Function.identity()));
+
+        List<BlockRequestDecisionResultRespDTO> results = new ArrayList<>(ids.size());
+        List<CardBlockRequest> pending = new ArrayList<>();
+        List<Long> pendingIds = new ArrayList<>();
+        Set<Long> cardIds = new LinkedHashSet<>();
+        for (Long id : ids) {
+            CardBlockRequest request = requests.get(id);
+            if (request == null) {
+                results.add(new BlockRequestDecisionResultRespDTO(id, false, null,
+                        NotFoundError.BLOCK_REQUEST_NOT_FOUND.name()));
+            } else if (request.getStatus() != CardBlockRequest.Status.PENDING) {
+                results.add(new BlockRequestDecisionResultRespDTO(id, false, request.getStatus(),
+                        BadRequestError.BLOCK_REQUEST_ALREADY_PROCESSED.name()));
+            } else {
+                results.add(new BlockRequestDecisionResultRespDTO(id, true, decision, null));
+                pending.add(request);
+                pendingIds.add(id);
+                cardIds.add(request.getCard().getId());
+            }
+        }
+
+        if (!pendingIds.isEmpty()) {
+            LocalDateTime processedAt = LocalDateTime.now();
+            blockRequestRepository.updatePendingStatusByIdIn(pendingIds, decision, admin, comment, processedAt);
+            if (decision == CardBlockRequest.Status.APPROVED) {
+                cardRepository.updateStatusByIdIn(cardIds, CardStatus.BLOCKED);
+                cardBalanceCache.evict(cardIds);
+                publishBlocked(pending, processedAt);
+            }
+            recordDecisions(decision, "bulk", pending, processedAt);
+        }
+        return results;
+    }
+
+    /**
+     * Публикует владельцам события о блокировке карт по одобренным запросам (по одному на карту).
+     *
+     * @param approved    Одобренные запросы с загруженными картами.
+     * @param processedAt Время обработки.
+     */
+    private void publishBlocked(List<CardBlockRequest> approved, LocalDateTime processedAt) {
+        Set<Long> published = new HashSet<>();
+        for (CardBlockRequest request : approved) {
+            Card card = request.getCard();
+            if (published.add(card.getId())) {
+                cardEventService.publish(new CardEvent(card.getOwner().getId(), card.getId(),
+                        CardEventType.STATUS_CHANGED, card.getBalance(), CardStatus.BLOCKED, processedAt));
+            }
+        }
+    }
+
+    /**
+     * Учитывает обработанные запросы в метриках: количество решений и время ожидания в очереди.
+     *
+     * @param decision    Итоговый статус.
+     * @param mode        Способ обработки: {@code single} или {@code bulk}.
+     * @param requests    Обработанные запросы.
+     * @param processedAt Время обработки.
+     */
+    private void recordDecisions(CardBlockRequest.Status decision, String mode, List<CardBlockRequest> requests,
+                                 LocalDateTime processedAt) {
+        meterRegistry.counter(BLOCK_REQUESTS_DECIDED, "decision", decision.name(), "mode", mode)
+                .increment(requests.size());
+        Timer pendingTimer = pendingTimers.get(decision);
+        for (CardBlockRequest request : requests) {
+            if (request.getCreatedAt() != null) {
+                pendingTimer.record(Duration.between(request.getCreatedAt(), processedAt));
+            }
+        }
+    }
+
     /**
      * Конвертирует сущность CardBlockRequest в DTO.
      *
@@ -136,7 +314,7 @@ public class CardBlockRequestServiceImpl implements CardBlockRequestService {
         CardBlockRequestRespDTO dto = new CardBlockRequestRespDTO();
         dto.setId(request.getId());
         dto.setCardId(request.getCard().getId());
-        dto.setCardMaskedNumber(maskCardNumber(decryptCardNumber(request.getCard().getCardNumber())));
+        dto.setCardMaskedNumber(CardMasks.mask(request.getCard(), cardEncryptor));
         dto.setUserId(request.getUser().getId());
         dto.setUserEmail(request.getUser().getEmail());
         dto.setStatus(request.getStatus());
@@ -147,26 +325,4 @@ public class CardBlockRequestServiceImpl implements CardBlockRequestService {
         dto.setAdminEmail(request.getAdmin() != null ? request.getAdmin().getEmail() : null);
         return dto;
     }
-
-    /**
-     * Маскирует номер карты.
-     *
-     * @param cardNumber Расшифрованный номер карты.
-     * @return Маскированный номер.
-     */
-    private String maskCardNumber(String cardNumber) {
-        if (cardNumber == null || cardNumber.length() < 4) return "****";
-        String last4 = cardNumber.substring(cardNumber.length() - 4);
-        return "**** **** **** " + last4;
-    }
-
-    /**
-     * Расшифровывает номер карты.
-     *
-     * @param encryptedCardNumber Зашифрованный номер.
-     * @return Расшифрованный номер.
-     */
-    private String decryptCardNumber(String encryptedCardNumber) {
-        return cardEncryptor.decrypt(encryptedCardNumber);
-    }
 }
@@ -0,0 +1,240 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.event.CardEvent;
+import com.example.bankcards.service.CardEventService;
+import com.example.bankcards.util.AfterCommit;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Реализация шины событий карт на асинхронных ответах сервлета.
+ * <p>
+ * Открытое соединение не занимает поток: {@link SseEmitter} держит асинхронный контекст запроса,
+ * а события записываются задачами пула {@code cardEventDispatchExecutor}. Публикация только кладет
+ * событие в буфер подписчика ({@code card.events.buffer-size}) и не ждет сети. Если буфер переполнен,
+ * подписчик отключается. Тело события сериализуется в JSON один раз для всех подписчиков.
+ * </p>
+ */
+@Service
+@Slf4j
+public class CardEventServiceImpl implements CardEventService {
+
+    private static final String EVENTS = "card.events";
+    private static final Message HEARTBEAT = new Message(null, null);
+
+    private final ObjectMapper objectMapper;
+    private final Executor dispatchExecutor;
+    private final long timeoutMillis;
+    private final int bufferSize;
+    private final int maxSubscriptionsPerUser;
+    private final Counter published;
+    private final Counter delivered;
+    private final Counter evicted;
+
+    private final Map<Long, List<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    public CardEventServiceImpl(ObjectMapper objectMapper,
+                                @Qualifier("cardEventDispatchExecutor") Executor dispatchExecutor,
+                                MeterRegistry meterRegistry,
+                                @Value("${card.events.timeout-ms:1800000}") long timeoutMillis,
+                                @Value("${card.events.buffer-size:32}") int bufferSize,
+                                @Value("${card.events.max-subscriptions-per-user:5}") int maxSubscriptionsPerUser) {
+        this.objectMapper = objectMapper;
+        this.dispatchExecutor = dispatchExecutor;
+        this.timeoutMillis = timeoutMillis;
+        this.bufferSize = bufferSize;
+        this.maxSubscriptionsPerUser = maxSubscriptionsPerUser;
+        this.published = meterRegistry.counter(EVENTS + ".published");
+        this.delivered = meterRegistry.counter(EVENTS + ".delivered");
+        this.evicted = meterRegistry.counter(EVENTS + ".evicted");
+        Gauge.builder(EVENTS + ".subscribers", this, CardEventServiceImpl::subscriberCount)
+                .description("Открытые SSE-подписки на события карт")
+                .register(meterRegistry);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(userId, emitter, new ArrayBlockingQueue<>(bufferSize));
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> remove(subscriber));
+
+        List<Subscriber> displaced = new ArrayList<>();
+        subscribers.compute(userId, (id, list) -> {
+            List<Subscriber> updated = list != null ? list : new CopyOnWriteArrayList<>();
+            updated.add(subscriber);
+            // Старые подписки (например, из закрытых вкладок) уступают место новым
+            while (updated.size() > maxSubscriptionsPerUser) {
+                displaced.add(updated.remove(0));
+            }
+            return updated;
+        });
+        displaced.forEach(this::close);
+        log.debug("Открыта подписка на события карт", kv("userId", userId));
+        return emitter;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void publish(CardEvent event) {
+        AfterCommit.run(() -> dispatch(event));
+    }
+
+    /**
+     * Отправляет подписчикам комментарий-пульс: соединение не закрывается прокси по простою,
+     * а отключившиеся клиенты обнаруживаются ошибкой записи.
+     */
+    @Scheduled(fixedDelayString = "${card.events.heartbeat-interval-ms:25000}")
+    public void heartbeat() {
+        subscribers.values().forEach(list -> list.forEach(subscriber -> enqueue(subscriber, HEARTBEAT)));
+    }
+
+    private void dispatch(CardEvent event) {
+        published.increment();
+        List<Subscriber> targets = subscribers.get(event.ownerId());
+        if (targets == null) {
+            return;
+        }
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            log.warn("Не удалось сериализовать событие карты", kv("cardId", event.cardId()), e);
+            return;
+        }
+        Message message = new Message(event.type().name(), data);
+        targets.forEach(subscriber -> enqueue(subscriber, message));
+    }
+
+    private void enqueue(Subscriber subscriber, Message message) {
+        if (!subscriber.buffer().offer(message)) {
+            evicted.increment();
+            log.info("Подписчик не успевает читать события карт и отключен", kv("userId", subscriber.userId()));
+            close(subscriber);
+            return;
+        }
+        schedule(subscriber);
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (!subscriber.draining().compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            dispatchExecutor.execute(() -> drain(subscriber));
+        } catch (RejectedExecutionException e) {
+            subscriber.draining().set(false);
+            close(subscriber);
+        }
+    }
+
+    /**
+     * Записывает накопленные события подписчика. Для каждого подписчика одновременно выполняется
+     * не больше одной такой задачи, поэтому порядок событий сохраняется.
+     */
+    private void drain(Subscriber subscriber) {
+        try {
+            Message message;
+            while ((message = subscriber.buffer().poll()) != null) {
+                subscriber.emitter().send(message.toSseEvent());
+                if (message != HEARTBEAT) {
+                    delivered.increment();
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Клиент отключился или эмиттер уже завершен; контейнер сам завершит асинхронный запрос
+            remove(subscriber);
+            subscriber.buffer().clear();
+            return;
+        }
+        subscriber.draining().set(false);
+        // Событие могло попасть в буфер после последнего poll, но до сброса флага
+        if (!subscriber.buffer().isEmpty()) {
+            schedule(subscriber);
+        }
+    }
+
+    /**
+     * Удаляет подписчика и завершает его поток. Завершение выполняется в пуле рассылки:
+     * эмиттер может быть занят записью медленному клиенту, и публикующий поток не должен его ждать.
+     */
+    private void close(Subscriber subscriber) {
+        remove(subscriber);
+        subscriber.buffer().clear();
+        try {
+            dispatchExecutor.execute(subscriber.emitter()::complete);
+        } catch (RejectedExecutionException e) {
+            subscriber.emitter().complete();
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.userId(), (id, list) -> {
+            list.remove(subscriber);
+            return list.isEmpty() ? null : list;
+        });
+    }
+
+    private double subscriberCount() {
+        int count = 0;
+        for (List<Subscriber> list : subscribers.values()) {
+            count += list.size();
+        }
+        return count;
+    }
+
+    /**
+     * Подписка: эмиттер, ограниченный буфер событий и признак запланированной записи.
+     */
+    private record Subscriber(Long userId, SseEmitter emitter, BlockingQueue<Message> buffer, AtomicBoolean draining) {
+
+        Subscriber(Long userId, SseEmitter emitter, BlockingQueue<Message> buffer) {
+            this(userId, emitter, buffer, new AtomicBoolean());
+        }
+    }
+
+    /**
+     * Событие, готовое к записи; без имени — комментарий-пульс.
+     *
+     * @param name Имя события SSE (тип изменения).
+     * @param data Тело события в JSON.
+     */
+    private record Message(String name, String data) {
+
+        SseEmitter.SseEventBuilder toSseEvent() {
+            if (name == null) {
+                return SseEmitter.event().comment("heartbeat");
+            }
+            return SseEmitter.event().name(name).data(data);
+        }
+    }
+}
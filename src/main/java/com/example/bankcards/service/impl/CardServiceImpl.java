@@ -1,30 +1,58 @@
 package com.example.bankcards.service.impl;
 
+import com.example.bankcards.cache.CardBalanceCache;
+import com.example.bankcards.cache.CardBalanceSnapshot;
+import com.example.bankcards.dto.request.BulkCardStatusReqDTO;
+import com.example.bankcards.dto.request.BulkIssueCardsReqDTO;
 import com.example.bankcards.dto.request.CreateCardReqDTO;
 import com.example.bankcards.dto.request.TransferReqDTO;
+import com.example.bankcards.dto.response.BulkCardStatusRespDTO;
 import com.example.bankcards.dto.response.CardBalanceRespDTO;
 import com.example.bankcards.dto.response.CardRespDTO;
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.CardStatus;
 import com.example.bankcards.entity.User;
+import com.example.bankcards.event.CardEvent;
+import com.example.bankcards.event.CardEventType;
 import com.example.bankcards.exception.BadRequestException;
 import com.example.bankcards.exception.NotFoundException;
 import com.example.bankcards.exception.errors.BadRequestError;
 import com.example.bankcards.exception.errors.NotFoundError;
 import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.CardStateView;
+import com.example.bankcards.repository.OwnerCardsVersionView;
 import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.service.CardEventService;
 import com.example.bankcards.service.CardService;
+import com.example.bankcards.service.PanAllocationService;
+import com.example.bankcards.util.AfterCommit;
 import com.example.bankcards.util.CardEncryptor;
-import lombok.RequiredArgsConstructor;
+import com.example.bankcards.util.CardMasks;
+import com.example.bankcards.util.ETags;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import static net.logstash.logback.argument.StructuredArguments.kv;
@@ -34,17 +62,61 @@ import static net.logstash.logback.argument.StructuredArguments.kv;
  * Включает в себя создание, блокировку, активацию, удаление карт, а также операции с балансом и переводы.
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class CardServiceImpl implements CardService {
 
+    /**
+     * Максимальное количество параметров в одном {@code IN}-запросе при загрузке владельцев.
+     */
+    private static final int OWNER_LOOKUP_BATCH_SIZE = 1000;
+
+    /**
+     * Количество попыток сохранить порцию карт, если параллельный выпуск занял тот же номер.
+     */
+    private static final int ISSUE_CHUNK_ATTEMPTS = 3;
+
+    private static final String TRANSFERS = "transfers";
+    private static final String TRANSFER_AMOUNT = "transfers.amount";
+
     @Value("${card.expiration-years}")
     private int cardExpirationYears;
 
+    @Value("${card.issue.chunk-size:500}")
+    private int issueChunkSize;
+
     private final CardRepository cardRepository;
     private final CardEncryptor cardEncryptor;
     private final UserRepository userRepository;
-    private final java.security.SecureRandom secureRandom = new java.security.SecureRandom();
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final CardBalanceCache cardBalanceCache;
+    private final PanAllocationService panAllocationService;
+    private final CardEventService cardEventService;
+    private final Counter transfersSucceeded;
+    private final DistributionSummary transferAmounts;
+
+    public CardServiceImpl(CardRepository cardRepository,
+                           CardEncryptor cardEncryptor,
+                           UserRepository userRepository,
+                           TransactionTemplate transactionTemplate,
+                           MeterRegistry meterRegistry,
+                           CardBalanceCache cardBalanceCache,
+                           PanAllocationService panAllocationService,
+                           CardEventService cardEventService) {
+        this.cardRepository = cardRepository;
+        this.cardEncryptor = cardEncryptor;
+        this.userRepository = userRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.cardBalanceCache = cardBalanceCache;
+        this.panAllocationService = panAllocationService;
+        this.cardEventService = cardEventService;
+        this.transfersSucceeded = meterRegistry.counter(TRANSFERS, "outcome", "success", "reason", "NONE");
+        this.transferAmounts = DistributionSummary.builder(TRANSFER_AMOUNT)
+                .description("Суммы успешных переводов между картами")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
 
     /**
      * {@inheritDoc}
@@ -61,8 +133,10 @@ public class CardServiceImpl implements CardService {
 
         Card card = new Card();
         card.setOwner(owner);
-        String cardNumber = generateCardNumber();
+        String cardNumber = panAllocationService.nextPan();
         card.setCardNumber(encryptCardNumber(cardNumber));
+        card.setLastFour(CardMasks.lastFour(cardNumber));
+        card.setPanHash(cardEncryptor.blindIndex(cardNumber));
         card.setExpireDate(java.time.LocalDate.now().plusYears(cardExpirationYears));
         card.setStatus(CardStatus.ACTIVE);
         card.setBalance(java.math.BigDecimal.ZERO);
@@ -84,6 +158,8 @@ public class CardServiceImpl implements CardService {
         }
         card.setStatus(CardStatus.BLOCKED);
         cardRepository.save(card);
+        cardBalanceCache.evict(List.of(cardId));
+        cardEventService.publish(CardEvent.of(CardEventType.STATUS_CHANGED, card));
         log.info("Карта заблокирована", kv("cardId", cardId), kv("requester", requester.getEmail()));
     }
 
@@ -100,6 +176,8 @@ public class CardServiceImpl implements CardService {
         }
         card.setStatus(CardStatus.ACTIVE);
         cardRepository.save(card);
+        cardBalanceCache.evict(List.of(cardId));
+        cardEventService.publish(CardEvent.of(CardEventType.STATUS_CHANGED, card));
         log.info("Карта активирована", kv("cardId", cardId), kv("requester", requester.getEmail()));
     }
 
@@ -115,6 +193,7 @@ public class CardServiceImpl implements CardService {
             throw new BadRequestException(BadRequestError.NO_ACCESS);
         }
         cardRepository.delete(card);
+        cardBalanceCache.evict(List.of(cardId));
         log.info("Карта удалена", kv("cardId", cardId), kv("requester", requester.getEmail()));
     }
 
@@ -128,6 +207,8 @@ public class CardServiceImpl implements CardService {
             if (card.getStatus() != CardStatus.EXPIRED) {
                 card.setStatus(CardStatus.EXPIRED);
                 cardRepository.save(card);
+                cardBalanceCache.evict(List.of(card.getId()));
+                cardEventService.publish(CardEvent.of(CardEventType.STATUS_CHANGED, card));
             }
         }
     }
@@ -168,6 +249,29 @@ public class CardServiceImpl implements CardService {
     @Override
     @Transactional
     public void transferBetweenCards(TransferReqDTO transferReqDTO, User requester) {
+        try {
+            executeTransfer(transferReqDTO, requester);
+        } catch (BadRequestException | NotFoundException e) {
+            meterRegistry.counter(TRANSFERS, "outcome", "rejected", "reason", e.getErrorName()).increment();
+            throw e;
+        }
+        double amount = transferReqDTO.getAmount().doubleValue();
+        AfterCommit.run(() -> {
+            transfersSucceeded.increment();
+            transferAmounts.record(amount);
+        });
+    }
+
+    /**
+     * Выполняет перевод между картами пользователя: проверяет права, статусы карт и остаток,
+     * после чего списывает и зачисляет сумму.
+     *
+     * @param transferReqDTO DTO с данными перевода.
+     * @param requester      Пользователь, выполняющий перевод.
+     * @throws NotFoundException   если карта не найдена.
+     * @throws BadRequestException если перевод отклонен.
+     */
+    private void executeTransfer(TransferReqDTO transferReqDTO, User requester) {
         log.debug("Запрос на перевод между картами",
                 kv("fromCardId", transferReqDTO.getFromCardId()),
                 kv("toCardId", transferReqDTO.getToCardId()),
@@ -206,6 +310,9 @@ public class CardServiceImpl implements CardService {
         to.setBalance(to.getBalance().add(transferReqDTO.getAmount()));
         cardRepository.save(from);
         cardRepository.save(to);
+        cardBalanceCache.evict(List.of(from.getId(), to.getId()));
+        cardEventService.publish(CardEvent.of(CardEventType.BALANCE_CHANGED, from));
+        cardEventService.publish(CardEvent.of(CardEventType.BALANCE_CHANGED, to));
         log.info("Перевод выполнен успешно",
                 kv("fromCardId", from.getId()),
                 kv("toCardId", to.getId()),
@@ -228,12 +335,72 @@ public class CardServiceImpl implements CardService {
      */
     @Override
     public CardBalanceRespDTO getCardBalance(Long cardId, User requester) {
+        CardBalanceSnapshot cached = cardBalanceCache.get(cardId);
+        if (cached != null && !cached.isStatusOutdated(LocalDate.now())) {
+            if (!isAdmin(requester) && !cached.ownerId().equals(requester.getId())) {
+                throw new BadRequestException(BadRequestError.NO_ACCESS);
+            }
+            return toBalanceDTO(cached);
+        }
+        // Поколение берется до чтения из БД, чтобы не закешировать значение, устаревшее из-за параллельной записи
+        long generation = cardBalanceCache.generation();
         Card card = getCardEntityById(cardId, requester);
         checkAndUpdateCardStatus(card);
+        CardBalanceSnapshot snapshot = CardBalanceSnapshot.of(card);
+        cardBalanceCache.putIfCurrent(snapshot, generation);
+        return toBalanceDTO(snapshot);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getCardETag(Long cardId) {
+        return cardRepository.findVersionById(cardId)
+                .filter(view -> !view.isStatusOutdated(LocalDate.now()))
+                .map(view -> ETags.of("c", view.cardId(), view.cardVersion(), view.ownerVersion()))
+                .orElse(null);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getCardsETag(User owner) {
+        OwnerCardsVersionView view = cardRepository.findVersionsByOwnerId(owner.getId(), LocalDate.now(),
+                CardStatus.EXPIRED);
+        if (view.outdatedCount() > 0) {
+            return null;
+        }
+        return ETags.of("cs", owner.getId(), owner.getVersion(), view.count(), view.idSum(), view.versionSum());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getCardBalanceETag(Long cardId) {
+        CardBalanceSnapshot cached = cardBalanceCache.get(cardId);
+        if (cached != null && !cached.isStatusOutdated(LocalDate.now())) {
+            return ETags.of("b", cardId, cached.version());
+        }
+        return cardRepository.findVersionById(cardId)
+                .filter(view -> !view.isStatusOutdated(LocalDate.now()))
+                .map(view -> ETags.of("b", cardId, view.cardVersion()))
+                .orElse(null);
+    }
+
+    /**
+     * Конвертирует снимок баланса в CardBalanceRespDTO.
+     *
+     * @param snapshot Снимок баланса и статуса карты.
+     * @return DTO с балансом карты.
+     */
+    private CardBalanceRespDTO toBalanceDTO(CardBalanceSnapshot snapshot) {
         CardBalanceRespDTO dto = new CardBalanceRespDTO();
-        dto.setCardId(card.getId());
-        dto.setBalance(card.getBalance());
-        dto.setStatus(card.getStatus());
+        dto.setCardId(snapshot.cardId());
+        dto.setBalance(snapshot.balance());
+        dto.setStatus(snapshot.status());
         return dto;
     }
 
@@ -251,10 +418,236 @@ public class CardServiceImpl implements CardService {
 
         card.setBalance(newBalance);
         cardRepository.save(card);
+        cardBalanceCache.evict(List.of(cardId));
+        cardEventService.publish(CardEvent.of(CardEventType.BALANCE_CHANGED, card));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional
+    public BulkCardStatusRespDTO blockCards(BulkCardStatusReqDTO reqDTO, User requester) {
+        return changeCardsStatus(reqDTO, requester, CardStatus.ACTIVE, CardStatus.BLOCKED);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional
+    public BulkCardStatusRespDTO activateCards(BulkCardStatusReqDTO reqDTO, User requester) {
+        return changeCardsStatus(reqDTO, requester, CardStatus.BLOCKED, CardStatus.ACTIVE);
+    }
+
+    /**
+     * Массово переводит карты из одного статуса в другой одним {@code UPDATE}
+     * по списку идентификаторов либо по владельцу.
+     *
+     * @param reqDTO     DTO со списком карт или идентификатором владельца.
+     * @param requester  Пользователь, выполняющий операцию.
+     * @param fromStatus Статус карт, подлежащих изменению.
+     * @param toStatus   Новый статус.
+     * @return DTO с количеством измененных карт.
+     */
+    private BulkCardStatusRespDTO changeCardsStatus(BulkCardStatusReqDTO reqDTO, User requester,
+                                                    CardStatus fromStatus, CardStatus toStatus) {
+        if (requester.getRoles().stream().noneMatch(r -> r.name().equals("ADMIN"))) {
+            throw new BadRequestException(BadRequestError.NO_ACCESS);
+        }
+        boolean byCards = reqDTO.getCardIds() != null && !reqDTO.getCardIds().isEmpty();
+        boolean byOwner = reqDTO.getOwnerId() != null;
+        if (byCards == byOwner) {
+            throw new BadRequestException(BadRequestError.INVALID_BULK_TARGET);
+        }
+
+        int affected;
+        if (byCards) {
+            affected = cardRepository.updateStatusByIdInAndStatus(reqDTO.getCardIds(), fromStatus, toStatus);
+            cardBalanceCache.evict(reqDTO.getCardIds());
+            if (affected > 0) {
+                publishStatusChanged(cardRepository.findStatesByIdInAndStatus(reqDTO.getCardIds(), toStatus));
+            }
+        } else {
+            if (!userRepository.existsById(reqDTO.getOwnerId())) {
+                throw new NotFoundException(NotFoundError.USER_NOT_FOUND);
+            }
+            affected = cardRepository.updateStatusByOwnerIdAndStatus(reqDTO.getOwnerId(), fromStatus, toStatus);
+            cardBalanceCache.evictOwner(reqDTO.getOwnerId());
+            if (affected > 0) {
+                publishStatusChanged(cardRepository.findStatesByOwnerIdAndStatus(reqDTO.getOwnerId(), toStatus));
+            }
+        }
+        log.info("Массовое изменение статуса карт",
+                kv("status", toStatus),
+                kv("cardCount", byCards ? reqDTO.getCardIds().size() : null),
+                kv("ownerId", reqDTO.getOwnerId()),
+                kv("affected", affected),
+                kv("requester", requester.getEmail()));
+        return new BulkCardStatusRespDTO(toStatus, affected);
+    }
+
+    /**
+     * Публикует владельцам события об изменении статуса карт после массового {@code UPDATE}
+     * (по одному на карту; рассылаются после фиксации транзакции).
+     *
+     * @param states Состояние карт после изменения.
+     */
+    private void publishStatusChanged(List<CardStateView> states) {
+        LocalDateTime now = LocalDateTime.now();
+        for (CardStateView state : states) {
+            cardEventService.publish(new CardEvent(state.ownerId(), state.cardId(), CardEventType.STATUS_CHANGED,
+                    state.balance(), state.status(), now));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int issueCards(BulkIssueCardsReqDTO reqDTO, User requester, Consumer<List<CardRespDTO>> sink) {
+        if (requester.getRoles().stream().noneMatch(r -> r.name().equals("ADMIN"))) {
+            throw new BadRequestException(BadRequestError.NO_ACCESS);
+        }
+        List<Long> ownerIds = reqDTO.getOwnerIds();
+        Map<Long, User> owners = loadOwners(ownerIds);
+        log.info("Начат массовый выпуск карт",
+                kv("cardCount", ownerIds.size()),
+                kv("ownerCount", owners.size()),
+                kv("requester", requester.getEmail()));
+
+        long startedAt = System.nanoTime();
+        int issued = 0;
+        for (int from = 0; from < ownerIds.size(); from += issueChunkSize) {
+            List<Long> chunk = ownerIds.subList(from, Math.min(from + issueChunkSize, ownerIds.size()));
+            List<Card> cards = issueChunk(chunk, owners);
+            issued += cards.size();
+            sink.accept(cards.stream().map(this::toRespDTO).collect(Collectors.toList()));
+        }
+        double seconds = Math.max(System.nanoTime() - startedAt, 1) / 1_000_000_000.0;
+        log.info("Массовый выпуск карт завершен",
+                kv("issued", issued),
+                kv("durationMs", Math.round(seconds * 1000)),
+                kv("cardsPerSecond", Math.round(issued / seconds)),
+                kv("requester", requester.getEmail()));
+        return issued;
+    }
+
+    /**
+     * Загружает владельцев карт порциями, чтобы не превышать лимит параметров запроса.
+     *
+     * @param ownerIds Идентификаторы владельцев (могут повторяться).
+     * @return Владельцы по идентификатору.
+     * @throws NotFoundException если хотя бы один владелец не найден.
+     */
+    private Map<Long, User> loadOwners(List<Long> ownerIds) {
+        List<Long> distinctIds = List.copyOf(new LinkedHashSet<>(ownerIds));
+        Map<Long, User> owners = new HashMap<>(distinctIds.size() * 2);
+        for (int from = 0; from < distinctIds.size(); from += OWNER_LOOKUP_BATCH_SIZE) {
+            List<Long> batch = distinctIds.subList(from, Math.min(from + OWNER_LOOKUP_BATCH_SIZE, distinctIds.size()));
+            userRepository.findAllById(batch).forEach(owner -> owners.put(owner.getId(), owner));
+        }
+        if (owners.size() != distinctIds.size()) {
+            log.warn("Пользователь не найден при массовом выпуске карт",
+                    kv("missingOwnerIds", distinctIds.stream().filter(id -> !owners.containsKey(id)).limit(10).toList()));
+            throw new NotFoundException(NotFoundError.USER_NOT_FOUND);
+        }
+        return owners;
+    }
+
+    /**
+     * Выпускает порцию карт в отдельной транзакции. Номера генерируются заранее, их уникальность
+     * проверяется одним запросом по слепому индексу, а при гонке с параллельным выпуском
+     * (нарушение уникального индекса при фиксации) порция выпускается заново с новыми номерами.
+     *
+     * @param ownerIds Идентификаторы владельцев порции.
+     * @param owners   Загруженные владельцы.
+     * @return Сохраненные карты.
+     */
+    private List<Card> issueChunk(List<Long> ownerIds, Map<Long, User> owners) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                List<Card> cards = transactionTemplate.execute(status -> {
+                    List<IssuedPan> pans = allocatePans(ownerIds.size());
+                    List<Card> chunk = new ArrayList<>(ownerIds.size());
+                    for (int i = 0; i < ownerIds.size(); i++) {
+                        chunk.add(newCard(owners.get(ownerIds.get(i)), pans.get(i)));
+                    }
+                    // При последовательностях и hibernate.jdbc.batch_size вставка уходит пакетами при фиксации
+                    return cardRepository.saveAll(chunk);
+                });
+                sample.stop(meterRegistry.timer("cards.issue.chunk"));
+                meterRegistry.counter("cards.issued").increment(cards.size());
+                return cards;
+            } catch (DataIntegrityViolationException e) {
+                if (attempt == ISSUE_CHUNK_ATTEMPTS) {
+                    throw e;
+                }
+                meterRegistry.counter("cards.issue.retries").increment();
+                log.warn("Конфликт номеров при массовом выпуске, порция будет выпущена повторно", kv("attempt", attempt));
+            }
+        }
+    }
+
+    /**
+     * Получает заданное количество номеров карт. Слепой индекс и шифрование считаются параллельно.
+     * Номера уникальны по построению, но занятость дополнительно проверяется одним запросом на порцию
+     * (защита от пересечения с картами, выпущенными до появления диапазонов); совпавшие номера заменяются.
+     *
+     * @param count Требуемое количество номеров.
+     * @return Номера вместе со слепым индексом и зашифрованным значением.
+     */
+    private List<IssuedPan> allocatePans(int count) {
+        Map<String, IssuedPan> byHash = new LinkedHashMap<>(count * 2);
+        while (byHash.size() < count) {
+            List<IssuedPan> candidates = panAllocationService.nextPans(count - byHash.size())
+                    .parallelStream()
+                    .map(pan -> new IssuedPan(pan, cardEncryptor.blindIndex(pan), encryptCardNumber(pan)))
+                    .collect(Collectors.toList());
+            Set<String> taken = cardRepository.findPanHashesByPanHashIn(
+                    candidates.stream().map(IssuedPan::hash).collect(Collectors.toSet()));
+            int collisions = 0;
+            for (IssuedPan candidate : candidates) {
+                if (taken.contains(candidate.hash()) || byHash.putIfAbsent(candidate.hash(), candidate) != null) {
+                    collisions++;
+                }
+            }
+            if (collisions > 0) {
+                meterRegistry.counter("cards.issue.pan.collisions").increment(collisions);
+            }
+        }
+        return new ArrayList<>(byHash.values());
+    }
+
+    /**
+     * Создает новую активную карту с нулевым балансом.
+     *
+     * @param owner Владелец карты.
+     * @param pan   Номер карты с его слепым индексом и зашифрованным значением.
+     * @return Несохраненная сущность карты.
+     */
+    private Card newCard(User owner, IssuedPan pan) {
+        Card card = new Card();
+        card.setOwner(owner);
+        card.setCardNumber(pan.encrypted());
+        card.setLastFour(CardMasks.lastFour(pan.pan()));
+        card.setPanHash(pan.hash());
+        card.setExpireDate(java.time.LocalDate.now().plusYears(cardExpirationYears));
+        card.setStatus(CardStatus.ACTIVE);
+        card.setBalance(java.math.BigDecimal.ZERO);
+        return card;
+    }
+
+    /**
+     * Сгенерированный номер карты вместе с его слепым индексом и зашифрованным значением.
+     */
+    private record IssuedPan(String pan, String hash, String encrypted) {
     }
 
     /**
      * Вспомогательный метод для получения сущности Card по ID с проверкой прав доступа.
+     * Карта загружается вместе с владельцем одним запросом.
      *
      * @param cardId ID карты.
      * @param requester Пользователь, запрашивающий карту.
@@ -263,7 +656,7 @@ public class CardServiceImpl implements CardService {
      * @throws BadRequestException если у пользователя нет прав доступа.
      */
     private Card getCardEntityById(Long cardId, User requester) {
-        Optional<Card> cardOpt = cardRepository.findById(cardId);
+        Optional<Card> cardOpt = cardRepository.findWithOwnerById(cardId);
         if (cardOpt.isEmpty()) throw new NotFoundException(NotFoundError.CARD_NOT_FOUND);
         Card card = cardOpt.get();
         if (!isAdminOrOwner(requester, card)) throw new BadRequestException(BadRequestError.NO_ACCESS);
@@ -279,7 +672,7 @@ public class CardServiceImpl implements CardService {
     private CardRespDTO toRespDTO(Card card) {
         CardRespDTO dto = new CardRespDTO();
         dto.setId(card.getId());
-        dto.setMaskedCardNumber(maskCardNumber(decryptCardNumber(card.getCardNumber())));
+        dto.setMaskedCardNumber(CardMasks.mask(card, cardEncryptor));
         dto.setOwnerEmail(card.getOwner().getEmail());
         dto.setExpireDate(card.getExpireDate());
         dto.setStatus(card.getStatus());
@@ -287,18 +680,6 @@ public class CardServiceImpl implements CardService {
         return dto;
     }
 
-    /**
-     * Маскирует номер карты, оставляя видимыми только последние 4 цифры.
-     *
-     * @param cardNumber Полный номер карты.
-     * @return Маскированный номер карты.
-     */
-    private String maskCardNumber(String cardNumber) {
-        if (cardNumber.length() < 4) return "****";
-        String last4 = cardNumber.substring(cardNumber.length() - 4);
-        return "**** **** **** " + last4;
-    }
-
     /**
      * Шифрует номер карты.
      *
@@ -309,16 +690,6 @@ public class CardServiceImpl implements CardService {
         return cardEncryptor.encrypt(cardNumber);
     }
 
-    /**
-     * Расшифровывает номер карты.
-     *
-     * @param encryptedCardNumber Зашифрованный номер карты.
-     * @return Расшифрованный номер карты.
-     */
-    private String decryptCardNumber(String encryptedCardNumber) {
-        return cardEncryptor.decrypt(encryptedCardNumber);
-    }
-
     /**
      * Проверяет, является ли пользователь администратором или владельцем карты.
      *
@@ -327,45 +698,16 @@ public class CardServiceImpl implements CardService {
      * @return true, если пользователь является администратором или владельцем, иначе false.
      */
     private boolean isAdminOrOwner(User requester, Card card) {
-        return requester.getRoles().stream().anyMatch(r -> r.name().equals("ADMIN")) || card.getOwner().equals(requester);
+        return isAdmin(requester) || card.getOwner().equals(requester);
     }
 
     /**
-     * Генерирует случайный 16-значный номер карты, соответствующий алгоритму Луна.
+     * Проверяет, является ли пользователь администратором.
      *
-     * @return Сгенерированный номер карты.
+     * @param requester Пользователь для проверки.
+     * @return true, если у пользователя есть роль ADMIN.
      */
-    private String generateCardNumber() {
-        StringBuilder sb = new StringBuilder();
-        sb.append('1'); // Пример: начинаем с '1'
-        for (int i = 0; i < 14; i++) {
-            sb.append(secureRandom.nextInt(10));
-        }
-        String partial = sb.toString();
-        int checksum = calculateLuhnChecksum(partial);
-        sb.append(checksum);
-        return sb.toString();
-    }
-
-    /**
-     * Вычисляет контрольную сумму по алгоритму Луна.
-     *
-     * @param number Номер без контрольной цифры.
-     * @return Контрольная цифра.
-     */
-    private int calculateLuhnChecksum(String number) {
-        int sum = 0;
-        boolean alternate = true;
-        for (int i = number.length() - 1; i >= 0; i--) {
-            int n = number.charAt(i) - '0';
-            if (alternate) {
-                n *= 2;
-                if (n > 9) n -= 9;
-            }
-            sum += n;
-            alternate = !alternate;
-        }
-        int mod = sum % 10;
-        return mod == 0 ? 0 : 10 - mod;
+    private boolean isAdmin(User requester) {
+        return requester.getRoles().stream().anyMatch(r -> r.name().equals("ADMIN"));
     }
 }
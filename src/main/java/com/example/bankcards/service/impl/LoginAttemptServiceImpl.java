@@ -0,0 +1,121 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.exception.TooManyRequestsException;
+import com.example.bankcards.exception.errors.TooManyRequestsError;
+import com.example.bankcards.service.LoginAttemptService;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Реализация ограничения неудачных попыток входа в памяти узла.
+ * <p>
+ * Для каждого email и IP-адреса считаются неудачные попытки в фиксированном окне
+ * {@code auth.login-throttle.window-seconds}. Пока лимит окна исчерпан, вход отклоняется с HTTP 429
+ * до обращения к БД и bcrypt. Истекшие окна удаляются по расписанию.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LoginAttemptServiceImpl implements LoginAttemptService {
+
+    private static final String THROTTLED = "auth.logins.throttled";
+    private static final String EMAIL_KEY = "email:";
+    private static final String IP_KEY = "ip:";
+
+    @Value("${auth.login-throttle.max-failures-per-email:5}")
+    private int maxFailuresPerEmail;
+
+    @Value("${auth.login-throttle.max-failures-per-ip:20}")
+    private int maxFailuresPerIp;
+
+    @Value("${auth.login-throttle.window-seconds:300}")
+    private long windowSeconds;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void checkAllowed(String email, String clientIp) {
+        long now = System.currentTimeMillis();
+        if (failures(EMAIL_KEY + email, now) >= maxFailuresPerEmail) {
+            throw throttled("email", email, clientIp);
+        }
+        if (clientIp != null && failures(IP_KEY + clientIp, now) >= maxFailuresPerIp) {
+            throw throttled("ip", email, clientIp);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void recordFailure(String email, String clientIp) {
+        long now = System.currentTimeMillis();
+        increment(EMAIL_KEY + email, now);
+        if (clientIp != null) {
+            increment(IP_KEY + clientIp, now);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void recordSuccess(String email) {
+        windows.remove(EMAIL_KEY + email);
+    }
+
+    /**
+     * Удаляет истекшие окна, чтобы перебор по множеству email и адресов не накапливал записи.
+     */
+    @Scheduled(fixedDelayString = "${auth.login-throttle.cleanup-interval-ms:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        windows.values().removeIf(window -> window.isExpired(now));
+    }
+
+    private int failures(String key, long now) {
+        Window window = windows.get(key);
+        return window == null || window.isExpired(now) ? 0 : window.failures();
+    }
+
+    private void increment(String key, long now) {
+        windows.compute(key, (k, window) -> window == null || window.isExpired(now)
+                ? new Window(now + windowSeconds * 1000, 1)
+                : new Window(window.expiresAt(), window.failures() + 1));
+    }
+
+    private TooManyRequestsException throttled(String limit, String email, String clientIp) {
+        meterRegistry.counter(THROTTLED, "limit", limit).increment();
+        log.warn("Вход отклонен: превышен лимит неудачных попыток", kv("limit", limit),
+                kv("email", email), kv("clientIp", clientIp));
+        return new TooManyRequestsException(TooManyRequestsError.TOO_MANY_LOGIN_ATTEMPTS);
+    }
+
+    /**
+     * Окно подсчета неудачных попыток.
+     *
+     * @param expiresAt Момент окончания окна (мс).
+     * @param failures  Неудачные попытки в окне.
+     */
+    private record Window(long expiresAt, int failures) {
+
+        boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+}
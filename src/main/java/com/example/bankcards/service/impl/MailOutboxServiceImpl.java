@@ -0,0 +1,275 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.entity.MailOutbox;
+import com.example.bankcards.repository.MailOutboxRepository;
+import com.example.bankcards.service.MailOutboxService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Реализация сервиса отправки писем из очереди.
+ * <p>
+ * Каждый проход забирает порцию готовых писем ({@code FOR UPDATE SKIP LOCKED}, поэтому узлы не берут
+ * одни и те же письма) и сразу сдвигает им время следующей попытки на {@code sender.outbox.lease-ms}:
+ * если узел упадет во время отправки, письма будут повторены после истечения аренды. Отправка идет
+ * вне транзакции на ограниченном пуле {@code mailDispatchExecutor}: порция делится между потоками,
+ * и каждый поток отправляет свою часть через одно SMTP-соединение.
+ * Тем же проходом удаляется порция писем SENT и FAILED старше {@code sender.outbox.retention-ms}.
+ * </p>
+ */
+@Service
+@Slf4j
+public class MailOutboxServiceImpl implements MailOutboxService {
+
+    private static final String DELIVERIES = "mail.outbox.deliveries";
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    @Value("${sender.mail}")
+    private String fromMail;
+
+    @Value("${sender.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${sender.outbox.lease-ms:300000}")
+    private long leaseMs;
+
+    @Value("${sender.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${sender.outbox.retry-base-ms:30000}")
+    private long retryBaseMs;
+
+    @Value("${sender.outbox.retry-max-ms:3600000}")
+    private long retryMaxMs;
+
+    @Value("${sender.outbox.retention-ms:604800000}")
+    private long retentionMs;
+
+    private final MailOutboxRepository mailOutboxRepository;
+    private final JavaMailSender mailSender;
+    private final ThreadPoolTaskExecutor mailDispatchExecutor;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Конструктор сервиса.
+     *
+     * @param mailOutboxRepository Репозиторий очереди писем.
+     * @param mailSender           Отправитель писем.
+     * @param mailDispatchExecutor Ограниченный пул потоков отправки.
+     * @param meterRegistry        Реестр метрик.
+     * @param transactionManager   Менеджер транзакций.
+     */
+    public MailOutboxServiceImpl(MailOutboxRepository mailOutboxRepository,
+                                 JavaMailSender mailSender,
+                                 @Qualifier("mailDispatchExecutor") ThreadPoolTaskExecutor mailDispatchExecutor,
+                                 MeterRegistry meterRegistry,
+                                 PlatformTransactionManager transactionManager) {
+        this.mailOutboxRepository = mailOutboxRepository;
+        this.mailSender = mailSender;
+        this.mailDispatchExecutor = mailDispatchExecutor;
+        this.meterRegistry = meterRegistry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${sender.outbox.poll-interval-ms:2000}")
+    public int dispatchPending() {
+        purgeFinished();
+        List<MailOutbox> claimed = transactionTemplate.execute(status -> claimDue());
+        if (claimed == null || claimed.isEmpty()) {
+            return 0;
+        }
+        Map<Long, String> errors = new ConcurrentHashMap<>();
+        try {
+            send(claimed, errors);
+        } finally {
+            transactionTemplate.executeWithoutResult(status -> complete(claimed, errors));
+        }
+        return claimed.size() - errors.size();
+    }
+
+    /**
+     * Удаляет порцию писем SENT и FAILED, срок хранения которых истек.
+     */
+    private void purgeFinished() {
+        LocalDateTime before = LocalDateTime.now().minus(retentionMs, ChronoUnit.MILLIS);
+        Integer purged = transactionTemplate.execute(status -> mailOutboxRepository.deleteFinishedBefore(before, batchSize));
+        if (purged != null && purged > 0) {
+            log.info("Удалены обработанные письма с истекшим сроком хранения", kv("count", purged));
+        }
+    }
+
+    /**
+     * Забирает готовые к отправке письма и продлевает им время следующей попытки на срок аренды.
+     */
+    private List<MailOutbox> claimDue() {
+        LocalDateTime now = LocalDateTime.now();
+        List<MailOutbox> due = mailOutboxRepository.findDueForUpdate(now, batchSize);
+        LocalDateTime leaseEnd = now.plus(leaseMs, ChronoUnit.MILLIS);
+        for (MailOutbox mail : due) {
+            mail.setAttempts(mail.getAttempts() + 1);
+            mail.setNextAttemptAt(leaseEnd);
+        }
+        return due;
+    }
+
+    /**
+     * Отправляет письма параллельно на пуле отправки.
+     * <p>
+     * Ошибка одной части порции (отказ пула, непредвиденное исключение) записывается как ошибка
+     * отправки ее писем и не мешает сохранить результат остальных частей.
+     * </p>
+     *
+     * @param mails  Письма для отправки.
+     * @param errors Ошибки отправки по идентификаторам писем.
+     */
+    private void send(List<MailOutbox> mails, Map<Long, String> errors) {
+        int workers = Math.max(1, mailDispatchExecutor.getMaxPoolSize());
+        int sliceSize = (mails.size() + workers - 1) / workers;
+        List<CompletableFuture<Void>> slices = new ArrayList<>(workers);
+        for (int from = 0; from < mails.size(); from += sliceSize) {
+            List<MailOutbox> slice = mails.subList(from, Math.min(from + sliceSize, mails.size()));
+            try {
+                slices.add(CompletableFuture.runAsync(() -> sendSlice(slice, errors), mailDispatchExecutor)
+                        .exceptionally(e -> {
+                            failSlice(slice, errors, e instanceof CompletionException ? e.getCause() : e);
+                            return null;
+                        }));
+            } catch (TaskRejectedException e) {
+                failSlice(slice, errors, e);
+            }
+        }
+        CompletableFuture.allOf(slices.toArray(new CompletableFuture[0])).join();
+    }
+
+    /**
+     * Записывает ошибку для писем части порции, у которых еще нет результата.
+     */
+    private void failSlice(List<MailOutbox> slice, Map<Long, String> errors, Throwable e) {
+        log.error("Ошибка отправки части порции писем", kv("count", slice.size()), e);
+        String error = describe(e);
+        slice.forEach(mail -> errors.putIfAbsent(mail.getId(), error));
+    }
+
+    /**
+     * Отправляет часть порции одним вызовом {@link JavaMailSender#send(MimeMessage...)},
+     * который использует одно SMTP-соединение на все письма.
+     */
+    private void sendSlice(List<MailOutbox> slice, Map<Long, String> errors) {
+        Map<MimeMessage, MailOutbox> messages = new IdentityHashMap<>(slice.size());
+        for (MailOutbox mail : slice) {
+            try {
+                messages.put(toMimeMessage(mail), mail);
+            } catch (MessagingException e) {
+                errors.put(mail.getId(), describe(e));
+            }
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+        try {
+            mailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            if (e.getFailedMessages().isEmpty()) {
+                messages.values().forEach(mail -> errors.put(mail.getId(), describe(e)));
+            } else {
+                e.getFailedMessages().forEach((message, cause) -> {
+                    MailOutbox mail = messages.get(message);
+                    if (mail != null) {
+                        errors.put(mail.getId(), describe(cause));
+                    }
+                });
+            }
+        } catch (MailException e) {
+            messages.values().forEach(mail -> errors.put(mail.getId(), describe(e)));
+        }
+    }
+
+    private MimeMessage toMimeMessage(MailOutbox mail) throws MessagingException {
+        MimeMessage mimeMessage = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, "utf-8");
+        helper.setText(mail.getBody(), true);
+        helper.setTo(mail.getRecipient());
+        helper.setSubject(mail.getSubject());
+        helper.setFrom(fromMail);
+        return mimeMessage;
+    }
+
+    /**
+     * Сохраняет результат отправки: успешные письма помечаются SENT, неудачные планируются повторно
+     * с экспоненциальной задержкой или помечаются FAILED после {@code sender.outbox.max-attempts} попыток.
+     */
+    private void complete(List<MailOutbox> claimed, Map<Long, String> errors) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = claimed.stream().map(MailOutbox::getId).toList();
+        for (MailOutbox mail : mailOutboxRepository.findAllById(ids)) {
+            String error = errors.get(mail.getId());
+            if (error == null) {
+                mail.setStatus(MailOutbox.Status.SENT);
+                mail.setSentAt(now);
+                mail.setLastError(null);
+                meterRegistry.counter(DELIVERIES, "outcome", "sent").increment();
+                log.info("Письмо отправлено", kv("mailId", mail.getId()), kv("recipient", mail.getRecipient()));
+                continue;
+            }
+            mail.setLastError(error);
+            if (mail.getAttempts() >= maxAttempts) {
+                mail.setStatus(MailOutbox.Status.FAILED);
+                meterRegistry.counter(DELIVERIES, "outcome", "failed").increment();
+                log.error("Письмо не отправлено, попытки исчерпаны",
+                        kv("mailId", mail.getId()), kv("recipient", mail.getRecipient()),
+                        kv("attempts", mail.getAttempts()), kv("error", error));
+            } else {
+                mail.setNextAttemptAt(now.plus(retryDelayMs(mail.getAttempts()), ChronoUnit.MILLIS));
+                meterRegistry.counter(DELIVERIES, "outcome", "retry").increment();
+                log.warn("Ошибка отправки письма, попытка будет повторена",
+                        kv("mailId", mail.getId()), kv("recipient", mail.getRecipient()),
+                        kv("attempts", mail.getAttempts()), kv("nextAttemptAt", mail.getNextAttemptAt()),
+                        kv("error", error));
+            }
+        }
+    }
+
+    /**
+     * Задержка перед следующей попыткой: {@code retry-base-ms * 2^(attempts - 1)}, но не больше {@code retry-max-ms}.
+     */
+    private long retryDelayMs(int attempts) {
+        int shift = Math.min(attempts - 1, 30);
+        return Math.min(retryBaseMs << shift, retryMaxMs);
+    }
+
+    private String describe(Throwable e) {
+        String message = e.getClass().getSimpleName() + ": " + e.getMessage();
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+}
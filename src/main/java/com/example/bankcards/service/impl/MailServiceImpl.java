@@ -1,31 +1,34 @@
 package com.example.bankcards.service.impl;
 
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
+import com.example.bankcards.entity.MailOutbox;
 import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.MailOutboxRepository;
 import com.example.bankcards.service.MailService;
+import com.example.bankcards.util.MailTemplate;
 import com.example.bankcards.util.MailUtils;
 import com.example.bankcards.util.UrlPathUtility;
 
+import java.time.LocalDateTime;
+
 /**
  * Реализация сервиса для отправки электронных писем.
+ * <p>
+ * Письма не отправляются синхронно: они записываются в очередь {@code mail_outbox}
+ * и доставляются {@link MailOutboxServiceImpl}.
+ * </p>
  */
 @Service
 @RequiredArgsConstructor
 public class MailServiceImpl implements MailService {
 
-    private final JavaMailSender mailSender;
-
-    @Value("${sender.mail}")
-    private String fromMail;
+    private final MailOutboxRepository mailOutboxRepository;
 
     @Value("${sender.token-replace}")
     private String tokenReplace;
@@ -35,13 +38,28 @@ public class MailServiceImpl implements MailService {
 
     private static final Logger logger = LoggerFactory.getLogger(MailServiceImpl.class);
 
+    private MailTemplate verifyTemplate;
+    private MailTemplate restorePasswordTemplate;
+
+    /**
+     * Разбирает шаблоны писем один раз при старте. Поддерживаются плейсхолдеры ссылки ({@link MailUtils#LINK}),
+     * email ({@code sender.email-replace}) и токена ({@code sender.token-replace}).
+     */
+    @PostConstruct
+    void compileTemplates() {
+        verifyTemplate = MailTemplate.compile(MailUtils.ACCOUNT_VERIFY_TEMPLATE,
+                MailUtils.LINK, emailReplaceString, tokenReplace);
+        restorePasswordTemplate = MailTemplate.compile(MailUtils.CHANGE_PASSWORD_TEMPLATE,
+                MailUtils.LINK, emailReplaceString, tokenReplace);
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public void sendUserVerificationMail(User user, HttpServletRequest request) {
         String link = UrlPathUtility.getSiteUrl(request) + "/api/authorize/verification?email=" + user.getEmail() + "&token=" + user.getToken();
-        String content = MailUtils.ACCOUNT_VERIFY_TEMPLATE.replace(MailUtils.LINK, link);
+        String content = verifyTemplate.render(link, user.getEmail(), user.getToken());
         sendEmail(user.getEmail(), MailUtils.ACCOUNT_VERIFY_HEADER, content);
     }
 
@@ -51,33 +69,30 @@ public class MailServiceImpl implements MailService {
     @Override
     public void sendPasswordRestoreMail(User user, HttpServletRequest request) {
         String link = UrlPathUtility.getSiteUrl(request) + "/recovery?email=" + user.getEmail() + "&token=" + user.getToken();
-        String content = MailUtils.CHANGE_PASSWORD_TEMPLATE.replace(MailUtils.LINK, link);
+        String content = restorePasswordTemplate.render(link, user.getEmail(), user.getToken());
         sendEmail(user.getEmail(), MailUtils.ACCOUNT_CHANGE_PASSWORD_HEADER, content);
     }
 
     /**
-     * Вспомогательный метод для отправки email.
+     * Ставит письмо в очередь отправки. Запись сохраняется в текущей транзакции,
+     * поэтому письмо уйдет только если бизнес-операция будет зафиксирована.
      *
      * @param to      Email получателя.
      * @param subject Тема письма.
      * @param content Содержимое письма (HTML).
      */
     private void sendEmail(String to, String subject, String content) {
-        try {
-            MimeMessage mimeMessage = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, "utf-8");
-            helper.setText(content, true);
-            helper.setTo(to);
-            helper.setSubject(subject);
-            helper.setFrom(fromMail);
-            mailSender.send(mimeMessage);
-            logger.info("Email sent to {}", to);
-        } catch (MessagingException e) {
-            logger.error("Failed to send email to {}", to, e);
-            // В реальном приложении здесь может быть более сложная логика обработки,
-            // например, повторная отправка или уведомление администратора.
-            throw new RuntimeException("Failed to send email", e);
-        }
+        LocalDateTime now = LocalDateTime.now();
+        MailOutbox mail = new MailOutbox();
+        mail.setRecipient(to);
+        mail.setSubject(subject);
+        mail.setBody(content);
+        mail.setStatus(MailOutbox.Status.PENDING);
+        mail.setAttempts(0);
+        mail.setNextAttemptAt(now);
+        mail.setCreatedAt(now);
+        mailOutboxRepository.save(mail);
+        logger.info("Email queued for {}", to);
     }
 
-}
\ No newline at end of file
+}
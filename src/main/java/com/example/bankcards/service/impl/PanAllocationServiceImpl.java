@@ -0,0 +1,198 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.entity.PanRange;
+import com.example.bankcards.repository.PanRangeRepository;
+import com.example.bankcards.service.PanAllocationService;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Реализация сервиса выдачи номеров карт.
+ * <p>
+ * Для каждого BIN в таблице {@code pan_range} хранится счетчик порядковых номеров. Узел резервирует
+ * блок из {@code card.pan.block-size} номеров одной короткой транзакцией с блокировкой строки
+ * и выдает номера из блока в памяти. Порядковый номер переводится в номер счета перестановкой
+ * {@code (n * multiplier) mod 10^k} — это биекция при множителе, взаимно простом с 10,
+ * поэтому номера уникальны, но не идут подряд. Неиспользованный остаток блока при перезапуске
+ * теряется, что допустимо.
+ * </p>
+ */
+@Service
+@Slf4j
+public class PanAllocationServiceImpl implements PanAllocationService {
+
+    private static final int PAN_LENGTH = 16;
+
+    @Value("${card.pan.bins}")
+    private List<String> bins;
+
+    @Value("${card.pan.block-size:1000}")
+    private int blockSize;
+
+    @Value("${card.pan.permutation-multiplier:387420489}")
+    private long permutationMultiplier;
+
+    private final PanRangeRepository panRangeRepository;
+    private final TransactionTemplate reserveTransaction;
+
+    private int binIndex;
+    private long next;
+    private long end;
+
+    /**
+     * Конструктор сервиса. Резервирование блока выполняется в отдельной транзакции,
+     * чтобы блокировка строки счетчика не удерживалась до конца транзакции выпуска карт.
+     *
+     * @param panRangeRepository Репозиторий счетчиков диапазонов.
+     * @param transactionManager Менеджер транзакций.
+     */
+    public PanAllocationServiceImpl(PanRangeRepository panRangeRepository, PlatformTransactionManager transactionManager) {
+        this.panRangeRepository = panRangeRepository;
+        this.reserveTransaction = new TransactionTemplate(transactionManager);
+        this.reserveTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Проверяет настройки диапазонов при старте приложения.
+     *
+     * @throws IllegalStateException если BIN или множитель перестановки заданы некорректно.
+     */
+    @PostConstruct
+    void validateSettings() {
+        if (bins == null || bins.isEmpty()) {
+            throw new IllegalStateException("Не задан ни один BIN для выпуска карт (card.pan.bins)");
+        }
+        for (String bin : bins) {
+            if (!bin.matches("\\d{6,8}")) {
+                throw new IllegalStateException("BIN должен состоять из 6–8 цифр: " + bin);
+            }
+        }
+        if (blockSize <= 0) {
+            throw new IllegalStateException("Размер блока номеров должен быть положительным (card.pan.block-size)");
+        }
+        if (permutationMultiplier <= 0 || permutationMultiplier % 2 == 0 || permutationMultiplier % 5 == 0) {
+            throw new IllegalStateException("Множитель перестановки должен быть положительным и взаимно простым с 10");
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized String nextPan() {
+        if (next >= end) {
+            reserveBlock();
+        }
+        return toPan(bins.get(binIndex), next++);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized List<String> nextPans(int count) {
+        List<String> pans = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            pans.add(nextPan());
+        }
+        return pans;
+    }
+
+    /**
+     * Резервирует следующий блок порядковых номеров в текущем BIN,
+     * а если он исчерпан — переходит к следующему BIN из настроек.
+     *
+     * @throws IllegalStateException если все диапазоны исчерпаны.
+     */
+    private void reserveBlock() {
+        while (binIndex < bins.size()) {
+            String bin = bins.get(binIndex);
+            long capacity = capacity(bin);
+            long[] block = reserveTransaction.execute(status -> {
+                panRangeRepository.insertIfAbsent(bin);
+                PanRange range = panRangeRepository.findForUpdate(bin)
+                        .orElseThrow(() -> new IllegalStateException("Счетчик диапазона не найден: " + bin));
+                long from = range.getNextValue();
+                if (from >= capacity) {
+                    return null;
+                }
+                long to = Math.min(from + blockSize, capacity);
+                range.setNextValue(to);
+                return new long[]{from, to};
+            });
+            if (block != null) {
+                next = block[0];
+                end = block[1];
+                log.debug("Зарезервирован блок номеров карт", kv("bin", bin), kv("from", next), kv("to", end));
+                return;
+            }
+            log.warn("Диапазон номеров BIN исчерпан", kv("bin", bin));
+            binIndex++;
+        }
+        throw new IllegalStateException("Все диапазоны номеров карт исчерпаны (card.pan.bins)");
+    }
+
+    /**
+     * Собирает номер карты: BIN, номер счета после перестановки и контрольная цифра Луна.
+     *
+     * @param bin   BIN.
+     * @param value Порядковый номер внутри BIN.
+     * @return 16-значный номер карты.
+     */
+    private String toPan(String bin, long value) {
+        long capacity = capacity(bin);
+        // Обе величины меньше 10^9, поэтому произведение помещается в long
+        long account = value * (permutationMultiplier % capacity) % capacity;
+        StringBuilder sb = new StringBuilder(PAN_LENGTH).append(bin);
+        String digits = Long.toString(account);
+        for (int i = digits.length(); i < PAN_LENGTH - 1 - bin.length(); i++) {
+            sb.append('0');
+        }
+        sb.append(digits);
+        sb.append(calculateLuhnChecksum(sb));
+        return sb.toString();
+    }
+
+    /**
+     * Количество номеров счета в BIN: 10 в степени числа цифр между BIN и контрольной цифрой.
+     */
+    private long capacity(String bin) {
+        long capacity = 1;
+        for (int i = 0; i < PAN_LENGTH - 1 - bin.length(); i++) {
+            capacity *= 10;
+        }
+        return capacity;
+    }
+
+    /**
+     * Вычисляет контрольную сумму по алгоритму Луна.
+     *
+     * @param number Номер без контрольной цифры.
+     * @return Контрольная цифра.
+     */
+    private int calculateLuhnChecksum(CharSequence number) {
+        int sum = 0;
+        boolean alternate = true;
+        for (int i = number.length() - 1; i >= 0; i--) {
+            int n = number.charAt(i) - '0';
+            if (alternate) {
+                n *= 2;
+                if (n > 9) n -= 9;
+            }
+            sum += n;
+            alternate = !alternate;
+        }
+        int mod = sum % 10;
+        return mod == 0 ? 0 : 10 - mod;
+    }
+}
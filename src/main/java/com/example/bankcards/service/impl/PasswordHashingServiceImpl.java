@@ -0,0 +1,143 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.exception.TooManyRequestsException;
+import com.example.bankcards.exception.errors.TooManyRequestsError;
+import com.example.bankcards.service.PasswordHashingService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Реализация сервиса хеширования паролей на пуле {@code passwordHashingExecutor}.
+ * <p>
+ * Поток запроса ставит задачу в ограниченную очередь и ждет результат не дольше
+ * {@code auth.password-hashing.timeout-ms}. Переполненная очередь и истекшее ожидание дают HTTP 429,
+ * так что при всплеске входов остальные запросы продолжают обслуживаться.
+ * </p>
+ */
+@Service
+@Slf4j
+public class PasswordHashingServiceImpl implements PasswordHashingService {
+
+    private static final String PASSWORD_CHECK = "auth.password.check";
+    private static final String PASSWORD_ENCODE = "auth.password.encode";
+    private static final String QUEUE_WAIT = "auth.password.queue.wait";
+    private static final String REJECTED = "auth.password.rejected";
+
+    @Value("${auth.password-hashing.timeout-ms:5000}")
+    private long timeoutMs;
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolTaskExecutor passwordHashingExecutor;
+    private final MeterRegistry meterRegistry;
+    private final Timer checkTimer;
+    private final Timer encodeTimer;
+    private final Timer queueWaitTimer;
+
+    public PasswordHashingServiceImpl(PasswordEncoder passwordEncoder,
+                                      @Qualifier("passwordHashingExecutor") ThreadPoolTaskExecutor passwordHashingExecutor,
+                                      MeterRegistry meterRegistry) {
+        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.meterRegistry = meterRegistry;
+        this.checkTimer = Timer.builder(PASSWORD_CHECK)
+                .description("Время проверки пароля (bcrypt) при авторизации")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.encodeTimer = Timer.builder(PASSWORD_ENCODE)
+                .description("Время хеширования пароля (bcrypt)")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.queueWaitTimer = Timer.builder(QUEUE_WAIT)
+                .description("Время ожидания задачи bcrypt в очереди пула")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("auth.password.queue.depth", passwordHashingExecutor, ThreadPoolTaskExecutor::getQueueSize)
+                .description("Задачи bcrypt, ожидающие свободного потока")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.active", passwordHashingExecutor, ThreadPoolTaskExecutor::getActiveCount)
+                .description("Потоки пула, занятые bcrypt")
+                .register(meterRegistry);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(() -> passwordEncoder.matches(rawPassword, encodedPassword), checkTimer);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute(() -> passwordEncoder.encode(rawPassword), encodeTimer);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * Выполняет задачу на пуле и ждет результат.
+     *
+     * @param task  Операция bcrypt.
+     * @param timer Таймер длительности операции (без ожидания в очереди).
+     * @return Результат операции.
+     * @throws TooManyRequestsException если очередь переполнена или ожидание превысило лимит.
+     */
+    private <T> T execute(Supplier<T> task, Timer timer) {
+        long submittedAt = System.nanoTime();
+        CompletableFuture<T> future;
+        try {
+            future = CompletableFuture.supplyAsync(() -> {
+                queueWaitTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                return timer.record(task);
+            }, passwordHashingExecutor);
+        } catch (TaskRejectedException e) {
+            throw rejected("queue_full");
+        }
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            throw rejected("timeout");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Ожидание проверки пароля прервано", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private TooManyRequestsException rejected(String reason) {
+        meterRegistry.counter(REJECTED, "reason", reason).increment();
+        log.warn("Проверка пароля отклонена: пул bcrypt перегружен", kv("reason", reason),
+                kv("queueDepth", passwordHashingExecutor.getQueueSize()));
+        return new TooManyRequestsException(TooManyRequestsError.LOGIN_OVERLOADED);
+    }
+}
@@ -13,7 +13,6 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import com.example.bankcards.dto.request.UpdateCurrentUserReqDTO;
 import com.example.bankcards.dto.response.UserRespDTO;
@@ -24,6 +23,7 @@ import com.example.bankcards.exception.NotFoundException;
 import com.example.bankcards.exception.errors.AuthorizedError;
 import com.example.bankcards.exception.errors.NotFoundError;
 import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.service.PasswordHashingService;
 import com.example.bankcards.service.UserService;
 
 import java.util.List;
@@ -44,7 +44,7 @@ import static net.logstash.logback.argument.StructuredArguments.kv;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
 
     /**
      * {@inheritDoc}
@@ -163,7 +163,7 @@ public class UserServiceImpl implements UserService {
         user.setEmail(createUserReqDTO.getEmail());
         user.setFirstName(createUserReqDTO.getFirstName());
         user.setLastName(createUserReqDTO.getLastName());
-        user.setPassword(passwordEncoder.encode(createUserReqDTO.getPassword()));
+        user.setPassword(passwordHashingService.encode(createUserReqDTO.getPassword()));
 
         user.setIsEmailVerificated(Boolean.FALSE);
         user.setRoles(Set.of(Role.USER));
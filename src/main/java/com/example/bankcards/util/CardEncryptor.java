@@ -6,10 +6,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.Cipher;
+import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
 import java.security.GeneralSecurityException;
 import java.util.Base64;
+import java.util.HexFormat;
 
 /**
  * Утилитарный класс для шифрования и дешифрования номеров банковских карт (PAN).
@@ -26,9 +28,26 @@ public class CardEncryptor {
      */
     private static final String ALGORITHM = "AES/ECB/PKCS5Padding";
     private static final String ALGORITHM_NAME = "AES";
+    private static final String BLIND_INDEX_ALGORITHM = "HmacSHA256";
+
+    /**
+     * Контекст для вывода ключа слепого индекса из ключа шифрования,
+     * чтобы один и тот же ключ не использовался напрямую в двух алгоритмах.
+     */
+    private static final byte[] BLIND_INDEX_KEY_CONTEXT = "card-pan-blind-index".getBytes(StandardCharsets.UTF_8);
 
     private final VaultService vaultService;
 
+    /**
+     * Ключ слепого индекса; выводится из ключа шифрования один раз, при первом вычислении индекса.
+     */
+    private volatile SecretKeySpec blindIndexKey;
+
+    /**
+     * Инициализированный ключом индекса {@link Mac} потока: на каждый номер остается только {@code doFinal}.
+     */
+    private final ThreadLocal<Mac> blindIndexMac = new ThreadLocal<>();
+
     /**
      * Конструктор для внедрения зависимости {@link VaultService}.
      *
@@ -94,4 +113,55 @@ public class CardEncryptor {
             throw new EncryptionException(EncryptionError.DECRYPTION_FAILED);
         }
     }
+
+    /**
+     * Вычисляет слепой индекс номера карты — HMAC-SHA256 от PAN на ключе, выведенном из ключа шифрования.
+     * Одинаковые номера дают одинаковый индекс, поэтому по нему можно проверять уникальность
+     * без расшифровки сохраненных номеров.
+     *
+     * @param pan Номер карты в виде строки.
+     * @return Слепой индекс в шестнадцатеричном виде (64 символа).
+     * @throws EncryptionException если в процессе вычисления возникает ошибка.
+     */
+    public String blindIndex(String pan) {
+        try {
+            return HexFormat.of().formatHex(blindIndexMac().doFinal(pan.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new EncryptionException(EncryptionError.BLIND_INDEX_FAILED);
+        }
+    }
+
+    /**
+     * Возвращает {@link Mac} слепого индекса текущего потока, создавая его при первом обращении.
+     * После {@code doFinal} экземпляр сбрасывается в исходное состояние и готов к следующему номеру.
+     */
+    private Mac blindIndexMac() throws GeneralSecurityException {
+        Mac mac = blindIndexMac.get();
+        if (mac == null) {
+            mac = Mac.getInstance(BLIND_INDEX_ALGORITHM);
+            mac.init(blindIndexKey());
+            blindIndexMac.set(mac);
+        }
+        return mac;
+    }
+
+    /**
+     * Выводит ключ слепого индекса из ключа шифрования (ключ Vault кешируется и не меняется
+     * за время работы узла, поэтому вывод выполняется один раз).
+     */
+    private SecretKeySpec blindIndexKey() throws GeneralSecurityException {
+        SecretKeySpec key = blindIndexKey;
+        if (key == null) {
+            synchronized (this) {
+                key = blindIndexKey;
+                if (key == null) {
+                    Mac mac = Mac.getInstance(BLIND_INDEX_ALGORITHM);
+                    mac.init(new SecretKeySpec(getKey(), BLIND_INDEX_ALGORITHM));
+                    key = new SecretKeySpec(mac.doFinal(BLIND_INDEX_KEY_CONTEXT), BLIND_INDEX_ALGORITHM);
+                    blindIndexKey = key;
+                }
+            }
+        }
+        return key;
+    }
 }
@@ -0,0 +1,44 @@
+package com.example.bankcards.util;
+
+import com.example.bankcards.entity.Card;
+
+/**
+ * Маскирование номеров карт для ответов API.
+ */
+public final class CardMasks {
+
+    private static final String MASK_PREFIX = "**** **** **** ";
+    private static final String EMPTY_MASK = "****";
+
+    private CardMasks() {
+    }
+
+    /**
+     * Возвращает последние 4 цифры номера карты.
+     *
+     * @param pan Полный номер карты.
+     * @return Последние 4 цифры.
+     */
+    public static String lastFour(String pan) {
+        return pan.substring(pan.length() - 4);
+    }
+
+    /**
+     * Маскирует номер карты, оставляя видимыми только последние 4 цифры. Использует сохраненные последние
+     * 4 цифры, а для карт, выпущенных до их появления, расшифровывает номер.
+     *
+     * @param card          Карта.
+     * @param cardEncryptor Шифратор для расшифровки номеров старых карт.
+     * @return Маскированный номер карты.
+     */
+    public static String mask(Card card, CardEncryptor cardEncryptor) {
+        if (card.getLastFour() != null) {
+            return MASK_PREFIX + card.getLastFour();
+        }
+        String pan = cardEncryptor.decrypt(card.getCardNumber());
+        if (pan == null || pan.length() < 4) {
+            return EMPTY_MASK;
+        }
+        return MASK_PREFIX + lastFour(pan);
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.bankcards.util;
+
+import java.util.StringJoiner;
+
+/**
+ * Построение строгих ETag из версий записей.
+ * <p>
+ * ETag — значение в кавычках из частей, разделенных дефисом, например {@code "c-42-7-3"}. Значение меняется
+ * при любом изменении входящих в ответ записей, поэтому его можно вычислить до загрузки и сериализации данных.
+ * </p>
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    /**
+     * Формирует строгий ETag.
+     *
+     * @param parts Части значения: тип ресурса, идентификаторы и версии.
+     * @return ETag в кавычках.
+     */
+    public static String of(Object... parts) {
+        StringJoiner joiner = new StringJoiner("-", "\"", "\"");
+        for (Object part : parts) {
+            joiner.add(String.valueOf(part));
+        }
+        return joiner.toString();
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.bankcards.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Предварительно разобранный шаблон письма.
+ * <p>
+ * При создании шаблон один раз разбивается на чередующиеся литеральные сегменты и ссылки на плейсхолдеры,
+ * поэтому отрисовка — это копирование сегментов и значений в переиспользуемый буфер потока без поиска
+ * подстрок и промежуточных строк, как при цепочке {@link String#replace}. Экземпляр неизменяем
+ * и потокобезопасен.
+ * </p>
+ */
+public final class MailTemplate {
+
+    /**
+     * Буферы большего размера не удерживаются потоком после отрисовки.
+     */
+    private static final int MAX_CACHED_BUFFER = 64 * 1024;
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(1024));
+
+    private final String[] literals;
+    private final int[] slots;
+    private final int placeholderCount;
+    private final int literalLength;
+
+    private MailTemplate(String[] literals, int[] slots, int placeholderCount) {
+        this.literals = literals;
+        this.slots = slots;
+        this.placeholderCount = placeholderCount;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * Разбирает шаблон на сегменты.
+     *
+     * @param template     Текст шаблона.
+     * @param placeholders Плейсхолдеры; порядок задает порядок значений в {@link #render(String...)}.
+     * @return Разобранный шаблон.
+     * @throws IllegalArgumentException если плейсхолдер пустой.
+     */
+    public static MailTemplate compile(String template, String... placeholders) {
+        for (String placeholder : placeholders) {
+            if (placeholder == null || placeholder.isEmpty()) {
+                throw new IllegalArgumentException("Плейсхолдер шаблона письма не может быть пустым");
+            }
+        }
+        List<String> literals = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        int from = 0;
+        while (true) {
+            int found = -1;
+            int slot = -1;
+            for (int i = 0; i < placeholders.length; i++) {
+                int index = template.indexOf(placeholders[i], from);
+                if (index >= 0 && (found < 0 || index < found)) {
+                    found = index;
+                    slot = i;
+                }
+            }
+            if (found < 0) {
+                literals.add(template.substring(from));
+                break;
+            }
+            literals.add(template.substring(from, found));
+            slots.add(slot);
+            from = found + placeholders[slot].length();
+        }
+        return new MailTemplate(literals.toArray(new String[0]),
+                slots.stream().mapToInt(Integer::intValue).toArray(), placeholders.length);
+    }
+
+    /**
+     * Подставляет значения плейсхолдеров.
+     *
+     * @param values Значения в порядке плейсхолдеров, переданных в {@link #compile(String, String...)}.
+     * @return Готовый текст письма.
+     * @throws IllegalArgumentException если количество значений не совпадает с количеством плейсхолдеров.
+     */
+    public String render(String... values) {
+        if (values.length != placeholderCount) {
+            throw new IllegalArgumentException("Ожидалось значений: " + placeholderCount + ", передано: " + values.length);
+        }
+        int length = literalLength;
+        for (int slot : slots) {
+            length += values[slot].length();
+        }
+        StringBuilder buffer = BUFFER.get();
+        buffer.setLength(0);
+        buffer.ensureCapacity(length);
+        buffer.append(literals[0]);
+        for (int i = 0; i < slots.length; i++) {
+            buffer.append(values[slots[i]]).append(literals[i + 1]);
+        }
+        String result = buffer.toString();
+        if (buffer.capacity() > MAX_CACHED_BUFFER) {
+            BUFFER.remove();
+        }
+        return result;
+    }
+}
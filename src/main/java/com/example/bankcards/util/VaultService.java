@@ -1,6 +1,7 @@
 package com.example.bankcards.util;
 
 import lombok.Data;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
@@ -15,6 +16,7 @@ import org.springframework.web.client.RestTemplate;
  * В данном случае используется для получения ключа шифрования.
  */
 @Service
+@RequiredArgsConstructor
 public class VaultService {
 
     @Value("${VAULT_ADDR}")
@@ -27,7 +29,7 @@ public class VaultService {
     private String secretPath;
 
     private String cachedKey;
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final RestTemplate restTemplate;
 
     /**
      * Получает ключ шифрования из Vault.
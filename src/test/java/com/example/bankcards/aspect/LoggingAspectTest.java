@@ -0,0 +1,64 @@
+package com.example.bankcards.aspect;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Tracer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LoggingAspectTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private LoggingAspect loggingAspect;
+    private ProceedingJoinPoint joinPoint;
+
+    @BeforeEach
+    void setUp() throws NoSuchMethodException {
+        meterRegistry = new SimpleMeterRegistry();
+        loggingAspect = new LoggingAspect(meterRegistry, Tracer.NOOP);
+        ReflectionTestUtils.setField(loggingAspect, "slowThresholdMs", 1000L);
+        ReflectionTestUtils.setField(loggingAspect, "slowLogIntervalMs", 10000L);
+
+        MethodSignature signature = mock(MethodSignature.class);
+        when(signature.getMethod()).thenReturn(String.class.getMethod("trim"));
+        when(signature.getDeclaringType()).thenReturn(String.class);
+        when(signature.getName()).thenReturn("trim");
+        joinPoint = mock(ProceedingJoinPoint.class);
+        when(joinPoint.getSignature()).thenReturn(signature);
+    }
+
+    @Test
+    @DisplayName("Успешные вызовы записываются в один закешированный таймер")
+    void timeServiceMethod_recordsSuccess() throws Throwable {
+        when(joinPoint.proceed()).thenReturn("ok");
+
+        assertEquals("ok", loggingAspect.timeServiceMethod(joinPoint));
+        assertEquals("ok", loggingAspect.timeServiceMethod(joinPoint));
+
+        Timer timer = meterRegistry.get("service.method.duration")
+                .tags("service", "String", "method", "trim", "outcome", "success")
+                .timer();
+        assertEquals(2, timer.count());
+    }
+
+    @Test
+    @DisplayName("Исключение записывается с результатом error и пробрасывается дальше")
+    void timeServiceMethod_recordsError() throws Throwable {
+        when(joinPoint.proceed()).thenThrow(new IllegalStateException("fail"));
+
+        assertThrows(IllegalStateException.class, () -> loggingAspect.timeServiceMethod(joinPoint));
+
+        Timer timer = meterRegistry.get("service.method.duration")
+                .tags("service", "String", "method", "trim", "outcome", "error")
+                .timer();
+        assertEquals(1, timer.count());
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.bankcards.benchmark;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.example.bankcards.logging.MeteredAsyncAppender;
+import net.logstash.logback.encoder.LogstashEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Бенчмарк стоимости одной строки JSON-лога для потока запроса.
+ * <p>
+ * Режим {@code sync} повторяет прежнюю конфигурацию: {@code LogstashEncoder} кодирует событие
+ * и пишет его под блокировкой appender'а прямо в потоке запроса. Режим {@code async} — текущую:
+ * поток запроса только кладет событие в очередь {@link MeteredAsyncAppender}, кодирование и запись
+ * выполняет фоновый поток. Несколько потоков пишут одновременно, как обработчики запросов под нагрузкой.
+ * Вывод идет в пустой поток, поэтому результат — нижняя граница: реальный stdout медленнее.
+ * </p>
+ * <p>
+ * Запуск: {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark=AsyncLoggingBenchmark}
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(4)
+@Fork(1)
+public class AsyncLoggingBenchmark {
+
+    @Param({"sync", "async"})
+    public String mode;
+
+    private LoggerContext context;
+    private Logger logger;
+    private MeteredAsyncAppender asyncAppender;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new LoggerContext();
+        context.setMDCAdapter(new LogbackMDCAdapter());
+
+        LogstashEncoder encoder = new LogstashEncoder();
+        encoder.setContext(context);
+        encoder.setCustomFields("{\"app\":\"bank-rest\",\"env\":\"bench\"}");
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> console = new OutputStreamAppender<>();
+        console.setName("CONSOLE_JSON");
+        console.setContext(context);
+        console.setEncoder(encoder);
+        console.setOutputStream(OutputStream.nullOutputStream());
+        console.start();
+
+        Appender<ILoggingEvent> target = console;
+        if ("async".equals(mode)) {
+            asyncAppender = new MeteredAsyncAppender();
+            asyncAppender.setName("ASYNC_JSON");
+            asyncAppender.setContext(context);
+            asyncAppender.setQueueSize(8192);
+            asyncAppender.setDiscardingThreshold(1638);
+            asyncAppender.setIncludeCallerData(false);
+            asyncAppender.addAppender(console);
+            asyncAppender.start();
+            target = asyncAppender;
+        }
+
+        logger = context.getLogger("com.example.bankcards.service.impl.CardServiceImpl");
+        logger.setAdditive(false);
+        logger.setLevel(ch.qos.logback.classic.Level.INFO);
+        logger.addAppender(target);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (asyncAppender != null) {
+            System.out.println("Отброшено событий: " + asyncAppender.getDiscardedCount());
+        }
+        context.stop();
+    }
+
+    /**
+     * Одна строка лога с тремя структурированными полями, как в сервисном слое.
+     */
+    @Benchmark
+    public void logLine() {
+        logger.info("Перевод выполнен", kv("fromCardId", 1L), kv("toCardId", 2L),
+                kv("amount", BigDecimal.TEN));
+    }
+}
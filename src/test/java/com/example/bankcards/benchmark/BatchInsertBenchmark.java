@@ -0,0 +1,203 @@
+package com.example.bankcards.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарк пропускной способности вставки карт и закрытия сессий на PostgreSQL.
+ * <p>
+ * Режим {@code identity} повторяет поведение Hibernate при {@code GenerationType.IDENTITY}:
+ * каждая строка — отдельный {@code INSERT ... RETURNING id}. Режим {@code batched} повторяет
+ * поведение при последовательности с шагом 50 (pooled-lo), {@code hibernate.jdbc.batch_size=50}
+ * и {@code reWriteBatchedInserts=true}: один {@code nextval} на блок идентификаторов и пакетная отправка.
+ * Результат в ops/s соответствует числу строк в секунду.
+ * </p>
+ * <p>
+ * Работает со служебными таблицами {@code bench_card} и {@code bench_user_session}, которые создаются
+ * и удаляются самим бенчмарком. Подключение берется из переменных окружения {@code POSTGRES_URL},
+ * {@code POSTGRES_USER}, {@code POSTGRES_PASSWORD}. Запуск:
+ * {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark=BatchInsertBenchmark}
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class BatchInsertBenchmark {
+
+    private static final int ROWS = 500;
+    private static final int BATCH_SIZE = 50;
+
+    @Param({"identity", "batched"})
+    public String mode;
+
+    private Connection connection;
+    private long[] sessionIds;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        Properties props = new Properties();
+        props.setProperty("user", System.getenv("POSTGRES_USER"));
+        props.setProperty("password", System.getenv("POSTGRES_PASSWORD"));
+        props.setProperty("reWriteBatchedInserts", String.valueOf(isBatched()));
+        connection = DriverManager.getConnection(System.getenv("POSTGRES_URL"), props);
+        try (Statement st = connection.createStatement()) {
+            st.execute("DROP TABLE IF EXISTS bench_card, bench_user_session");
+            st.execute("DROP SEQUENCE IF EXISTS bench_card_pk_seq");
+            st.execute("CREATE SEQUENCE bench_card_pk_seq INCREMENT BY " + BATCH_SIZE);
+            st.execute("CREATE TABLE bench_card (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                    + "card_number VARCHAR(255) NOT NULL, last_four VARCHAR(4), owner_id BIGINT NOT NULL, "
+                    + "expire_date DATE NOT NULL, status VARCHAR(32) NOT NULL, balance NUMERIC(19,2) NOT NULL)");
+            st.execute("CREATE TABLE bench_user_session (id BIGSERIAL PRIMARY KEY, user_id BIGINT NOT NULL, "
+                    + "start_time TIMESTAMP NOT NULL, end_time TIMESTAMP)");
+        }
+        connection.setAutoCommit(false);
+    }
+
+    @Setup(Level.Invocation)
+    public void openSessions() throws SQLException {
+        sessionIds = new long[ROWS];
+        try (PreparedStatement ps = connection.prepareStatement(
+                "INSERT INTO bench_user_session (user_id, start_time) "
+                        + "SELECT 1, now() FROM generate_series(1, ?) RETURNING id")) {
+            ps.setInt(1, ROWS);
+            try (ResultSet rs = ps.executeQuery()) {
+                for (int i = 0; rs.next(); i++) {
+                    sessionIds[i] = rs.getLong(1);
+                }
+            }
+        }
+        connection.commit();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.setAutoCommit(true);
+        try (Statement st = connection.createStatement()) {
+            st.execute("DROP TABLE IF EXISTS bench_card, bench_user_session");
+            st.execute("DROP SEQUENCE IF EXISTS bench_card_pk_seq");
+        }
+        connection.close();
+    }
+
+    /**
+     * Выпуск {@value #ROWS} карт в одной транзакции.
+     */
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void insertCards() throws SQLException {
+        if (isBatched()) {
+            insertCardsBatched();
+        } else {
+            insertCardsOneByOne();
+        }
+        connection.commit();
+    }
+
+    /**
+     * Закрытие {@value #ROWS} активных сессий в одной транзакции, как в {@code endOldSessions}.
+     */
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void closeSessions() throws SQLException {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try (PreparedStatement ps = connection.prepareStatement(
+                "UPDATE bench_user_session SET end_time = ? WHERE id = ?")) {
+            for (int i = 0; i < ROWS; i++) {
+                ps.setTimestamp(1, now);
+                ps.setLong(2, sessionIds[i]);
+                if (isBatched()) {
+                    ps.addBatch();
+                    if ((i + 1) % BATCH_SIZE == 0) {
+                        ps.executeBatch();
+                    }
+                } else {
+                    ps.executeUpdate();
+                }
+            }
+            if (isBatched()) {
+                ps.executeBatch();
+            }
+        }
+        connection.commit();
+    }
+
+    private void insertCardsOneByOne() throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(
+                "INSERT INTO bench_card (card_number, last_four, owner_id, expire_date, status, balance) "
+                        + "VALUES (?, ?, ?, ?, ?, ?) RETURNING id")) {
+            for (int i = 0; i < ROWS; i++) {
+                bindCard(ps, 1, i);
+                try (ResultSet rs = ps.executeQuery()) {
+                    rs.next();
+                }
+            }
+        }
+    }
+
+    private void insertCardsBatched() throws SQLException {
+        try (PreparedStatement seq = connection.prepareStatement("SELECT nextval('bench_card_pk_seq')");
+             PreparedStatement ps = connection.prepareStatement(
+                     "INSERT INTO bench_card (id, card_number, last_four, owner_id, expire_date, status, balance) "
+                             + "VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+            long lo = 0;
+            for (int i = 0; i < ROWS; i++) {
+                if (i % BATCH_SIZE == 0) {
+                    try (ResultSet rs = seq.executeQuery()) {
+                        rs.next();
+                        lo = rs.getLong(1);
+                    }
+                }
+                ps.setLong(1, lo + i % BATCH_SIZE);
+                bindCard(ps, 2, i);
+                ps.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    ps.executeBatch();
+                }
+            }
+            ps.executeBatch();
+        }
+    }
+
+    private void bindCard(PreparedStatement ps, int from, int i) throws SQLException {
+        String lastFour = String.format("%04d", i % 10_000);
+        ps.setString(from, "ENCRYPTED-CARD-NUMBER-PLACEHOLDER-" + lastFour);
+        ps.setString(from + 1, lastFour);
+        ps.setLong(from + 2, 1L);
+        ps.setDate(from + 3, Date.valueOf(LocalDate.now().plusYears(3)));
+        ps.setString(from + 4, "ACTIVE");
+        ps.setBigDecimal(from + 5, BigDecimal.ZERO);
+    }
+
+    private boolean isBatched() {
+        return "batched".equals(mode);
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.util.MailTemplate;
+import com.example.bankcards.util.MailUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарк отрисовки писем при массовой рассылке: писем в секунду на поток.
+ * <p>
+ * {@code replaceChain} — прежний способ: цепочка {@link String#replace} по плейсхолдерам ссылки,
+ * email и токена. {@code compiled} — {@link MailTemplate}, разобранный один раз при старте.
+ * Шаблон {@code verify} — текущее письмо верификации, {@code campaign} — HTML-письмо рассылки
+ * размером около 20 КБ с повторяющимися плейсхолдерами. Получатель меняется на каждой итерации.
+ * </p>
+ * <p>
+ * Запуск: {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark=MailTemplateBenchmark}
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class MailTemplateBenchmark {
+
+    private static final String EMAIL = "@EMAIL@";
+    private static final String TOKEN = "@TOKEN@";
+
+    @Param({"verify", "campaign"})
+    public String template;
+
+    private String text;
+    private MailTemplate compiled;
+    private String[] emails;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        text = "verify".equals(template) ? MailUtils.ACCOUNT_VERIFY_TEMPLATE : campaignTemplate();
+        compiled = MailTemplate.compile(text, MailUtils.LINK, EMAIL, TOKEN);
+        emails = new String[1024];
+        for (int i = 0; i < emails.length; i++) {
+            emails[i] = "user" + i + "@example.com";
+        }
+    }
+
+    @Benchmark
+    public String replaceChain() {
+        String email = nextEmail();
+        return text.replace(MailUtils.LINK, "https://bank.example.com/api/authorize/verification?email=" + email)
+                .replace(EMAIL, email)
+                .replace(TOKEN, "4f9c2a7d1e");
+    }
+
+    @Benchmark
+    public String compiled() {
+        String email = nextEmail();
+        return compiled.render("https://bank.example.com/api/authorize/verification?email=" + email,
+                email, "4f9c2a7d1e");
+    }
+
+    private String nextEmail() {
+        return emails[next++ & (emails.length - 1)];
+    }
+
+    private static String campaignTemplate() {
+        StringBuilder html = new StringBuilder("<html><body><h1>Здравствуйте, @EMAIL@!</h1>");
+        for (int i = 0; i < 60; i++) {
+            html.append("<div class=\"offer\"><p style=\"font-size: 16px; color: #333333;\">")
+                    .append("Новое предложение по вашей карте. Подробности по ссылке ниже.</p>")
+                    .append("<a href=\"@LINK@&offer=").append(i).append("\">Открыть</a></div>\n");
+        }
+        html.append("<p>Письмо отправлено на @EMAIL@. Код отписки: @TOKEN@</p></body></html>");
+        return html.toString();
+    }
+}
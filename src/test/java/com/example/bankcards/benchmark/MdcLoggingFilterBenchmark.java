@@ -0,0 +1,88 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.filter.MdcLoggingFilter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарк стоимости {@link MdcLoggingFilter} на один запрос.
+ * <p>
+ * {@code filter} — полный проход фильтра с пустой цепочкой: генерация requestId и trace-контекста,
+ * заполнение и очистка MDC. {@code legacyFilter} — прежняя подготовка MDC
+ * ({@code UUID.randomUUID()} через {@code SecureRandom}, {@code split} заголовка X-Forwarded-For)
+ * для сравнения. Аллокации на запрос видны в колонке {@code gc.alloc.rate.norm} при запуске с профайлером:
+ * {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark="MdcLoggingFilterBenchmark -prof gc"}
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class MdcLoggingFilterBenchmark {
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    private final MdcLoggingFilter filter = new MdcLoggingFilter();
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        request = new MockHttpServletRequest("GET", "/api/cards");
+        request.addHeader("X-Forwarded-For", "203.0.113.7, 10.0.0.1");
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse filter() throws ServletException, IOException {
+        filter.doFilter(request, response, NO_OP_CHAIN);
+        return response;
+    }
+
+    /**
+     * Прежняя подготовка MDC: UUID через SecureRandom, split заголовка и чтение SecurityContext.
+     */
+    @Benchmark
+    public MockHttpServletResponse legacyFilter() {
+        try {
+            MDC.put("requestId", UUID.randomUUID().toString().substring(0, 8));
+            MDC.put("requestUri", request.getRequestURI());
+            MDC.put("httpMethod", request.getMethod());
+            MDC.put("clientIp", request.getHeader("X-Forwarded-For").split(",")[0].trim());
+            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+            if (auth != null) {
+                MDC.put("userEmail", auth.getName());
+            }
+            response.setHeader("X-Request-ID", MDC.get("requestId"));
+            return response;
+        } finally {
+            MDC.remove("requestId");
+            MDC.remove("userId");
+            MDC.remove("userEmail");
+            MDC.remove("clientIp");
+            MDC.remove("requestUri");
+            MDC.remove("httpMethod");
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.config.SecurityBeans;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарк стоимости хеширования паролей: проверок пароля в секунду на одно ядро для каждой настройки.
+ * <p>
+ * Параметр {@code setting} — {@code алгоритм:стоимость} в терминах {@code auth.password-hashing.*}
+ * (для pbkdf2 стоимость не используется). Кодировщик создается тем же
+ * {@link SecurityBeans#createPasswordEncoder(String, int)}, что и в приложении.
+ * Пропускная способность входа ≈ результат {@code matches} × {@code auth.password-hashing.threads};
+ * время одной проверки (1 / результат) должно укладываться в SLO входа с запасом на ожидание в очереди.
+ * </p>
+ * <p>
+ * Запуск: {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark=PasswordHashingBenchmark}
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class PasswordHashingBenchmark {
+
+    private static final String PASSWORD = "Str0ng-Passw0rd!";
+
+    @Param({"bcrypt:8", "bcrypt:10", "bcrypt:12", "pbkdf2:0"})
+    public String setting;
+
+    private PasswordEncoder passwordEncoder;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        String[] parts = setting.split(":");
+        passwordEncoder = SecurityBeans.createPasswordEncoder(parts[0], Math.max(Integer.parseInt(parts[1]), 4));
+        hash = passwordEncoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return passwordEncoder.matches(PASSWORD, hash);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.ratelimit.LocalRateLimitStore;
+import com.example.bankcards.ratelimit.RateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарк проверки лимита для горячего ключа: все потоки обращаются к одной корзине.
+ * <p>
+ * Лимит подобран так, чтобы почти все запросы проходили и каждый делал CAS. {@code stripes} — число полос
+ * корзины: при 1 все потоки спорят за одну ячейку, при большем числе — расходятся по разным.
+ * </p>
+ * <p>
+ * Запуск: {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark=RateLimitBenchmark}
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class RateLimitBenchmark {
+
+    private static final String HOT_KEY = "LOGIN:ip:203.0.113.7";
+
+    @Param({"1", "8"})
+    public int stripes;
+
+    private LocalRateLimitStore store;
+    private RateLimitProperties.Limit limit;
+
+    @Setup
+    public void setUp() {
+        store = new LocalRateLimitStore(new SimpleMeterRegistry());
+        limit = new RateLimitProperties.Limit();
+        limit.setCapacity(1_000_000);
+        limit.setRefillPerMinute(Integer.MAX_VALUE);
+        limit.setStripes(stripes);
+    }
+
+    @Benchmark
+    public long hotKey() {
+        return store.tryAcquire(HOT_KEY, limit);
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.dto.response.BusinessExceptionRespDTO;
+import com.example.bankcards.exception.BadRequestException;
+import com.example.bankcards.exception.RestExceptionHandler;
+import com.example.bankcards.exception.errors.BadRequestError;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарк отклоненного перевода: выброс {@code BadRequestException(INSUFFICIENT_FUNDS)} из глубины стека
+ * и формирование ответа {@link RestExceptionHandler}.
+ * <p>
+ * {@code stackless} — текущее исключение без стектрейса. {@code withStackTrace} — то же исключение
+ * в прежнем виде, с заполнением стека (ответ строится тем же обработчиком). Параметр {@code depth} задает число кадров над местом выброса:
+ * в приложении между контроллером и Tomcat их больше сотни (фильтры, прокси Spring, аспекты).
+ * </p>
+ * <p>
+ * Запуск: {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark=RejectedTransferBenchmark}
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class RejectedTransferBenchmark {
+
+    @Param({"30", "150"})
+    public int depth;
+
+    private final RestExceptionHandler handler = new RestExceptionHandler();
+    private final MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/cards/transfer");
+
+    @Benchmark
+    public BusinessExceptionRespDTO stackless() {
+        try {
+            return transfer(depth);
+        } catch (BadRequestException e) {
+            return handler.handleExceptions(e, request);
+        }
+    }
+
+    @Benchmark
+    public BusinessExceptionRespDTO withStackTrace() {
+        try {
+            return legacyTransfer(depth);
+        } catch (LegacyBadRequestException e) {
+            return handler.handleExceptions(new BadRequestException(e.getMessage(), e.errorName), request);
+        }
+    }
+
+    private static BusinessExceptionRespDTO transfer(int depth) {
+        if (depth > 0) {
+            return transfer(depth - 1);
+        }
+        throw new BadRequestException(BadRequestError.INSUFFICIENT_FUNDS);
+    }
+
+    private static BusinessExceptionRespDTO legacyTransfer(int depth) {
+        if (depth > 0) {
+            return legacyTransfer(depth - 1);
+        }
+        throw new LegacyBadRequestException(BadRequestError.INSUFFICIENT_FUNDS);
+    }
+
+    /**
+     * Бизнес-исключение в прежнем виде: стектрейс заполняется при каждом создании.
+     */
+    private static final class LegacyBadRequestException extends RuntimeException {
+
+        private final String errorName;
+
+        LegacyBadRequestException(BadRequestError error) {
+            super(error.getMessage());
+            this.errorName = error.name();
+        }
+    }
+}
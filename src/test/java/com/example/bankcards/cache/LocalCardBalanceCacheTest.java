@@ -0,0 +1,83 @@
+package com.example.bankcards.cache;
+
+import com.example.bankcards.entity.CardStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalCardBalanceCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final LocalCardBalanceCache cache = new LocalCardBalanceCache(60_000, 2, meterRegistry);
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Значение, прочитанное до удаления, не попадает в кеш")
+    void putIfCurrent_afterEvict_isDiscarded() {
+        long generation = cache.generation();
+        cache.evict(List.of(10L));
+        cache.putIfCurrent(snapshot(10L, 1L), generation);
+
+        assertNull(cache.get(10L));
+
+        cache.putIfCurrent(snapshot(10L, 1L), cache.generation());
+        assertNotNull(cache.get(10L));
+        assertEquals(1.0, meterRegistry.get("card.balance.cache").tag("result", "hit").counter().count());
+    }
+
+    @Test
+    @DisplayName("Внутри транзакции запись удаляется только после фиксации")
+    void evict_insideTransaction_runsAfterCommit() {
+        cache.putIfCurrent(snapshot(10L, 1L), cache.generation());
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.evict(List.of(10L));
+        assertNotNull(cache.get(10L));
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        assertNull(cache.get(10L));
+    }
+
+    @Test
+    @DisplayName("Удаление по владельцу затрагивает только его карты")
+    void evictOwner_removesOwnerCards() {
+        cache.putIfCurrent(snapshot(10L, 1L), cache.generation());
+        cache.putIfCurrent(snapshot(11L, 2L), cache.generation());
+
+        cache.evictOwner(1L);
+
+        assertNull(cache.get(10L));
+        assertNotNull(cache.get(11L));
+    }
+
+    @Test
+    @DisplayName("Новые записи не добавляются сверх лимита")
+    void putIfCurrent_respectsMaxEntries() {
+        cache.putIfCurrent(snapshot(10L, 1L), cache.generation());
+        cache.putIfCurrent(snapshot(11L, 1L), cache.generation());
+        cache.putIfCurrent(snapshot(12L, 1L), cache.generation());
+
+        assertNull(cache.get(12L));
+        assertEquals(2.0, meterRegistry.get("card.balance.cache.size").gauge().value());
+    }
+
+    private static CardBalanceSnapshot snapshot(Long cardId, Long ownerId) {
+        return new CardBalanceSnapshot(cardId, ownerId, 0L, BigDecimal.TEN, CardStatus.ACTIVE, LocalDate.now().plusYears(1));
+    }
+}
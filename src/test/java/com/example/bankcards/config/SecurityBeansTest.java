@@ -0,0 +1,53 @@
+package com.example.bankcards.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SecurityBeansTest {
+
+    @Test
+    @DisplayName("Хеш без префикса проверяется как BCrypt и помечается для пересчета")
+    void legacyHash_matchesAndNeedsUpgrade() {
+        PasswordEncoder passwordEncoder = SecurityBeans.createPasswordEncoder(SecurityBeans.BCRYPT, 4);
+        String legacyHash = new BCryptPasswordEncoder(4).encode("secret");
+
+        assertTrue(passwordEncoder.matches("secret", legacyHash));
+        assertTrue(passwordEncoder.upgradeEncoding(legacyHash));
+    }
+
+    @Test
+    @DisplayName("Новый хеш с префиксом алгоритма не требует пересчета при тех же параметрах")
+    void currentHash_noUpgrade() {
+        PasswordEncoder passwordEncoder = SecurityBeans.createPasswordEncoder(SecurityBeans.BCRYPT, 4);
+
+        String hash = passwordEncoder.encode("secret");
+
+        assertTrue(hash.startsWith("{bcrypt}"));
+        assertTrue(passwordEncoder.matches("secret", hash));
+        assertFalse(passwordEncoder.upgradeEncoding(hash));
+    }
+
+    @Test
+    @DisplayName("Увеличение стоимости или смена алгоритма требуют пересчета, старый хеш по-прежнему проверяется")
+    void changedParameters_needUpgrade() {
+        String hash = SecurityBeans.createPasswordEncoder(SecurityBeans.BCRYPT, 4).encode("secret");
+
+        PasswordEncoder stronger = SecurityBeans.createPasswordEncoder(SecurityBeans.BCRYPT, 5);
+        PasswordEncoder pbkdf2 = SecurityBeans.createPasswordEncoder(SecurityBeans.PBKDF2, 4);
+
+        assertTrue(stronger.upgradeEncoding(hash));
+        assertTrue(pbkdf2.upgradeEncoding(hash));
+        assertTrue(pbkdf2.matches("secret", hash));
+        assertTrue(pbkdf2.encode("secret").startsWith("{pbkdf2}"));
+    }
+
+    @Test
+    @DisplayName("Неизвестный алгоритм — ошибка конфигурации")
+    void unknownAlgorithm() {
+        assertThrows(IllegalArgumentException.class, () -> SecurityBeans.createPasswordEncoder("md5", 10));
+    }
+}
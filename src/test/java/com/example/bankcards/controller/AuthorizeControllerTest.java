@@ -58,7 +58,7 @@ class AuthorizeControllerTest {
         TokenRespDTO resp = new TokenRespDTO();
         resp.setAccessToken("access");
         resp.setRefreshToken("refresh");
-        Mockito.when(authorizeService.authorizeUser(Mockito.any(), Mockito.any())).thenReturn(org.springframework.http.ResponseEntity.ok(resp));
+        Mockito.when(authorizeService.authorizeUser(Mockito.any(), Mockito.any(), Mockito.any())).thenReturn(org.springframework.http.ResponseEntity.ok(resp));
         mockMvc.perform(post("/authorize/login")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content("{\"email\":\"test@gmail.com\",\"password\":\"12345\"}"))
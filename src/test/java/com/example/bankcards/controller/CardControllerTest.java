@@ -6,9 +6,9 @@ import com.example.bankcards.dto.response.CardRespDTO;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.security.RefreshTokenFilter;
 import com.example.bankcards.security.jwt.JwtTokenFilter;
+import com.example.bankcards.service.CardEventService;
 import com.example.bankcards.service.CardService;
-import com.example.bankcards.service.UserService;
-import com.example.bankcards.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,7 +20,10 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.math.BigDecimal;
 import java.util.Collections;
@@ -35,6 +38,11 @@ class CardControllerTest {
     @Autowired
     private MockMvc mockMvc;
 
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
     @TestConfiguration
     static class MockConfig {
         @Bean
@@ -42,12 +50,8 @@ class CardControllerTest {
             return org.mockito.Mockito.mock(CardService.class);
         }
         @Bean
-        public UserService userService() {
-            return org.mockito.Mockito.mock(UserService.class);
-        }
-        @Bean
-        public UserRepository userRepository() {
-            return org.mockito.Mockito.mock(UserRepository.class);
+        public CardEventService cardEventService() {
+            return org.mockito.Mockito.mock(CardEventService.class);
         }
         @Bean
         public JwtTokenFilter jwtTokenFilter() {
@@ -60,13 +64,10 @@ class CardControllerTest {
     }
 
     @Autowired
-    private UserService userService;
-
-    @Autowired
-    private UserRepository userRepository;
+    private CardService cardService;
 
     @Autowired
-    private CardService cardService;
+    private CardEventService cardEventService;
 
     @Autowired
     private JwtTokenFilter jwtTokenFilter;
@@ -81,34 +82,63 @@ class CardControllerTest {
         card.setId(1L);
         card.setMaskedCardNumber("****1234");
         Mockito.when(cardService.getCardById(Mockito.eq(1L), Mockito.any())).thenReturn(card);
-
-        com.example.bankcards.dto.response.UserRespDTO userDto = new com.example.bankcards.dto.response.UserRespDTO();
-        userDto.setEmail("user@gmail.com");
-        userDto.setId(1L);
-        Mockito.when(userService.getCurrentUserInfo()).thenReturn(userDto);
         User user = new User();
         user.setId(1L);
         user.setEmail("user@gmail.com");
-        Mockito.when(userRepository.findByEmail("user@gmail.com")).thenReturn(java.util.Optional.of(user));
+        authenticate(user);
         mockMvc.perform(get("/cards/1"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(1L));
     }
 
+    @Test
+    void getCard_setsETag() throws Exception {
+        CardRespDTO card = new CardRespDTO();
+        card.setId(3L);
+        Mockito.when(cardService.getCardETag(3L)).thenReturn("\"c-3-2-1\"");
+        Mockito.when(cardService.getCardById(Mockito.eq(3L), Mockito.any())).thenReturn(card);
+        User user = new User();
+        user.setId(1L);
+        authenticate(user);
+        mockMvc.perform(get("/cards/3"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"c-3-2-1\""))
+                .andExpect(jsonPath("$.id").value(3L));
+    }
+
+    @Test
+    void getCard_notModified_skipsLoading() throws Exception {
+        Mockito.when(cardService.getCardETag(4L)).thenReturn("\"c-4-2-1\"");
+        User user = new User();
+        user.setId(1L);
+        authenticate(user);
+        mockMvc.perform(get("/cards/4").header("If-None-Match", "\"c-4-2-1\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"c-4-2-1\""))
+                .andExpect(content().string(""));
+        Mockito.verify(cardService, Mockito.never()).getCardById(Mockito.eq(4L), Mockito.any());
+    }
+
+    @Test
+    void getCardBalance_notModified_skipsLoading() throws Exception {
+        Mockito.when(cardService.getCardBalanceETag(5L)).thenReturn("\"b-5-7\"");
+        User user = new User();
+        user.setId(1L);
+        authenticate(user);
+        mockMvc.perform(get("/cards/5/balance").header("If-None-Match", "\"b-5-7\""))
+                .andExpect(status().isNotModified());
+        Mockito.verify(cardService, Mockito.never()).getCardBalance(Mockito.eq(5L), Mockito.any());
+    }
+
     @Test
     void getMyCards_success() throws Exception {
         CardRespDTO card = new CardRespDTO();
         card.setId(1L);
         Mockito.when(cardService.getCardsByOwner(Mockito.any())).thenReturn(Collections.singletonList(card));
-
-        com.example.bankcards.dto.response.UserRespDTO userDto = new com.example.bankcards.dto.response.UserRespDTO();
-        userDto.setEmail("user@gmail.com");
-        userDto.setId(1L);
-        Mockito.when(userService.getCurrentUserInfo()).thenReturn(userDto);
         User user = new User();
         user.setId(1L);
         user.setEmail("user@gmail.com");
-        Mockito.when(userRepository.findByEmail("user@gmail.com")).thenReturn(java.util.Optional.of(user));
+        authenticate(user);
         mockMvc.perform(get("/cards"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id").value(1L));
@@ -120,15 +150,10 @@ class CardControllerTest {
         req.setFromCardId(1L);
         req.setToCardId(2L);
         req.setAmount(BigDecimal.valueOf(100));
-
-        com.example.bankcards.dto.response.UserRespDTO userDto = new com.example.bankcards.dto.response.UserRespDTO();
-        userDto.setEmail("user@gmail.com");
-        userDto.setId(1L);
-        Mockito.when(userService.getCurrentUserInfo()).thenReturn(userDto);
         User user = new User();
         user.setId(1L);
         user.setEmail("user@gmail.com");
-        Mockito.when(userRepository.findByEmail("user@gmail.com")).thenReturn(java.util.Optional.of(user));
+        authenticate(user);
         mockMvc.perform(post("/cards/transfer")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content("{\"fromCardId\":1,\"toCardId\":2,\"amount\":100}"))
@@ -142,20 +167,26 @@ class CardControllerTest {
         resp.setCardId(1L);
         resp.setBalance(BigDecimal.valueOf(500));
         Mockito.when(cardService.getCardBalance(Mockito.eq(1L), Mockito.any())).thenReturn(resp);
-
-        com.example.bankcards.dto.response.UserRespDTO userDto = new com.example.bankcards.dto.response.UserRespDTO();
-        userDto.setEmail("user@gmail.com");
-        userDto.setId(1L);
-        Mockito.when(userService.getCurrentUserInfo()).thenReturn(userDto);
         User user = new User();
         user.setId(1L);
         user.setEmail("user@gmail.com");
-        Mockito.when(userRepository.findByEmail("user@gmail.com")).thenReturn(java.util.Optional.of(user));
+        authenticate(user);
         mockMvc.perform(get("/cards/1/balance"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.balance").value(500));
     }
 
+    @Test
+    void streamCardEvents_startsAsyncStream() throws Exception {
+        Mockito.when(cardEventService.subscribe(7L)).thenReturn(new SseEmitter());
+        User user = new User();
+        user.setId(7L);
+        authenticate(user);
+        mockMvc.perform(get("/cards/events").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+        Mockito.verify(cardEventService).subscribe(7L);
+    }
+
     @Test
     void searchUserCards_success() throws Exception {
         CardRespDTO card = new CardRespDTO();
@@ -163,17 +194,17 @@ class CardControllerTest {
         Pageable pageable = PageRequest.of(0, 10);
         Mockito.when(cardService.searchCards(Mockito.any(), Mockito.anyString(), Mockito.any(Pageable.class)))
                 .thenReturn(new PageImpl<>(Collections.singletonList(card)));
-
-        com.example.bankcards.dto.response.UserRespDTO userDto = new com.example.bankcards.dto.response.UserRespDTO();
-        userDto.setEmail("user@gmail.com");
-        userDto.setId(1L);
-        Mockito.when(userService.getCurrentUserInfo()).thenReturn(userDto);
         User user = new User();
         user.setId(1L);
         user.setEmail("user@gmail.com");
-        Mockito.when(userRepository.findByEmail("user@gmail.com")).thenReturn(java.util.Optional.of(user));
+        authenticate(user);
         mockMvc.perform(get("/cards/search?query=test&page=0&size=10"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.content[0].id").value(1L));
     }
+
+    private static void authenticate(User user) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
 }
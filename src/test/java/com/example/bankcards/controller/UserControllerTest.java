@@ -2,10 +2,12 @@ package com.example.bankcards.controller;
 
 import com.example.bankcards.dto.request.UpdateCurrentUserReqDTO;
 import com.example.bankcards.dto.response.UserRespDTO;
+import com.example.bankcards.entity.User;
 import com.example.bankcards.security.RefreshTokenFilter;
 import com.example.bankcards.security.jwt.JwtTokenFilter;
 import com.example.bankcards.service.UserService;
 import com.example.bankcards.service.impl.CookieServiceImpl;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,6 +16,8 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.web.servlet.MockMvc;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -26,6 +30,11 @@ class UserControllerTest {
     @Autowired
     private MockMvc mockMvc;
 
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
     @TestConfiguration
     static class MockConfig {
         @Bean
@@ -64,10 +73,22 @@ class UserControllerTest {
         UserRespDTO resp = new UserRespDTO();
         resp.setId(1L);
         resp.setEmail("test@gmail.com");
-        Mockito.when(userService.getCurrentUserInfo()).thenReturn(resp);
+        User user = currentUser();
+        Mockito.when(userService.getResponseDTO(user)).thenReturn(resp);
+        authenticate(user);
         mockMvc.perform(get("/users/info"))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"u-1-3\""))
                 .andExpect(jsonPath("$.email").value("test@gmail.com"));
+        Mockito.verify(userService, Mockito.never()).getCurrentUserInfo();
+    }
+
+    @Test
+    void getUserInfo_notModified() throws Exception {
+        authenticate(currentUser());
+        mockMvc.perform(get("/users/info").header("If-None-Match", "\"u-1-3\""))
+                .andExpect(status().isNotModified());
+        Mockito.verify(userService, Mockito.never()).getResponseDTO(Mockito.any());
     }
 
     @Test
@@ -95,4 +116,17 @@ class UserControllerTest {
         Mockito.verify(userService).logout();
         Mockito.verify(cookieService).clearAuthCookies(Mockito.any());
     }
+
+    private static User currentUser() {
+        User user = new User();
+        user.setId(1L);
+        user.setEmail("test@gmail.com");
+        user.setVersion(3L);
+        return user;
+    }
+
+    private static void authenticate(User user) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
 }
@@ -1,13 +1,13 @@
 package com.example.bankcards.controller.admin;
 
+import com.example.bankcards.dto.response.BlockRequestDecisionResultRespDTO;
 import com.example.bankcards.dto.response.CardBlockRequestRespDTO;
-import com.example.bankcards.dto.response.UserRespDTO;
+import com.example.bankcards.entity.CardBlockRequest;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.security.RefreshTokenFilter;
 import com.example.bankcards.security.jwt.JwtTokenFilter;
 import com.example.bankcards.service.CardBlockRequestService;
-import com.example.bankcards.service.UserService;
-import com.example.bankcards.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,9 +15,13 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.web.servlet.MockMvc;
 import java.util.Collections;
-import java.util.Optional;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -28,6 +32,11 @@ class AdminCardBlockRequestControllerTest {
     @Autowired
     private MockMvc mockMvc;
 
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
     @TestConfiguration
     static class MockConfig {
         @Bean
@@ -35,14 +44,6 @@ class AdminCardBlockRequestControllerTest {
             return org.mockito.Mockito.mock(CardBlockRequestService.class);
         }
         @Bean
-        public UserService userService() {
-            return org.mockito.Mockito.mock(UserService.class);
-        }
-        @Bean
-        public UserRepository userRepository() {
-            return org.mockito.Mockito.mock(UserRepository.class);
-        }
-        @Bean
         public JwtTokenFilter jwtTokenFilter() {
             return org.mockito.Mockito.mock(JwtTokenFilter.class);
         }
@@ -55,12 +56,6 @@ class AdminCardBlockRequestControllerTest {
     @Autowired
     private CardBlockRequestService blockRequestService;
 
-    @Autowired
-    private UserService userService;
-
-    @Autowired
-    private UserRepository userRepository;
-
     @Autowired
     private JwtTokenFilter jwtTokenFilter;
 
@@ -78,19 +73,29 @@ class AdminCardBlockRequestControllerTest {
                 .andExpect(jsonPath("$[0].id").value(1L));
     }
 
+    @Test
+    void getBlockRequestQueue_success() throws Exception {
+        CardBlockRequestRespDTO resp = new CardBlockRequestRespDTO();
+        resp.setId(3L);
+        resp.setStatus(CardBlockRequest.Status.PENDING);
+        Mockito.when(blockRequestService.getBlockRequestQueue(Mockito.eq(CardBlockRequest.Status.PENDING),
+                        Mockito.isNull(), Mockito.isNull(), Mockito.any()))
+                .thenReturn(new PageImpl<>(Collections.singletonList(resp), PageRequest.of(0, 20), 1));
+        mockMvc.perform(get("/admin/cards/block-requests/queue"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(3L))
+                .andExpect(jsonPath("$.content[0].status").value("PENDING"));
+    }
+
     @Test
     void approveBlockRequest_success() throws Exception {
         CardBlockRequestRespDTO resp = new CardBlockRequestRespDTO();
         resp.setId(1L);
         Mockito.when(blockRequestService.approveBlockRequest(Mockito.eq(1L), Mockito.any(), Mockito.eq("ok"))).thenReturn(resp);
-
-        UserRespDTO adminDto = new UserRespDTO();
-        adminDto.setEmail("admin@gmail.com");
-        Mockito.when(userService.getCurrentUserInfo()).thenReturn(adminDto);
         User admin = new User();
         admin.setId(1L);
         admin.setEmail("admin@gmail.com");
-        Mockito.when(userRepository.findByEmail("admin@gmail.com")).thenReturn(Optional.of(admin));
+        authenticate(admin);
         mockMvc.perform(post("/admin/cards/block-requests/1/approve?comment=ok"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(1L));
@@ -101,16 +106,43 @@ class AdminCardBlockRequestControllerTest {
         CardBlockRequestRespDTO resp = new CardBlockRequestRespDTO();
         resp.setId(2L);
         Mockito.when(blockRequestService.rejectBlockRequest(Mockito.eq(2L), Mockito.any(), Mockito.eq("bad"))).thenReturn(resp);
-
-        UserRespDTO adminDto = new UserRespDTO();
-        adminDto.setEmail("admin@gmail.com");
-        Mockito.when(userService.getCurrentUserInfo()).thenReturn(adminDto);
         User admin = new User();
         admin.setId(1L);
         admin.setEmail("admin@gmail.com");
-        Mockito.when(userRepository.findByEmail("admin@gmail.com")).thenReturn(Optional.of(admin));
+        authenticate(admin);
         mockMvc.perform(post("/admin/cards/block-requests/2/reject?comment=bad"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(2L));
     }
+
+    @Test
+    void approveBlockRequests_bulk_success() throws Exception {
+        BlockRequestDecisionResultRespDTO ok = new BlockRequestDecisionResultRespDTO(1L, true, CardBlockRequest.Status.APPROVED, null);
+        BlockRequestDecisionResultRespDTO missing = new BlockRequestDecisionResultRespDTO(2L, false, null, "BLOCK_REQUEST_NOT_FOUND");
+        Mockito.when(blockRequestService.approveBlockRequests(Mockito.eq(java.util.List.of(1L, 2L)), Mockito.any(), Mockito.eq("incident")))
+                .thenReturn(java.util.List.of(ok, missing));
+        User admin = new User();
+        admin.setId(1L);
+        admin.setEmail("admin@gmail.com");
+        authenticate(admin);
+        mockMvc.perform(post("/admin/cards/block-requests/bulk/approve")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"requestIds\":[1,2],\"comment\":\"incident\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].success").value(true))
+                .andExpect(jsonPath("$[1].error").value("BLOCK_REQUEST_NOT_FOUND"));
+    }
+
+    @Test
+    void approveBlockRequests_bulk_emptyIds() throws Exception {
+        mockMvc.perform(post("/admin/cards/block-requests/bulk/approve")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"requestIds\":[]}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private static void authenticate(User user) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
 }
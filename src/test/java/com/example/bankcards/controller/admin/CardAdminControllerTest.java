@@ -5,14 +5,15 @@ import com.example.bankcards.entity.User;
 import com.example.bankcards.security.RefreshTokenFilter;
 import com.example.bankcards.security.jwt.JwtTokenFilter;
 import com.example.bankcards.service.CardService;
-import com.example.bankcards.service.UserService;
-import com.example.bankcards.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.web.servlet.MockMvc;
 
 import org.springframework.boot.test.context.TestConfiguration;
@@ -30,6 +31,16 @@ class CardAdminControllerTest {
     @Autowired
     private MockMvc mockMvc;
 
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @AfterEach
+    void resetMocks() {
+        Mockito.reset(cardService);
+    }
+
     @TestConfiguration
     static class MockConfig {
         @Bean
@@ -37,14 +48,6 @@ class CardAdminControllerTest {
             return org.mockito.Mockito.mock(CardService.class);
         }
         @Bean
-        public UserService userService() {
-            return org.mockito.Mockito.mock(UserService.class);
-        }
-        @Bean
-        public UserRepository userRepository() {
-            return org.mockito.Mockito.mock(UserRepository.class);
-        }
-        @Bean
         public JwtTokenFilter jwtTokenFilter() {
             return org.mockito.Mockito.mock(JwtTokenFilter.class);
         }
@@ -54,12 +57,6 @@ class CardAdminControllerTest {
         }
     }
 
-    @Autowired
-    private UserService userService;
-
-    @Autowired
-    private UserRepository userRepository;
-
     @Autowired
     private CardService cardService;
 
@@ -84,15 +81,10 @@ class CardAdminControllerTest {
 
     @Test
     void blockCard_success() throws Exception {
-
-        com.example.bankcards.dto.response.UserRespDTO adminDto = new com.example.bankcards.dto.response.UserRespDTO();
-        adminDto.setEmail("admin@gmail.com");
-        adminDto.setId(1L);
-        Mockito.when(userService.getCurrentUserInfo()).thenReturn(adminDto);
         User admin = new User();
         admin.setId(1L);
         admin.setEmail("admin@gmail.com");
-        Mockito.when(userRepository.findByEmail("admin@gmail.com")).thenReturn(java.util.Optional.of(admin));
+        authenticate(admin);
         Mockito.doNothing().when(cardService).blockCard(Mockito.eq(1L), Mockito.any());
         mockMvc.perform(patch("/admin/cards/1/block"))
                 .andExpect(status().isOk());
@@ -101,15 +93,10 @@ class CardAdminControllerTest {
 
     @Test
     void activateCard_success() throws Exception {
-
-        com.example.bankcards.dto.response.UserRespDTO adminDto = new com.example.bankcards.dto.response.UserRespDTO();
-        adminDto.setEmail("admin@gmail.com");
-        adminDto.setId(1L);
-        Mockito.when(userService.getCurrentUserInfo()).thenReturn(adminDto);
         User admin = new User();
         admin.setId(1L);
         admin.setEmail("admin@gmail.com");
-        Mockito.when(userRepository.findByEmail("admin@gmail.com")).thenReturn(java.util.Optional.of(admin));
+        authenticate(admin);
         Mockito.doNothing().when(cardService).activateCard(Mockito.eq(1L), Mockito.any());
         mockMvc.perform(patch("/admin/cards/1/activate"))
                 .andExpect(status().isOk());
@@ -118,15 +105,10 @@ class CardAdminControllerTest {
 
     @Test
     void deleteCard_success() throws Exception {
-
-        com.example.bankcards.dto.response.UserRespDTO adminDto = new com.example.bankcards.dto.response.UserRespDTO();
-        adminDto.setEmail("admin@gmail.com");
-        adminDto.setId(1L);
-        Mockito.when(userService.getCurrentUserInfo()).thenReturn(adminDto);
         User admin = new User();
         admin.setId(1L);
         admin.setEmail("admin@gmail.com");
-        Mockito.when(userRepository.findByEmail("admin@gmail.com")).thenReturn(java.util.Optional.of(admin));
+        authenticate(admin);
         Mockito.doNothing().when(cardService).deleteCard(Mockito.eq(1L), Mockito.any());
         mockMvc.perform(delete("/admin/cards/1"))
                 .andExpect(status().isOk());
@@ -145,18 +127,105 @@ class CardAdminControllerTest {
 
     @Test
     void updateCardBalanceForTest_success() throws Exception {
-
-        com.example.bankcards.dto.response.UserRespDTO adminDto = new com.example.bankcards.dto.response.UserRespDTO();
-        adminDto.setEmail("admin@gmail.com");
-        adminDto.setId(1L);
-        Mockito.when(userService.getCurrentUserInfo()).thenReturn(adminDto);
         User admin = new User();
         admin.setId(1L);
         admin.setEmail("admin@gmail.com");
-        Mockito.when(userRepository.findByEmail("admin@gmail.com")).thenReturn(java.util.Optional.of(admin));
+        authenticate(admin);
         Mockito.doNothing().when(cardService).updateCardBalance(Mockito.eq(1L), Mockito.eq(BigDecimal.valueOf(1000)), Mockito.any());
         mockMvc.perform(patch("/admin/cards/1/test-balance?balance=1000"))
                 .andExpect(status().isNoContent());
         Mockito.verify(cardService).updateCardBalance(Mockito.eq(1L), Mockito.eq(BigDecimal.valueOf(1000)), Mockito.any());
     }
+
+    @Test
+    void blockCards_bulk_success() throws Exception {
+        User admin = new User();
+        admin.setId(1L);
+        admin.setEmail("admin@gmail.com");
+        authenticate(admin);
+        Mockito.when(cardService.blockCards(Mockito.any(), Mockito.any()))
+                .thenReturn(new com.example.bankcards.dto.response.BulkCardStatusRespDTO(
+                        com.example.bankcards.entity.CardStatus.BLOCKED, 4));
+        mockMvc.perform(patch("/admin/cards/bulk/block")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ownerId\":5}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("BLOCKED"))
+                .andExpect(jsonPath("$.affected").value(4));
+    }
+
+    @Test
+    void issueCards_streamsNdjson() throws Exception {
+        User admin = new User();
+        admin.setId(1L);
+        admin.setEmail("admin@gmail.com");
+        authenticate(admin);
+        CardRespDTO first = new CardRespDTO();
+        first.setId(1L);
+        CardRespDTO second = new CardRespDTO();
+        second.setId(2L);
+        Mockito.when(cardService.issueCards(Mockito.any(), Mockito.any(), Mockito.any())).thenAnswer(invocation -> {
+            java.util.function.Consumer<java.util.List<CardRespDTO>> sink = invocation.getArgument(2);
+            sink.accept(java.util.List.of(first));
+            sink.accept(java.util.List.of(second));
+            return 2;
+        });
+        String body = mockMvc.perform(post("/admin/cards/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ownerIds\":[5,6]}"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+        java.util.List<String> lines = body.lines().toList();
+        org.junit.jupiter.api.Assertions.assertEquals(3, lines.size());
+        org.junit.jupiter.api.Assertions.assertTrue(lines.get(0).contains("\"id\":1"));
+        org.junit.jupiter.api.Assertions.assertEquals("{\"status\":\"COMPLETED\",\"issued\":2}", lines.get(2));
+    }
+
+    @Test
+    void issueCards_failureAfterFirstChunk_endsWithFailedRecord() throws Exception {
+        User admin = new User();
+        admin.setId(1L);
+        admin.setEmail("admin@gmail.com");
+        authenticate(admin);
+        CardRespDTO first = new CardRespDTO();
+        first.setId(1L);
+        Mockito.when(cardService.issueCards(Mockito.any(), Mockito.any(), Mockito.any())).thenAnswer(invocation -> {
+            java.util.function.Consumer<java.util.List<CardRespDTO>> sink = invocation.getArgument(2);
+            sink.accept(java.util.List.of(first));
+            throw new com.example.bankcards.exception.EncryptionException("vault unavailable", "ENCRYPTION_FAILED");
+        });
+        String body = mockMvc.perform(post("/admin/cards/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ownerIds\":[5,6]}"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+        java.util.List<String> lines = body.lines().toList();
+        org.junit.jupiter.api.Assertions.assertEquals(2, lines.size());
+        org.junit.jupiter.api.Assertions.assertTrue(lines.get(0).contains("\"id\":1"));
+        org.junit.jupiter.api.Assertions.assertEquals(
+                "{\"status\":\"FAILED\",\"issued\":1,\"error\":\"ENCRYPTION_FAILED\"}", lines.get(1));
+    }
+
+    @Test
+    void issueCards_failureBeforeFirstChunk_returnsJsonError() throws Exception {
+        User admin = new User();
+        admin.setId(1L);
+        admin.setEmail("admin@gmail.com");
+        authenticate(admin);
+        Mockito.when(cardService.issueCards(Mockito.any(), Mockito.any(), Mockito.any()))
+                .thenThrow(new com.example.bankcards.exception.NotFoundException(
+                        com.example.bankcards.exception.errors.NotFoundError.USER_NOT_FOUND));
+        mockMvc.perform(post("/admin/cards/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ownerIds\":[5,6]}"))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    private static void authenticate(User user) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
 }
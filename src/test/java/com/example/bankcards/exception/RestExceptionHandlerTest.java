@@ -0,0 +1,68 @@
+package com.example.bankcards.exception;
+
+import com.example.bankcards.dto.response.BusinessExceptionRespDTO;
+import com.example.bankcards.exception.errors.BadRequestError;
+import com.example.bankcards.exception.errors.NotFoundError;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RestExceptionHandlerTest {
+
+    private final RestExceptionHandler handler = new RestExceptionHandler();
+
+    @Test
+    @DisplayName("Бизнес-исключения создаются без стектрейса")
+    void businessExceptions_stackless() {
+        BadRequestException badRequest = new BadRequestException(BadRequestError.INSUFFICIENT_FUNDS);
+        NotFoundException notFound = new NotFoundException(NotFoundError.CARD_NOT_FOUND);
+
+        assertEquals(0, badRequest.getStackTrace().length);
+        assertEquals(0, notFound.getStackTrace().length);
+        assertEquals("INSUFFICIENT_FUNDS", badRequest.getErrorName());
+        assertEquals(BadRequestError.INSUFFICIENT_FUNDS.getMessage(), badRequest.getMessage());
+    }
+
+    @Test
+    @DisplayName("Ответ 400 для отклоненного перевода")
+    void handleBadRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/cards/transfer");
+
+        BusinessExceptionRespDTO dto = handler.handleExceptions(
+                new BadRequestException(BadRequestError.INSUFFICIENT_FUNDS), request);
+
+        assertEquals(400L, dto.getStatus());
+        assertEquals("INSUFFICIENT_FUNDS", dto.getError());
+        assertEquals("/api/cards/transfer", dto.getPath());
+    }
+
+    @Test
+    @DisplayName("Фрагмент стектрейса совпадает с прежним форматом и ограничен по длине")
+    void formatStackTrace_matchesLegacyFormat() {
+        IllegalStateException ex = new IllegalStateException("boom");
+        String legacy = Arrays.stream(ex.getStackTrace())
+                .map(StackTraceElement::toString)
+                .reduce("", (frstStr, scndStr) -> frstStr + "\n " + scndStr);
+        legacy = legacy.length() > 200 ? legacy.substring(0, 200) : legacy;
+
+        assertEquals(legacy, RestExceptionHandler.formatStackTrace(ex, 200));
+        assertEquals("", RestExceptionHandler.formatStackTrace(new BadRequestException(BadRequestError.NO_ACCESS), 200));
+    }
+
+    @Test
+    @DisplayName("Ответ 500 содержит фрагмент стектрейса")
+    void handleThrowable() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/cards");
+
+        BusinessExceptionRespDTO dto = handler.handleExceptions((Throwable) new IllegalStateException("boom"), request);
+
+        assertEquals(500L, dto.getStatus());
+        assertEquals("INTERNAL_SERVER_ERROR", dto.getError());
+        assertTrue(dto.getDebugInfo().startsWith("\n "));
+        assertTrue(dto.getDebugInfo().length() <= 200);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.bankcards.filter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MdcLoggingFilterTest {
+
+    private final MdcLoggingFilter filter = new MdcLoggingFilter();
+
+    @Test
+    @DisplayName("Контекст запроса доступен в цепочке и очищается после нее")
+    void doFilter_populatesAndClearsMdc() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/cards");
+        request.addHeader("X-Forwarded-For", "203.0.113.7, 10.0.0.1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        Map<String, String> captured = new HashMap<>();
+
+        filter.doFilter(request, response, (req, res) -> captured.putAll(MDC.getCopyOfContextMap()));
+
+        assertEquals("203.0.113.7", captured.get("clientIp"));
+        assertEquals(captured.get("requestId"), response.getHeader("X-Request-ID"));
+        assertNull(MDC.get("requestId"));
+        assertNull(MDC.get("clientIp"));
+    }
+
+    @Test
+    @DisplayName("Идентификаторы запросов уникальны")
+    void nextRequestId_unique() {
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(MdcLoggingFilter.nextRequestId());
+        }
+        assertEquals(10_000, ids.size());
+    }
+
+    @Test
+    @DisplayName("Данные пользователя добавляются после аутентификации и очищаются фильтром")
+    void putUser_clearedAfterRequest() throws Exception {
+        Map<String, String> captured = new HashMap<>();
+        try {
+            filter.doFilter(new MockHttpServletRequest("GET", "/api/cards"), new MockHttpServletResponse(),
+                    (req, res) -> {
+                        MdcLoggingFilter.putUser(42L, "user@example.com");
+                        captured.putAll(MDC.getCopyOfContextMap());
+                    });
+
+            assertEquals("42", captured.get("userId"));
+            assertEquals("user@example.com", captured.get("userEmail"));
+            assertNull(MDC.get("userId"));
+        } finally {
+            MDC.clear();
+        }
+    }
+}
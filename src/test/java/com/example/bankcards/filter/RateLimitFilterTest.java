@@ -0,0 +1,216 @@
+package com.example.bankcards.filter;
+
+import com.example.bankcards.exception.TooManyRequestsException;
+import com.example.bankcards.ratelimit.LocalRateLimitStore;
+import com.example.bankcards.ratelimit.RateLimitProperties;
+import com.example.bankcards.ratelimit.RateLimitRoute;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.apache.catalina.Valve;
+import org.apache.catalina.connector.Connector;
+import org.apache.catalina.connector.Request;
+import org.apache.catalina.connector.Response;
+import org.apache.catalina.core.StandardContext;
+import org.apache.catalina.valves.RemoteIpValve;
+import org.apache.catalina.valves.ValveBase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.autoconfigure.web.embedded.TomcatWebServerFactoryCustomizer;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger passed = new AtomicInteger();
+    private final FilterChain chain = (request, response) -> passed.incrementAndGet();
+
+    private RateLimitProperties properties;
+    private LocalRateLimitStore store;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RateLimitProperties();
+        properties.getRoutes().put(RateLimitRoute.LOGIN, limit(2));
+        properties.getRoutes().put(RateLimitRoute.TRANSFER, limit(1));
+        store = new LocalRateLimitStore(meterRegistry);
+        filter = new RateLimitFilter(properties, store, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Вход сверх лимита с одного IP получает 429 с Retry-After, другой IP не затронут")
+    void login_limitedPerIp() throws Exception {
+        filter.doFilter(login("203.0.113.7"), new MockHttpServletResponse(), chain);
+        filter.doFilter(login("203.0.113.7"), new MockHttpServletResponse(), chain);
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        assertThrows(TooManyRequestsException.class, () -> filter.doFilter(login("203.0.113.7"), rejected, chain));
+        assertEquals("30", rejected.getHeader("Retry-After"));
+        assertEquals(1.0, meterRegistry.counter("rate_limit.rejected", "route", "LOGIN", "store", "local").count());
+
+        filter.doFilter(login("203.0.113.8"), new MockHttpServletResponse(), chain);
+        assertEquals(3, passed.get());
+    }
+
+    @Test
+    @DisplayName("Перевод ограничивается по пользователю, а не по IP")
+    void transfer_limitedPerUser() throws Exception {
+        authenticate("alice@example.com");
+        filter.doFilter(transfer("10.0.0.1"), new MockHttpServletResponse(), chain);
+        assertThrows(TooManyRequestsException.class,
+                () -> filter.doFilter(transfer("10.0.0.2"), new MockHttpServletResponse(), chain));
+
+        authenticate("bob@example.com");
+        filter.doFilter(transfer("10.0.0.1"), new MockHttpServletResponse(), chain);
+        assertEquals(2, passed.get());
+    }
+
+    @Test
+    @DisplayName("Маршруты без лимита и выключенное ограничение не проверяются")
+    void unlimitedAndDisabled() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            filter.doFilter(new MockHttpServletRequest("GET", "/cards"), new MockHttpServletResponse(), chain);
+            filter.doFilter(new MockHttpServletRequest("POST", "/authorize/register"), new MockHttpServletResponse(), chain);
+        }
+        properties.setEnabled(false);
+        for (int i = 0; i < 5; i++) {
+            filter.doFilter(login("203.0.113.7"), new MockHttpServletResponse(), chain);
+        }
+
+        assertEquals(15, passed.get());
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    @DisplayName("Узлы с общим хранилищем делят один лимит")
+    void sharedStore_limitAcrossNodes() throws Exception {
+        List<RateLimitFilter> nodes = List.of(filter, new RateLimitFilter(properties, store, meterRegistry));
+
+        nodes.get(0).doFilter(login("203.0.113.7"), new MockHttpServletResponse(), chain);
+        nodes.get(1).doFilter(login("203.0.113.7"), new MockHttpServletResponse(), chain);
+
+        assertThrows(TooManyRequestsException.class,
+                () -> nodes.get(0).doFilter(login("203.0.113.7"), new MockHttpServletResponse(), chain));
+        assertThrows(TooManyRequestsException.class,
+                () -> nodes.get(1).doFilter(login("203.0.113.7"), new MockHttpServletResponse(), chain));
+    }
+
+    @Test
+    @DisplayName("Подставной X-Forwarded-For от клиента не меняет ключ лимита входа")
+    void login_spoofedForwardedForIgnored() throws Exception {
+        RemoteIpValve remoteIpValve = remoteIpValve();
+
+        loginThrough(remoteIpValve, "203.0.113.7", "198.51.100.1");
+        loginThrough(remoteIpValve, "203.0.113.7", "198.51.100.2");
+
+        assertThrows(TooManyRequestsException.class,
+                () -> loginThrough(remoteIpValve, "203.0.113.7", "198.51.100.3"));
+        assertEquals(2, passed.get());
+    }
+
+    @Test
+    @DisplayName("За доверенным прокси лимит входа считается по адресу клиента из X-Forwarded-For")
+    void login_trustedProxyForwardedForUsed() throws Exception {
+        RemoteIpValve remoteIpValve = remoteIpValve();
+
+        loginThrough(remoteIpValve, "127.0.0.1", "198.51.100.1");
+        loginThrough(remoteIpValve, "127.0.0.1", "198.51.100.1");
+        loginThrough(remoteIpValve, "127.0.0.1", "198.51.100.2");
+
+        assertThrows(TooManyRequestsException.class,
+                () -> loginThrough(remoteIpValve, "127.0.0.1", "203.0.113.7, 198.51.100.1"));
+        assertEquals(3, passed.get());
+    }
+
+    /**
+     * Собирает {@link RemoteIpValve} так же, как Spring Boot при запуске приложения с настройками из application.yml.
+     */
+    private RemoteIpValve remoteIpValve() throws Exception {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().remove(StandardEnvironment.SYSTEM_ENVIRONMENT_PROPERTY_SOURCE_NAME);
+        environment.getPropertySources().addFirst(new MapPropertySource("test", Map.of("SERVER_PORT", "0")));
+        new YamlPropertySourceLoader().load("application", new ClassPathResource("application.yml"))
+                .forEach(environment.getPropertySources()::addLast);
+        ServerProperties serverProperties = Binder.get(environment).bind("server", ServerProperties.class).get();
+        TomcatServletWebServerFactory factory = new TomcatServletWebServerFactory();
+        new TomcatWebServerFactoryCustomizer(environment, serverProperties).customize(factory);
+        return factory.getEngineValves().stream()
+                .filter(RemoteIpValve.class::isInstance)
+                .map(RemoteIpValve.class::cast)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    /**
+     * Пропускает запрос на вход от {@code peer} с заголовком X-Forwarded-For через valve и затем через фильтр.
+     */
+    private void loginThrough(RemoteIpValve remoteIpValve, String peer, String forwardedFor) throws Exception {
+        org.apache.coyote.Request coyoteRequest = new org.apache.coyote.Request();
+        coyoteRequest.method().setString("POST");
+        coyoteRequest.requestURI().setString("/authorize/login");
+        coyoteRequest.getMimeHeaders().addValue("X-Forwarded-For").setString(forwardedFor);
+        Request request = new Request(new Connector());
+        request.setCoyoteRequest(coyoteRequest);
+        request.setRemoteAddr(peer);
+        request.setRemoteHost(peer);
+        request.getMappingData().context = new StandardContext();
+        Response response = new Response();
+        response.setCoyoteResponse(new org.apache.coyote.Response());
+
+        Valve next = new ValveBase() {
+            @Override
+            public void invoke(Request request, Response response) throws java.io.IOException, jakarta.servlet.ServletException {
+                filter.doFilter(request.getRequest(), response.getResponse(), chain);
+            }
+        };
+        remoteIpValve.setNext(next);
+        remoteIpValve.invoke(request, response);
+    }
+
+    private MockHttpServletRequest login(String ip) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/authorize/login");
+        request.setRemoteAddr(ip);
+        return request;
+    }
+
+    private MockHttpServletRequest transfer(String ip) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/cards/transfer");
+        request.setRemoteAddr(ip);
+        return request;
+    }
+
+    private void authenticate(String email) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(email, null, List.of()));
+    }
+
+    private RateLimitProperties.Limit limit(int capacity) {
+        RateLimitProperties.Limit limit = new RateLimitProperties.Limit();
+        limit.setCapacity(capacity);
+        limit.setRefillPerMinute(2);
+        return limit;
+    }
+}
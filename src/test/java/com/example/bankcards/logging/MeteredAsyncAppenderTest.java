@@ -0,0 +1,95 @@
+package com.example.bankcards.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MeteredAsyncAppenderTest {
+
+    private LoggerContext context;
+    private MeteredAsyncAppender appender;
+    private final CountDownLatch workerBlocked = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final List<ILoggingEvent> written = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        context = new LoggerContext();
+        context.setMDCAdapter(new LogbackMDCAdapter());
+
+        AppenderBase<ILoggingEvent> slowAppender = new AppenderBase<>() {
+            @Override
+            protected void append(ILoggingEvent event) {
+                workerBlocked.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                written.add(event);
+            }
+        };
+        slowAppender.setContext(context);
+        slowAppender.start();
+
+        appender = new MeteredAsyncAppender();
+        appender.setContext(context);
+        appender.setQueueSize(4);
+        appender.setDiscardingThreshold(2);
+        appender.addAppender(slowAppender);
+        appender.start();
+
+        // Первое событие забирает фоновый поток и зависает на медленном appender'е
+        appender.doAppend(event(Level.INFO));
+        assertTrue(workerBlocked.await(5, TimeUnit.SECONDS));
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        appender.stop();
+    }
+
+    @Test
+    @DisplayName("При заполнении очереди INFO отбрасывается и учитывается, WARN сохраняется")
+    void doAppend_discardsInfoButKeepsWarn() {
+        appender.doAppend(event(Level.INFO));
+        appender.doAppend(event(Level.INFO));
+        appender.doAppend(event(Level.INFO));
+        appender.doAppend(event(Level.DEBUG));
+        appender.doAppend(event(Level.WARN));
+
+        assertEquals(1, appender.getDiscardedCount());
+        assertEquals(4, appender.getNumberOfElementsInQueue());
+
+        release.countDown();
+        appender.stop();
+
+        assertEquals(5, written.size());
+        assertEquals(Level.WARN, written.get(4).getLevel());
+    }
+
+    private LoggingEvent event(Level level) {
+        LoggingEvent event = new LoggingEvent();
+        event.setLevel(level);
+        event.setLoggerName("test");
+        event.setMessage("message");
+        event.setLoggerContext(context);
+        event.setTimeStamp(System.currentTimeMillis());
+        return event;
+    }
+}
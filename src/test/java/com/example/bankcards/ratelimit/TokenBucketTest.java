@@ -0,0 +1,61 @@
+package com.example.bankcards.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    @DisplayName("Корзина пропускает capacity запросов подряд и сообщает время до следующего токена")
+    void burstThenReject() {
+        TokenBucket bucket = new TokenBucket(limit(3, 60, 1), 0);
+
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(SECOND, bucket.tryAcquire(0));
+        assertFalse(bucket.isIdle(0));
+
+        assertEquals(SECOND / 2, bucket.tryAcquire(SECOND / 2));
+        assertEquals(0, bucket.tryAcquire(SECOND));
+        assertFalse(bucket.isIdle(3 * SECOND));
+        assertTrue(bucket.isIdle(4 * SECOND));
+    }
+
+    @Test
+    @DisplayName("Полосы сохраняют суммарную емкость")
+    void stripesKeepTotalCapacity() {
+        TokenBucket bucket = new TokenBucket(limit(8, 60, 4), 0);
+
+        int allowed = 0;
+        for (int i = 0; i < 20; i++) {
+            if (bucket.tryAcquire(0) == 0) {
+                allowed++;
+            }
+        }
+
+        assertEquals(8, allowed);
+        // Каждая полоса пополняется раз в 4 секунды: через 4 секунды доступно 4 токена
+        int refilled = 0;
+        for (int i = 0; i < 20; i++) {
+            if (bucket.tryAcquire(4 * SECOND) == 0) {
+                refilled++;
+            }
+        }
+        assertEquals(4, refilled);
+    }
+
+    static RateLimitProperties.Limit limit(int capacity, int refillPerMinute, int stripes) {
+        RateLimitProperties.Limit limit = new RateLimitProperties.Limit();
+        limit.setCapacity(capacity);
+        limit.setRefillPerMinute(refillPerMinute);
+        limit.setStripes(stripes);
+        return limit;
+    }
+}
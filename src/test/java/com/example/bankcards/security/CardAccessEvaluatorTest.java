@@ -0,0 +1,105 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.CardRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class CardAccessEvaluatorTest {
+
+    @Mock
+    private CardRepository cardRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private CardAccessEvaluator evaluator;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        evaluator = new CardAccessEvaluator(cardRepository, meterRegistry, 30_000, 100);
+    }
+
+    @Test
+    @DisplayName("Владелец получает доступ, владелец кешируется после первого запроса")
+    void canAccess_owner_cachesOwnerId() {
+        when(cardRepository.findOwnerIdById(10L)).thenReturn(Optional.of(1L));
+        Authentication owner = authentication(1L, Role.USER);
+
+        assertTrue(evaluator.canAccess(10L, owner));
+        assertTrue(evaluator.canAccess(10L, owner));
+
+        verify(cardRepository, times(1)).findOwnerIdById(10L);
+        assertEquals(1.0, meterRegistry.get("card.access.cache").tag("result", "hit").counter().count());
+        assertEquals(1.0, meterRegistry.get("card.access.cache.size").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Чужая и несуществующая карта недоступны; отсутствие карты не кешируется")
+    void canAccess_notOwner_denied() {
+        when(cardRepository.findOwnerIdById(10L)).thenReturn(Optional.of(1L));
+        when(cardRepository.findOwnerIdById(99L)).thenReturn(Optional.empty());
+        Authentication other = authentication(2L, Role.USER);
+
+        assertFalse(evaluator.canAccess(10L, other));
+        assertFalse(evaluator.canAccess(99L, other));
+        assertFalse(evaluator.canAccess(99L, other));
+
+        verify(cardRepository, times(2)).findOwnerIdById(99L);
+    }
+
+    @Test
+    @DisplayName("Администратор получает доступ без запроса владельца")
+    void canAccess_admin_skipsQuery() {
+        assertTrue(evaluator.canAccess(10L, authentication(5L, Role.ADMIN)));
+
+        verify(cardRepository, never()).findOwnerIdById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Principal без сущности пользователя не получает доступ")
+    void canAccess_withoutUserPrincipal_denied() {
+        Authentication byEmail = new UsernamePasswordAuthenticationToken("user@gmail.com", null, List.of(Role.USER));
+
+        assertFalse(evaluator.canAccess(10L, byEmail));
+        assertFalse(evaluator.canAccess(10L, null));
+        verify(cardRepository, never()).findOwnerIdById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Истекшие записи перезапрашиваются и удаляются по расписанию")
+    void expiredEntries_areReloadedAndEvicted() {
+        evaluator = new CardAccessEvaluator(cardRepository, meterRegistry, 0, 100);
+        when(cardRepository.findOwnerIdById(10L)).thenReturn(Optional.of(1L));
+        Authentication owner = authentication(1L, Role.USER);
+
+        assertTrue(evaluator.canAccess(10L, owner));
+        assertTrue(evaluator.canAccess(10L, owner));
+        evaluator.evictExpired();
+
+        verify(cardRepository, times(2)).findOwnerIdById(10L);
+        assertEquals(0.0, meterRegistry.get("card.access.cache.size").gauge().value());
+    }
+
+    private static Authentication authentication(Long userId, Role role) {
+        User user = new User();
+        user.setId(userId);
+        user.setEmail("user" + userId + "@gmail.com");
+        user.setRoles(Set.of(role));
+        return new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+    }
+}
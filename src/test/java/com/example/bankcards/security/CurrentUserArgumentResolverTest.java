@@ -0,0 +1,64 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.AuthorizeException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CurrentUserArgumentResolverTest {
+
+    private final CurrentUserArgumentResolver resolver = new CurrentUserArgumentResolver();
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Поддерживаются только параметры User с аннотацией @CurrentUser")
+    void supportsParameter_requiresAnnotatedUser() throws Exception {
+        assertTrue(resolver.supportsParameter(parameter(0)));
+        assertFalse(resolver.supportsParameter(parameter(1)));
+        assertFalse(resolver.supportsParameter(parameter(2)));
+    }
+
+    @Test
+    @DisplayName("Возвращается пользователь из principal аутентификации")
+    void resolveArgument_returnsPrincipal() throws Exception {
+        User user = new User();
+        user.setId(1L);
+        user.setEmail("user@gmail.com");
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+
+        assertSame(user, resolver.resolveArgument(parameter(0), null, null, null));
+    }
+
+    @Test
+    @DisplayName("Без аутентифицированного пользователя выбрасывается AuthorizeException")
+    void resolveArgument_withoutUser_throws() throws Exception {
+        assertThrows(AuthorizeException.class, () -> resolver.resolveArgument(parameter(0), null, null, null));
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("user@gmail.com", null, List.of()));
+        assertThrows(AuthorizeException.class, () -> resolver.resolveArgument(parameter(0), null, null, null));
+    }
+
+    private static MethodParameter parameter(int index) throws NoSuchMethodException {
+        return new MethodParameter(Handler.class.getDeclaredMethod("handle", User.class, User.class, String.class), index);
+    }
+
+    @SuppressWarnings("unused")
+    private static class Handler {
+        void handle(@CurrentUser User current, User other, @CurrentUser String email) {
+        }
+    }
+}
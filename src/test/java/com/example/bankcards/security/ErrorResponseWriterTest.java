@@ -0,0 +1,63 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.exception.AuthorizeException;
+import com.example.bankcards.exception.NotFoundException;
+import com.example.bankcards.exception.RestExceptionHandler;
+import com.example.bankcards.exception.TooManyRequestsException;
+import com.example.bankcards.exception.errors.AuthorizedError;
+import com.example.bankcards.exception.errors.NotFoundError;
+import com.example.bankcards.exception.errors.TooManyRequestsError;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ErrorResponseWriterTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final ErrorResponseWriter errorResponseWriter = new ErrorResponseWriter(new RestExceptionHandler(), objectMapper);
+    private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/cards/1");
+
+    @Test
+    @DisplayName("Тип исключения определяет статус и имя ошибки")
+    void write_mapsExceptionTypes() throws Exception {
+        assertResponse(new NotFoundException(NotFoundError.CARD_NOT_FOUND), 404, "CARD_NOT_FOUND");
+        assertResponse(new AccessDeniedException("denied"), 403, "FORBIDDEN");
+        assertResponse(new BadCredentialsException("bad"), 401, "BAD_CREDENTIALS");
+        assertResponse(new AuthorizeException(AuthorizedError.TOKEN_WAS_EXPIRED), 401, "TOKEN_WAS_EXPIRED");
+        assertResponse(new TooManyRequestsException(TooManyRequestsError.LOGIN_OVERLOADED), 429, "LOGIN_OVERLOADED");
+        assertResponse(new IllegalStateException("boom"), 500, "INTERNAL_SERVER_ERROR");
+    }
+
+    @Test
+    @DisplayName("Если Writer ответа уже открыт, тело пишется через него")
+    void write_fallsBackToWriter() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.getWriter();
+
+        errorResponseWriter.write(new NotFoundException(NotFoundError.USER_NOT_FOUND), request, response);
+
+        JsonNode body = objectMapper.readTree(response.getContentAsString());
+        assertEquals("USER_NOT_FOUND", body.get("error").asText());
+    }
+
+    private void assertResponse(Throwable ex, int status, String error) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        errorResponseWriter.write(ex, request, response);
+
+        assertEquals(status, response.getStatus());
+        assertEquals("application/json;charset=UTF-8", response.getContentType());
+        JsonNode body = objectMapper.readTree(response.getContentAsByteArray());
+        assertEquals(error, body.get("error").asText());
+        assertEquals(status, body.get("status").asInt());
+        assertEquals("/cards/1", body.get("path").asText());
+    }
+}
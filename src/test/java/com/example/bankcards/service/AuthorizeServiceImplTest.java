@@ -9,6 +9,8 @@ import com.example.bankcards.entity.UserSession;
 import com.example.bankcards.exception.AuthorizeException;
 import com.example.bankcards.exception.BadRequestException;
 import com.example.bankcards.exception.NotFoundException;
+import com.example.bankcards.exception.TooManyRequestsException;
+import com.example.bankcards.exception.errors.TooManyRequestsError;
 import com.example.bankcards.repository.UserRepository;
 import com.example.bankcards.security.jwt.JwtUtils;
 import com.example.bankcards.service.impl.AuthorizeServiceImpl;
@@ -17,13 +19,14 @@ import com.example.bankcards.service.impl.MailServiceImpl;
 import com.example.bankcards.service.impl.SessionServiceImpl;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.Optional;
 import java.util.Set;
@@ -35,7 +38,9 @@ class AuthorizeServiceImplTest {
     @Mock
     private UserRepository userRepository;
     @Mock
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
+    @Mock
+    private LoginAttemptService loginAttemptService;
     @Mock
     private MailServiceImpl mailService;
     @Mock
@@ -44,6 +49,8 @@ class AuthorizeServiceImplTest {
     private JwtUtils jwtUtils;
     @Mock
     private CookieServiceImpl cookieService;
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
     @Mock
     private HttpServletRequest request;
     @Mock
@@ -63,6 +70,7 @@ class AuthorizeServiceImplTest {
         user.setPassword("hashed");
         user.setIsEmailVerificated(true);
         user.setRoles(Set.of(Role.USER));
+        when(request.getRemoteAddr()).thenReturn("203.0.113.7");
     }
 
     @Test
@@ -71,25 +79,54 @@ class AuthorizeServiceImplTest {
         dto.setEmail("user@gmail.com");
         dto.setPassword("12345");
         when(userRepository.findByEmail("user@gmail.com")).thenReturn(Optional.of(user));
-        when(passwordEncoder.matches("12345", "hashed")).thenReturn(true);
+        when(passwordHashingService.matches("12345", "hashed")).thenReturn(true);
         when(jwtUtils.generateRandomSequence()).thenReturn("refresh");
         when(jwtUtils.generateToken(user)).thenReturn("jwt");
         when(jwtUtils.generateRefreshToken(user)).thenReturn("refreshJwt");
         when(userRepository.saveAndFlush(any())).thenReturn(user);
         doNothing().when(cookieService).addAuthCookies(any(), any(), any());
         when(sessionService.saveNewSession(user.getId())).thenReturn(new UserSession());
-        ResponseEntity<TokenRespDTO> resp = service.authorizeUser(dto, response);
+        ResponseEntity<TokenRespDTO> resp = service.authorizeUser(dto, request, response);
         assertEquals(200, resp.getStatusCodeValue());
         assertTrue(resp.getBody().getAccessToken().contains("Bearer jwt"));
     }
 
+    @Test
+    void authorizeUser_rehashesOutdatedPassword() {
+        UserAuthorizeReqDTO dto = new UserAuthorizeReqDTO();
+        dto.setEmail("user@example.com");
+        dto.setPassword("12345");
+        when(userRepository.findByEmail("user@example.com")).thenReturn(Optional.of(user));
+        when(passwordHashingService.matches("12345", "hashed")).thenReturn(true);
+        when(passwordHashingService.upgradeEncoding("hashed")).thenReturn(true);
+        when(passwordHashingService.encode("12345")).thenReturn("{bcrypt}rehashed");
+        service.authorizeUser(dto, request, response);
+        assertEquals("{bcrypt}rehashed", user.getPassword());
+        verify(userRepository).saveAndFlush(user);
+        assertEquals(1.0, meterRegistry.counter("auth.password.rehashed").count());
+    }
+
+    @Test
+    void authorizeUser_rehashSkippedWhenOverloaded() {
+        UserAuthorizeReqDTO dto = new UserAuthorizeReqDTO();
+        dto.setEmail("user@example.com");
+        dto.setPassword("12345");
+        when(userRepository.findByEmail("user@example.com")).thenReturn(Optional.of(user));
+        when(passwordHashingService.matches("12345", "hashed")).thenReturn(true);
+        when(passwordHashingService.upgradeEncoding("hashed")).thenReturn(true);
+        when(passwordHashingService.encode("12345"))
+                .thenThrow(new TooManyRequestsException(TooManyRequestsError.LOGIN_OVERLOADED));
+        assertDoesNotThrow(() -> service.authorizeUser(dto, request, response));
+        assertEquals("hashed", user.getPassword());
+    }
+
     @Test
     void authorizeUser_userNotFound() {
         UserAuthorizeReqDTO dto = new UserAuthorizeReqDTO();
         dto.setEmail("notfound@example.com");
         dto.setPassword("pass");
         when(userRepository.findByEmail("notfound@example.com")).thenReturn(Optional.empty());
-        assertThrows(AuthorizeException.class, () -> service.authorizeUser(dto, response));
+        assertThrows(AuthorizeException.class, () -> service.authorizeUser(dto, request, response));
     }
 
     @Test
@@ -98,8 +135,22 @@ class AuthorizeServiceImplTest {
         dto.setEmail("user@example.com");
         dto.setPassword("wrong");
         when(userRepository.findByEmail("user@example.com")).thenReturn(Optional.of(user));
-        when(passwordEncoder.matches("wrong", "hashed")).thenReturn(false);
-        assertThrows(AuthorizeException.class, () -> service.authorizeUser(dto, response));
+        when(passwordHashingService.matches("wrong", "hashed")).thenReturn(false);
+        assertThrows(AuthorizeException.class, () -> service.authorizeUser(dto, request, response));
+        assertEquals(1.0, meterRegistry.counter("auth.logins",
+                "outcome", "failure", "reason", "NOT_CORRECT_PASSWORD").count());
+        verify(loginAttemptService).recordFailure("user@example.com", "203.0.113.7");
+    }
+
+    @Test
+    void authorizeUser_throttled() {
+        UserAuthorizeReqDTO dto = new UserAuthorizeReqDTO();
+        dto.setEmail("user@example.com");
+        dto.setPassword("pass");
+        doThrow(new TooManyRequestsException(TooManyRequestsError.TOO_MANY_LOGIN_ATTEMPTS))
+                .when(loginAttemptService).checkAllowed("user@example.com", "203.0.113.7");
+        assertThrows(TooManyRequestsException.class, () -> service.authorizeUser(dto, request, response));
+        verifyNoInteractions(userRepository, passwordHashingService);
     }
 
     @Test
@@ -109,8 +160,8 @@ class AuthorizeServiceImplTest {
         dto.setEmail("user@example.com");
         dto.setPassword("pass");
         when(userRepository.findByEmail("user@example.com")).thenReturn(Optional.of(user));
-        when(passwordEncoder.matches("pass", "hashed")).thenReturn(true);
-        assertThrows(AuthorizeException.class, () -> service.authorizeUser(dto, response));
+        when(passwordHashingService.matches("pass", "hashed")).thenReturn(true);
+        assertThrows(AuthorizeException.class, () -> service.authorizeUser(dto, request, response));
     }
 
     @Test
@@ -121,7 +172,7 @@ class AuthorizeServiceImplTest {
         dto.setLastName("User");
         dto.setPassword("pass");
         when(userRepository.findByEmail("new@example.com")).thenReturn(Optional.empty());
-        when(passwordEncoder.encode("pass")).thenReturn("hashed");
+        when(passwordHashingService.encode("pass")).thenReturn("hashed");
         when(userRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
         doNothing().when(mailService).sendUserVerificationMail(any(), any());
         assertDoesNotThrow(() -> service.registerUser(dto, request));
@@ -1,10 +1,14 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.cache.CardBalanceCache;
+import com.example.bankcards.dto.response.BlockRequestDecisionResultRespDTO;
 import com.example.bankcards.dto.response.CardBlockRequestRespDTO;
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.CardBlockRequest;
+import com.example.bankcards.entity.CardStatus;
 import com.example.bankcards.entity.Role;
 import com.example.bankcards.entity.User;
+import com.example.bankcards.event.CardEventType;
 import com.example.bankcards.exception.BadRequestException;
 import com.example.bankcards.exception.NotFoundException;
 import com.example.bankcards.repository.CardBlockRequestRepository;
@@ -12,11 +16,17 @@ import com.example.bankcards.repository.CardRepository;
 import com.example.bankcards.service.impl.CardBlockRequestServiceImpl;
 import com.example.bankcards.service.CardService;
 import com.example.bankcards.util.CardEncryptor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -35,6 +45,12 @@ class CardBlockRequestServiceImplTest {
     private CardService cardService;
     @Mock
     private CardEncryptor cardEncryptor;
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @Mock
+    private CardBalanceCache cardBalanceCache;
+    @Mock
+    private CardEventService cardEventService;
 
     @InjectMocks
     private CardBlockRequestServiceImpl service;
@@ -69,8 +85,8 @@ class CardBlockRequestServiceImplTest {
     @Test
     void createBlockRequest_success() {
         when(cardRepository.findById(10L)).thenReturn(Optional.of(card));
-        when(blockRequestRepository.findByUser(user)).thenReturn(List.of());
-        when(blockRequestRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+        when(blockRequestRepository.existsByCardAndStatus(card, CardBlockRequest.Status.PENDING)).thenReturn(false);
+        when(blockRequestRepository.saveAndFlush(any())).thenAnswer(inv -> inv.getArgument(0));
         CardBlockRequestRespDTO dto = service.createBlockRequest(10L, user);
         assertEquals(CardBlockRequest.Status.PENDING, dto.getStatus());
         assertEquals(user.getId(), dto.getUserId());
@@ -95,12 +111,18 @@ class CardBlockRequestServiceImplTest {
     @Test
     void createBlockRequest_alreadyRequested() {
         when(cardRepository.findById(10L)).thenReturn(Optional.of(card));
-        CardBlockRequest existing = new CardBlockRequest();
-        existing.setCard(card);
-        existing.setUser(user);
-        existing.setStatus(CardBlockRequest.Status.PENDING);
-        when(blockRequestRepository.findByUser(user)).thenReturn(List.of(existing));
+        when(blockRequestRepository.existsByCardAndStatus(card, CardBlockRequest.Status.PENDING)).thenReturn(true);
         assertThrows(BadRequestException.class, () -> service.createBlockRequest(10L, user));
+        verify(blockRequestRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void createBlockRequest_concurrentDuplicateRejectedByIndex() {
+        when(cardRepository.findById(10L)).thenReturn(Optional.of(card));
+        when(blockRequestRepository.existsByCardAndStatus(card, CardBlockRequest.Status.PENDING)).thenReturn(false);
+        when(blockRequestRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("duplicate"));
+        BadRequestException ex = assertThrows(BadRequestException.class, () -> service.createBlockRequest(10L, user));
+        assertEquals("BLOCK_REQUEST_ALREADY_EXISTS", ex.getErrorName());
     }
 
     @Test
@@ -147,5 +169,64 @@ class CardBlockRequestServiceImplTest {
         when(blockRequestRepository.findById(100L)).thenReturn(Optional.of(request));
         assertThrows(BadRequestException.class, () -> service.rejectBlockRequest(100L, admin, "fail"));
     }
-}
 
+    @Test
+    void getBlockRequestQueue_usesStoredLastFour() {
+        card.setLastFour("4321");
+        PageRequest pageable = PageRequest.of(0, 20);
+        when(blockRequestRepository.findQueue(CardBlockRequest.Status.PENDING, null, null, pageable))
+                .thenReturn(new PageImpl<>(List.of(request), pageable, 1));
+        Page<CardBlockRequestRespDTO> page = service.getBlockRequestQueue(CardBlockRequest.Status.PENDING, null, null, pageable);
+        assertEquals(1, page.getTotalElements());
+        assertEquals("**** **** **** 4321", page.getContent().get(0).getCardMaskedNumber());
+        verifyNoInteractions(cardEncryptor);
+    }
+
+    @Test
+    void approveBlockRequests_mixedResults() {
+        CardBlockRequest processed = new CardBlockRequest();
+        processed.setId(101L);
+        processed.setCard(card);
+        processed.setStatus(CardBlockRequest.Status.REJECTED);
+        when(blockRequestRepository.findAllWithCardByIdIn(any())).thenReturn(List.of(request, processed));
+
+        List<BlockRequestDecisionResultRespDTO> results =
+                service.approveBlockRequests(List.of(100L, 101L, 102L, 100L), admin, "fraud");
+
+        assertEquals(3, results.size());
+        assertTrue(results.get(0).isSuccess());
+        assertEquals(CardBlockRequest.Status.APPROVED, results.get(0).getStatus());
+        assertEquals("BLOCK_REQUEST_ALREADY_PROCESSED", results.get(1).getError());
+        assertEquals("BLOCK_REQUEST_NOT_FOUND", results.get(2).getError());
+        verify(blockRequestRepository).updatePendingStatusByIdIn(eq(List.of(100L)), eq(CardBlockRequest.Status.APPROVED),
+                eq(admin), eq("fraud"), any(LocalDateTime.class));
+        verify(cardRepository).updateStatusByIdIn(Set.of(10L), CardStatus.BLOCKED);
+        verify(cardBalanceCache).evict(Set.of(10L));
+        verify(cardEventService).publish(argThat(event -> event.cardId().equals(10L)
+                && event.ownerId().equals(1L) && event.type() == CardEventType.STATUS_CHANGED
+                && event.status() == CardStatus.BLOCKED));
+        verifyNoInteractions(cardService);
+        assertEquals(1.0, meterRegistry.counter("block.requests.decided",
+                "decision", "APPROVED", "mode", "bulk").count());
+    }
+
+    @Test
+    void rejectBlockRequests_doesNotTouchCards() {
+        when(blockRequestRepository.findAllWithCardByIdIn(any())).thenReturn(List.of(request));
+
+        List<BlockRequestDecisionResultRespDTO> results = service.rejectBlockRequests(List.of(100L), admin, "no");
+
+        assertTrue(results.get(0).isSuccess());
+        assertEquals(CardBlockRequest.Status.REJECTED, results.get(0).getStatus());
+        verify(blockRequestRepository).updatePendingStatusByIdIn(eq(List.of(100L)), eq(CardBlockRequest.Status.REJECTED),
+                eq(admin), eq("no"), any(LocalDateTime.class));
+        verify(cardRepository, never()).updateStatusByIdIn(any(), any());
+        verifyNoInteractions(cardEventService);
+    }
+
+    @Test
+    void approveBlockRequests_notAdmin() {
+        assertThrows(BadRequestException.class, () -> service.approveBlockRequests(List.of(100L), user, "fail"));
+        verifyNoInteractions(blockRequestRepository);
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.event.CardEvent;
+import com.example.bankcards.event.CardEventType;
+import com.example.bankcards.service.impl.CardEventServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CardEventServiceImplTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<Runnable> tasks = new ArrayList<>();
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Событие доставляется только подписчикам владельца карты")
+    void publish_deliversToOwnerOnly() throws Exception {
+        CardEventService service = service(8, 5);
+        service.subscribe(1L);
+        service.subscribe(2L);
+
+        service.publish(event(1L));
+        runTasks();
+
+        assertEquals(1.0, meterRegistry.counter("card.events.published").count());
+        assertEquals(1.0, meterRegistry.counter("card.events.delivered").count());
+        assertFalse(objectMapper.writeValueAsString(event(1L)).contains("ownerId"));
+    }
+
+    @Test
+    @DisplayName("Подписчик с переполненным буфером отключается")
+    void publish_slowConsumer_evicted() {
+        CardEventService service = service(2, 5);
+        service.subscribe(1L);
+
+        // Задачи записи не выполняются: клиент не читает поток
+        service.publish(event(1L));
+        service.publish(event(1L));
+        assertEquals(1.0, subscribers());
+        service.publish(event(1L));
+
+        assertEquals(1.0, meterRegistry.counter("card.events.evicted").count());
+        assertEquals(0.0, subscribers());
+    }
+
+    @Test
+    @DisplayName("Внутри транзакции событие рассылается только после фиксации")
+    void publish_inTransaction_waitsForCommit() {
+        CardEventService service = service(8, 5);
+        service.subscribe(1L);
+        TransactionSynchronizationManager.initSynchronization();
+
+        service.publish(event(1L));
+        assertEquals(0.0, meterRegistry.counter("card.events.published").count());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        runTasks();
+        assertEquals(1.0, meterRegistry.counter("card.events.delivered").count());
+    }
+
+    @Test
+    @DisplayName("Сверх лимита подписок пользователя закрывается самая старая")
+    void subscribe_overLimit_displacesOldest() {
+        CardEventService service = service(8, 2);
+        service.subscribe(1L);
+        service.subscribe(1L);
+        service.subscribe(1L);
+
+        assertEquals(2.0, subscribers());
+    }
+
+    private CardEventService service(int bufferSize, int maxSubscriptionsPerUser) {
+        return new CardEventServiceImpl(objectMapper, tasks::add, meterRegistry, 60_000, bufferSize,
+                maxSubscriptionsPerUser);
+    }
+
+    private void runTasks() {
+        while (!tasks.isEmpty()) {
+            tasks.remove(0).run();
+        }
+    }
+
+    private double subscribers() {
+        return meterRegistry.get("card.events.subscribers").gauge().value();
+    }
+
+    private static CardEvent event(Long ownerId) {
+        return new CardEvent(ownerId, 10L, CardEventType.BALANCE_CHANGED, BigDecimal.TEN, CardStatus.ACTIVE,
+                LocalDateTime.now());
+    }
+}
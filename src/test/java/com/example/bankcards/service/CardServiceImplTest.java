@@ -1,5 +1,10 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.cache.CardBalanceCache;
+import com.example.bankcards.cache.CardBalanceSnapshot;
+import com.example.bankcards.cache.LocalCardBalanceCache;
+import com.example.bankcards.dto.request.BulkCardStatusReqDTO;
+import com.example.bankcards.dto.request.BulkIssueCardsReqDTO;
 import com.example.bankcards.dto.request.CreateCardReqDTO;
 import com.example.bankcards.dto.request.TransferReqDTO;
 import com.example.bankcards.dto.response.CardRespDTO;
@@ -7,27 +12,50 @@ import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.CardStatus;
 import com.example.bankcards.entity.Role;
 import com.example.bankcards.entity.User;
+import com.example.bankcards.event.CardEventType;
 import com.example.bankcards.exception.BadRequestException;
 import com.example.bankcards.exception.NotFoundException;
 import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.CardStateView;
+import com.example.bankcards.repository.CardVersionView;
+import com.example.bankcards.repository.OwnerCardsVersionView;
 import com.example.bankcards.repository.UserRepository;
 import com.example.bankcards.service.impl.CardServiceImpl;
 import com.example.bankcards.util.CardEncryptor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 class CardServiceImplTest {
@@ -37,6 +65,16 @@ class CardServiceImplTest {
     private UserRepository userRepository;
     @Mock
     private CardEncryptor cardEncryptor;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @Mock
+    private PanAllocationService panAllocationService;
+    @Mock
+    private CardEventService cardEventService;
+    @Spy
+    private CardBalanceCache cardBalanceCache = new LocalCardBalanceCache(60_000, 100, new SimpleMeterRegistry());
 
     @InjectMocks
     private CardServiceImpl cardService;
@@ -74,6 +112,7 @@ class CardServiceImplTest {
         req.setOwnerId(1L);
 
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(panAllocationService.nextPan()).thenReturn("2200700000000018");
         when(cardEncryptor.encrypt(anyString())).thenReturn("encrypted");
         when(cardEncryptor.decrypt(anyString())).thenReturn("1234567812345678");
 
@@ -121,13 +160,52 @@ class CardServiceImplTest {
         req.setToCardId(2L);
         req.setAmount(BigDecimal.valueOf(200));
 
-        when(cardRepository.findById(1L)).thenReturn(Optional.of(from));
-        when(cardRepository.findById(2L)).thenReturn(Optional.of(to));
+        when(cardRepository.findWithOwnerById(1L)).thenReturn(Optional.of(from));
+        when(cardRepository.findWithOwnerById(2L)).thenReturn(Optional.of(to));
 
         cardService.transferBetweenCards(req, owner);
 
         assertEquals(0, BigDecimal.valueOf(300).compareTo(from.getBalance()));
         assertEquals(0, BigDecimal.valueOf(300).compareTo(to.getBalance()));
+        verify(cardBalanceCache).evict(List.of(1L, 2L));
+        verify(cardEventService).publish(argThat(event -> event.cardId().equals(1L)
+                && event.type() == CardEventType.BALANCE_CHANGED && event.balance().compareTo(BigDecimal.valueOf(300)) == 0));
+        verify(cardEventService).publish(argThat(event -> event.cardId().equals(2L)
+                && event.type() == CardEventType.BALANCE_CHANGED));
+    }
+
+    @Test
+    @DisplayName("Успешный перевод учитывается в метриках только после фиксации транзакции")
+    void transferBetweenCards_successCountedAfterCommit() {
+        Card from = new Card();
+        from.setId(1L);
+        from.setOwner(user);
+        from.setStatus(CardStatus.ACTIVE);
+        from.setBalance(BigDecimal.valueOf(500));
+        Card to = new Card();
+        to.setId(2L);
+        to.setOwner(user);
+        to.setStatus(CardStatus.ACTIVE);
+        to.setBalance(BigDecimal.valueOf(100));
+        TransferReqDTO req = new TransferReqDTO();
+        req.setFromCardId(1L);
+        req.setToCardId(2L);
+        req.setAmount(BigDecimal.valueOf(200));
+        when(cardRepository.findWithOwnerById(1L)).thenReturn(Optional.of(from));
+        when(cardRepository.findWithOwnerById(2L)).thenReturn(Optional.of(to));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cardService.transferBetweenCards(req, user);
+            assertEquals(0.0, meterRegistry.counter("transfers", "outcome", "success", "reason", "NONE").count());
+            assertEquals(0, meterRegistry.summary("transfers.amount").count());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(1.0, meterRegistry.counter("transfers", "outcome", "success", "reason", "NONE").count());
+        assertEquals(200.0, meterRegistry.summary("transfers.amount").totalAmount());
     }
 
     @Test
@@ -151,10 +229,13 @@ class CardServiceImplTest {
         req.setToCardId(2L);
         req.setAmount(BigDecimal.valueOf(200));
 
-        when(cardRepository.findById(1L)).thenReturn(Optional.of(from));
-        when(cardRepository.findById(2L)).thenReturn(Optional.of(to));
+        when(cardRepository.findWithOwnerById(1L)).thenReturn(Optional.of(from));
+        when(cardRepository.findWithOwnerById(2L)).thenReturn(Optional.of(to));
 
         assertThrows(BadRequestException.class, () -> cardService.transferBetweenCards(req, owner));
+        assertEquals(1.0, meterRegistry.counter("transfers",
+                "outcome", "rejected", "reason", "INSUFFICIENT_FUNDS").count());
+        verifyNoInteractions(cardEventService);
     }
 
     @Test
@@ -167,6 +248,8 @@ class CardServiceImplTest {
         when(cardRepository.findById(10L)).thenReturn(Optional.of(card));
         cardService.updateCardBalance(10L, BigDecimal.valueOf(555), admin);
         assertEquals(0, BigDecimal.valueOf(555).compareTo(card.getBalance()));
+        verify(cardEventService).publish(argThat(event -> event.cardId().equals(10L)
+                && event.type() == CardEventType.BALANCE_CHANGED && event.balance().compareTo(BigDecimal.valueOf(555)) == 0));
     }
 
     @Test
@@ -181,16 +264,18 @@ class CardServiceImplTest {
     @DisplayName("Успешная блокировка карты")
     void blockCard_success() {
         card.setStatus(CardStatus.ACTIVE);
-        when(cardRepository.findById(10L)).thenReturn(Optional.of(card));
+        when(cardRepository.findWithOwnerById(10L)).thenReturn(Optional.of(card));
         cardService.blockCard(10L, user);
         assertEquals(CardStatus.BLOCKED, card.getStatus());
+        verify(cardEventService).publish(argThat(event -> event.ownerId().equals(1L)
+                && event.type() == CardEventType.STATUS_CHANGED && event.status() == CardStatus.BLOCKED));
     }
 
     @Test
     @DisplayName("Успешная активация карты")
     void activateCard_success() {
         card.setStatus(CardStatus.BLOCKED);
-        when(cardRepository.findById(10L)).thenReturn(Optional.of(card));
+        when(cardRepository.findWithOwnerById(10L)).thenReturn(Optional.of(card));
         cardService.activateCard(10L, user);
         assertEquals(CardStatus.ACTIVE, card.getStatus());
     }
@@ -198,7 +283,7 @@ class CardServiceImplTest {
     @Test
     @DisplayName("Успешное получение карты по ID")
     void getCardById_success() {
-        when(cardRepository.findById(10L)).thenReturn(Optional.of(card));
+        when(cardRepository.findWithOwnerById(10L)).thenReturn(Optional.of(card));
         when(cardEncryptor.decrypt(anyString())).thenReturn("1234567812345678");
         var resp = cardService.getCardById(10L, user);
         assertEquals(card.getId(), resp.getId());
@@ -207,8 +292,238 @@ class CardServiceImplTest {
     @Test
     @DisplayName("Получение несуществующей карты по ID")
     void getCardById_cardNotFound() {
-        when(cardRepository.findById(99L)).thenReturn(Optional.empty());
+        when(cardRepository.findWithOwnerById(99L)).thenReturn(Optional.empty());
         assertThrows(NotFoundException.class, () -> cardService.getCardById(99L, user));
     }
-}
 
+    @Test
+    @DisplayName("Повторный запрос баланса обслуживается кешем без обращения к БД")
+    void getCardBalance_cachedAfterFirstRead() {
+        when(cardRepository.findWithOwnerById(10L)).thenReturn(Optional.of(card));
+
+        assertEquals(0, BigDecimal.valueOf(1000).compareTo(cardService.getCardBalance(10L, user).getBalance()));
+        var cached = cardService.getCardBalance(10L, user);
+
+        assertEquals(0, BigDecimal.valueOf(1000).compareTo(cached.getBalance()));
+        assertEquals(CardStatus.ACTIVE, cached.getStatus());
+        verify(cardRepository, times(1)).findWithOwnerById(10L);
+    }
+
+    @Test
+    @DisplayName("Чужой пользователь не получает баланс из кеша")
+    void getCardBalance_cachedForOtherUser_noAccess() {
+        when(cardRepository.findWithOwnerById(10L)).thenReturn(Optional.of(card));
+        cardService.getCardBalance(10L, user);
+        User other = new User();
+        other.setId(2L);
+        other.setRoles(Set.of(Role.USER));
+
+        assertThrows(BadRequestException.class, () -> cardService.getCardBalance(10L, other));
+    }
+
+    @Test
+    @DisplayName("Блокировка карты сбрасывает закешированный статус")
+    void getCardBalance_afterBlock_readsFreshStatus() {
+        when(cardRepository.findWithOwnerById(10L)).thenReturn(Optional.of(card));
+        cardService.getCardBalance(10L, user);
+
+        cardService.blockCard(10L, admin);
+
+        assertEquals(CardStatus.BLOCKED, cardService.getCardBalance(10L, user).getStatus());
+        verify(cardRepository, times(3)).findWithOwnerById(10L);
+    }
+
+    @Test
+    @DisplayName("Карта с истекшим сроком в кеше перечитывается и получает статус EXPIRED")
+    void getCardBalance_cachedExpiredCard_reloads() {
+        card.setExpireDate(LocalDate.now().minusDays(1));
+        cardBalanceCache.putIfCurrent(new CardBalanceSnapshot(10L, 1L, 0L, BigDecimal.TEN, CardStatus.ACTIVE,
+                card.getExpireDate()), cardBalanceCache.generation());
+        when(cardRepository.findWithOwnerById(10L)).thenReturn(Optional.of(card));
+
+        assertEquals(CardStatus.EXPIRED, cardService.getCardBalance(10L, user).getStatus());
+        verify(cardEventService).publish(argThat(event -> event.cardId().equals(10L)
+                && event.type() == CardEventType.STATUS_CHANGED && event.status() == CardStatus.EXPIRED));
+        verify(cardRepository).save(card);
+    }
+
+    @Test
+    @DisplayName("ETag карты вычисляется по версиям без загрузки карты")
+    void getCardETag_fromVersions() {
+        when(cardRepository.findVersionById(10L)).thenReturn(Optional.of(
+                new CardVersionView(10L, 4L, 2L, CardStatus.ACTIVE, LocalDate.now().plusYears(1))));
+
+        assertEquals("\"c-10-4-2\"", cardService.getCardETag(10L));
+        verify(cardRepository, never()).findWithOwnerById(any());
+        verifyNoInteractions(cardEncryptor);
+    }
+
+    @Test
+    @DisplayName("Для карты с устаревшим статусом ETag не выдается")
+    void getCardETag_outdatedStatus_returnsNull() {
+        when(cardRepository.findVersionById(10L)).thenReturn(Optional.of(
+                new CardVersionView(10L, 4L, 2L, CardStatus.ACTIVE, LocalDate.now().minusDays(1))));
+
+        assertNull(cardService.getCardETag(10L));
+        assertNull(cardService.getCardBalanceETag(10L));
+    }
+
+    @Test
+    @DisplayName("ETag списка карт меняется вместе с версией любой карты")
+    void getCardsETag_changesWithVersionSum() {
+        user.setVersion(1L);
+        when(cardRepository.findVersionsByOwnerId(1L, LocalDate.now(), CardStatus.EXPIRED))
+                .thenReturn(new OwnerCardsVersionView(2L, 21L, 5L, 0L))
+                .thenReturn(new OwnerCardsVersionView(2L, 21L, 6L, 0L))
+                .thenReturn(new OwnerCardsVersionView(2L, 21L, 6L, 1L));
+
+        String first = cardService.getCardsETag(user);
+        String second = cardService.getCardsETag(user);
+
+        assertEquals("\"cs-1-1-2-21-5\"", first);
+        assertNotEquals(first, second);
+        assertNull(cardService.getCardsETag(user));
+    }
+
+    @Test
+    @DisplayName("ETag баланса берется из кеша без запроса к БД")
+    void getCardBalanceETag_cached_skipsRepository() {
+        cardBalanceCache.putIfCurrent(new CardBalanceSnapshot(10L, 1L, 7L, BigDecimal.TEN, CardStatus.ACTIVE,
+                LocalDate.now().plusYears(1)), cardBalanceCache.generation());
+
+        assertEquals("\"b-10-7\"", cardService.getCardBalanceETag(10L));
+        verify(cardRepository, never()).findVersionById(any());
+    }
+
+    @Test
+    @DisplayName("Массовая блокировка карт по списку")
+    void blockCards_byIds() {
+        BulkCardStatusReqDTO req = new BulkCardStatusReqDTO();
+        req.setCardIds(List.of(10L, 11L));
+        when(cardRepository.updateStatusByIdInAndStatus(List.of(10L, 11L), CardStatus.ACTIVE, CardStatus.BLOCKED)).thenReturn(2);
+        when(cardRepository.findStatesByIdInAndStatus(List.of(10L, 11L), CardStatus.BLOCKED)).thenReturn(List.of(
+                new CardStateView(10L, 1L, BigDecimal.TEN, CardStatus.BLOCKED),
+                new CardStateView(11L, 3L, BigDecimal.ONE, CardStatus.BLOCKED)));
+        var resp = cardService.blockCards(req, admin);
+        assertEquals(2, resp.getAffected());
+        assertEquals(CardStatus.BLOCKED, resp.getStatus());
+        verify(cardBalanceCache).evict(List.of(10L, 11L));
+        verify(cardEventService).publish(argThat(event -> event.cardId().equals(10L) && event.ownerId().equals(1L)
+                && event.type() == CardEventType.STATUS_CHANGED && event.status() == CardStatus.BLOCKED));
+        verify(cardEventService).publish(argThat(event -> event.cardId().equals(11L) && event.ownerId().equals(3L)));
+    }
+
+    @Test
+    @DisplayName("Массовая активация карт владельца")
+    void activateCards_byOwner() {
+        BulkCardStatusReqDTO req = new BulkCardStatusReqDTO();
+        req.setOwnerId(1L);
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(cardRepository.updateStatusByOwnerIdAndStatus(1L, CardStatus.BLOCKED, CardStatus.ACTIVE)).thenReturn(3);
+        var resp = cardService.activateCards(req, admin);
+        assertEquals(3, resp.getAffected());
+        verify(cardRepository).updateStatusByOwnerIdAndStatus(1L, CardStatus.BLOCKED, CardStatus.ACTIVE);
+        verify(cardBalanceCache).evictOwner(1L);
+        verify(cardRepository).findStatesByOwnerIdAndStatus(1L, CardStatus.ACTIVE);
+    }
+
+    @Test
+    @DisplayName("Массовая блокировка: владелец не найден")
+    void blockCards_ownerNotFound() {
+        BulkCardStatusReqDTO req = new BulkCardStatusReqDTO();
+        req.setOwnerId(99L);
+        when(userRepository.existsById(99L)).thenReturn(false);
+        assertThrows(NotFoundException.class, () -> cardService.blockCards(req, admin));
+    }
+
+    @Test
+    @DisplayName("Массовая блокировка: указаны и карты, и владелец")
+    void blockCards_ambiguousTarget() {
+        BulkCardStatusReqDTO req = new BulkCardStatusReqDTO();
+        req.setCardIds(List.of(10L));
+        req.setOwnerId(1L);
+        assertThrows(BadRequestException.class, () -> cardService.blockCards(req, admin));
+        verifyNoInteractions(cardRepository);
+    }
+
+    @Test
+    @DisplayName("Массовая блокировка: нет прав")
+    void blockCards_noAccess() {
+        BulkCardStatusReqDTO req = new BulkCardStatusReqDTO();
+        req.setOwnerId(1L);
+        assertThrows(BadRequestException.class, () -> cardService.blockCards(req, user));
+    }
+
+    @Test
+    @DisplayName("Массовый выпуск карт порциями")
+    void issueCards_success() {
+        User secondOwner = new User();
+        secondOwner.setId(2L);
+        secondOwner.setEmail("second@example.com");
+        BulkIssueCardsReqDTO req = new BulkIssueCardsReqDTO();
+        req.setOwnerIds(List.of(1L, 1L, 2L));
+        ReflectionTestUtils.setField(cardService, "issueChunkSize", 2);
+        stubIssue(List.of(user, secondOwner));
+        when(cardRepository.findPanHashesByPanHashIn(any())).thenReturn(Set.of());
+
+        List<List<CardRespDTO>> chunks = new ArrayList<>();
+        int issued = cardService.issueCards(req, admin, chunks::add);
+
+        assertEquals(3, issued);
+        assertEquals(2, chunks.size());
+        assertEquals(2, chunks.get(0).size());
+        assertEquals("second@example.com", chunks.get(1).get(0).getOwnerEmail());
+        assertEquals(3.0, meterRegistry.counter("cards.issued").count());
+        verify(transactionTemplate, times(2)).execute(any());
+    }
+
+    @Test
+    @DisplayName("Массовый выпуск: занятые номера генерируются заново")
+    void issueCards_regeneratesTakenPans() {
+        BulkIssueCardsReqDTO req = new BulkIssueCardsReqDTO();
+        req.setOwnerIds(List.of(1L, 1L));
+        ReflectionTestUtils.setField(cardService, "issueChunkSize", 500);
+        stubIssue(List.of(user));
+        when(cardRepository.findPanHashesByPanHashIn(any()))
+                .thenAnswer(invocation -> new HashSet<>(invocation.<Collection<String>>getArgument(0)))
+                .thenReturn(Set.of());
+
+        int issued = cardService.issueCards(req, admin, cards -> { });
+
+        assertEquals(2, issued);
+        assertEquals(2.0, meterRegistry.counter("cards.issue.pan.collisions").count());
+        verify(cardRepository, times(2)).findPanHashesByPanHashIn(any());
+    }
+
+    @Test
+    @DisplayName("Массовый выпуск: владелец не найден")
+    void issueCards_ownerNotFound() {
+        BulkIssueCardsReqDTO req = new BulkIssueCardsReqDTO();
+        req.setOwnerIds(List.of(1L, 2L));
+        when(userRepository.findAllById(any())).thenReturn(List.of(user));
+        assertThrows(NotFoundException.class, () -> cardService.issueCards(req, admin, cards -> { }));
+        verifyNoInteractions(cardRepository, transactionTemplate);
+    }
+
+    @Test
+    @DisplayName("Массовый выпуск: нет прав")
+    void issueCards_noAccess() {
+        BulkIssueCardsReqDTO req = new BulkIssueCardsReqDTO();
+        req.setOwnerIds(List.of(1L));
+        assertThrows(BadRequestException.class, () -> cardService.issueCards(req, user, cards -> { }));
+        verifyNoInteractions(userRepository, cardRepository);
+    }
+
+    private void stubIssue(List<User> owners) {
+        AtomicLong sequence = new AtomicLong();
+        when(userRepository.findAllById(any())).thenReturn(owners);
+        when(panAllocationService.nextPans(anyInt())).thenAnswer(invocation -> IntStream.range(0, invocation.<Integer>getArgument(0))
+                .mapToObj(i -> String.format("220070%010d", sequence.incrementAndGet()))
+                .toList());
+        when(cardEncryptor.blindIndex(anyString())).thenAnswer(invocation -> "hash-" + invocation.getArgument(0));
+        when(cardEncryptor.encrypt(anyString())).thenReturn("encrypted");
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(cardRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.exception.TooManyRequestsException;
+import com.example.bankcards.service.impl.LoginAttemptServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginAttemptServiceImplTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private LoginAttemptServiceImpl loginAttemptService;
+
+    @BeforeEach
+    void setUp() {
+        loginAttemptService = new LoginAttemptServiceImpl(meterRegistry);
+        ReflectionTestUtils.setField(loginAttemptService, "maxFailuresPerEmail", 3);
+        ReflectionTestUtils.setField(loginAttemptService, "maxFailuresPerIp", 5);
+        ReflectionTestUtils.setField(loginAttemptService, "windowSeconds", 300L);
+    }
+
+    @Test
+    @DisplayName("После лимита неудач по email вход отклоняется, успешный вход сбрасывает счетчик")
+    void emailLimit() {
+        for (int i = 0; i < 3; i++) {
+            loginAttemptService.checkAllowed("user@example.com", "10.0.0." + i);
+            loginAttemptService.recordFailure("user@example.com", "10.0.0." + i);
+        }
+
+        assertThrows(TooManyRequestsException.class,
+                () -> loginAttemptService.checkAllowed("user@example.com", "10.0.0.9"));
+        assertEquals(1.0, meterRegistry.counter("auth.logins.throttled", "limit", "email").count());
+
+        loginAttemptService.recordSuccess("user@example.com");
+        assertDoesNotThrow(() -> loginAttemptService.checkAllowed("user@example.com", "10.0.0.9"));
+    }
+
+    @Test
+    @DisplayName("Перебор разных email с одного адреса упирается в лимит по IP")
+    void ipLimit() {
+        for (int i = 0; i < 5; i++) {
+            loginAttemptService.recordFailure("user" + i + "@example.com", "203.0.113.7");
+        }
+
+        assertThrows(TooManyRequestsException.class,
+                () -> loginAttemptService.checkAllowed("other@example.com", "203.0.113.7"));
+        assertDoesNotThrow(() -> loginAttemptService.checkAllowed("other@example.com", "203.0.113.8"));
+    }
+
+    @Test
+    @DisplayName("Истекшее окно не учитывается и удаляется")
+    void expiredWindow() {
+        ReflectionTestUtils.setField(loginAttemptService, "windowSeconds", 0L);
+        for (int i = 0; i < 5; i++) {
+            loginAttemptService.recordFailure("user@example.com", "203.0.113.7");
+        }
+
+        assertDoesNotThrow(() -> loginAttemptService.checkAllowed("user@example.com", "203.0.113.7"));
+        loginAttemptService.evictExpired();
+        assertTrue(((java.util.Map<?, ?>) ReflectionTestUtils.getField(loginAttemptService, "windows")).isEmpty());
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.MailOutbox;
+import com.example.bankcards.repository.MailOutboxRepository;
+import com.example.bankcards.service.impl.MailOutboxServiceImpl;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.when;
+
+class MailOutboxServiceImplTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Mock
+    private MailOutboxRepository mailOutboxRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private static final String BROKEN_RECIPIENT = "broken@example.com";
+
+    private final JavaMailSenderImpl mailSender = new JavaMailSenderImpl() {
+        @Override
+        public void send(MimeMessage... mimeMessages) {
+            for (MimeMessage message : mimeMessages) {
+                if (BROKEN_RECIPIENT.equals(recipient(message))) {
+                    throw new IllegalStateException("Непредвиденная ошибка отправки");
+                }
+            }
+            super.send(mimeMessages);
+        }
+    };
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    private final List<MailOutbox> outbox = new ArrayList<>();
+    private MailOutboxServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        mailSender.setHost("localhost");
+        mailSender.setPort(greenMail.getSmtp().getPort());
+
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(2);
+        executor.initialize();
+
+        service = new MailOutboxServiceImpl(mailOutboxRepository, mailSender, executor, meterRegistry, transactionManager);
+        ReflectionTestUtils.setField(service, "fromMail", "noreply@bankcards.local");
+        ReflectionTestUtils.setField(service, "batchSize", 100);
+        ReflectionTestUtils.setField(service, "leaseMs", 300_000L);
+        ReflectionTestUtils.setField(service, "maxAttempts", 3);
+        ReflectionTestUtils.setField(service, "retryBaseMs", 30_000L);
+        ReflectionTestUtils.setField(service, "retryMaxMs", 3_600_000L);
+        ReflectionTestUtils.setField(service, "retentionMs", 86_400_000L);
+
+        when(mailOutboxRepository.findDueForUpdate(any(), anyInt())).thenAnswer(invocation -> outbox.stream()
+                .filter(mail -> mail.getStatus() == MailOutbox.Status.PENDING)
+                .filter(mail -> !mail.getNextAttemptAt().isAfter(invocation.getArgument(0)))
+                .toList());
+        when(mailOutboxRepository.deleteFinishedBefore(any(), anyInt())).thenAnswer(invocation -> {
+            LocalDateTime before = invocation.getArgument(0);
+            List<MailOutbox> expired = outbox.stream()
+                    .filter(mail -> mail.getStatus() != MailOutbox.Status.PENDING)
+                    .filter(mail -> mail.getCreatedAt().isBefore(before))
+                    .limit(invocation.<Integer>getArgument(1))
+                    .toList();
+            outbox.removeAll(expired);
+            return expired.size();
+        });
+        when(mailOutboxRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            List<Long> ids = new ArrayList<>();
+            invocation.<Iterable<Long>>getArgument(0).forEach(ids::add);
+            return outbox.stream().filter(mail -> ids.contains(mail.getId())).toList();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Письма из очереди доставляются на SMTP-сервер и помечаются отправленными")
+    void dispatchPending_sendsThroughSmtp() throws Exception {
+        for (long id = 1; id <= 5; id++) {
+            outbox.add(mail(id, "user" + id + "@example.com"));
+        }
+
+        int sent = service.dispatchPending();
+
+        assertEquals(5, sent);
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertEquals(5, received.length);
+        assertEquals("Верификация аккаунта BankCards", received[0].getSubject());
+        assertTrue(outbox.stream().allMatch(mail -> mail.getStatus() == MailOutbox.Status.SENT));
+        assertTrue(outbox.stream().allMatch(mail -> mail.getAttempts() == 1 && mail.getSentAt() != null));
+        assertEquals(5.0, meterRegistry.counter("mail.outbox.deliveries", "outcome", "sent").count());
+        assertEquals(0, service.dispatchPending());
+    }
+
+    @Test
+    @DisplayName("При недоступном SMTP письмо откладывается с растущей задержкой, затем помечается FAILED")
+    void dispatchPending_retriesWithBackoffThenFails() {
+        mailSender.setPort(1);
+        MailOutbox mail = mail(1L, "user@example.com");
+        outbox.add(mail);
+
+        assertEquals(0, service.dispatchPending());
+        assertEquals(MailOutbox.Status.PENDING, mail.getStatus());
+        assertEquals(1, mail.getAttempts());
+        assertNotNull(mail.getLastError());
+        LocalDateTime firstRetry = mail.getNextAttemptAt();
+        assertTrue(firstRetry.isAfter(LocalDateTime.now().plusSeconds(25)));
+
+        mail.setNextAttemptAt(LocalDateTime.now());
+        service.dispatchPending();
+        assertTrue(mail.getNextAttemptAt().isAfter(LocalDateTime.now().plusSeconds(55)));
+
+        mail.setNextAttemptAt(LocalDateTime.now());
+        service.dispatchPending();
+        assertEquals(MailOutbox.Status.FAILED, mail.getStatus());
+        assertEquals(3, mail.getAttempts());
+        assertEquals(2.0, meterRegistry.counter("mail.outbox.deliveries", "outcome", "retry").count());
+        assertEquals(1.0, meterRegistry.counter("mail.outbox.deliveries", "outcome", "failed").count());
+    }
+
+    @Test
+    @DisplayName("Проход удаляет письма SENT и FAILED старше срока хранения, не трогая очередь и свежие письма")
+    void dispatchPending_purgesFinishedAfterRetention() {
+        MailOutbox oldSent = mail(1L, "sent@example.com");
+        oldSent.setStatus(MailOutbox.Status.SENT);
+        oldSent.setCreatedAt(LocalDateTime.now().minusDays(2));
+        MailOutbox oldFailed = mail(2L, "failed@example.com");
+        oldFailed.setStatus(MailOutbox.Status.FAILED);
+        oldFailed.setCreatedAt(LocalDateTime.now().minusDays(2));
+        MailOutbox freshSent = mail(3L, "fresh@example.com");
+        freshSent.setStatus(MailOutbox.Status.SENT);
+        MailOutbox oldPending = mail(4L, "pending@example.com");
+        oldPending.setCreatedAt(LocalDateTime.now().minusDays(2));
+        outbox.addAll(List.of(oldSent, oldFailed, freshSent, oldPending));
+
+        assertEquals(1, service.dispatchPending());
+
+        assertEquals(List.of(freshSent, oldPending), outbox);
+        assertEquals(MailOutbox.Status.SENT, oldPending.getStatus());
+    }
+
+    @Test
+    @DisplayName("Непредвиденная ошибка одной части порции не мешает сохранить отправку остальных писем")
+    void dispatchPending_sliceFailureKeepsOtherSlicesSent() {
+        MailOutbox first = mail(1L, "user1@example.com");
+        MailOutbox second = mail(2L, "user2@example.com");
+        MailOutbox broken = mail(3L, BROKEN_RECIPIENT);
+        MailOutbox fourth = mail(4L, "user4@example.com");
+        outbox.addAll(List.of(first, second, broken, fourth));
+
+        assertEquals(2, service.dispatchPending());
+
+        assertEquals(2, greenMail.getReceivedMessages().length);
+        assertEquals(MailOutbox.Status.SENT, first.getStatus());
+        assertEquals(MailOutbox.Status.SENT, second.getStatus());
+        assertEquals(MailOutbox.Status.PENDING, broken.getStatus());
+        assertEquals(MailOutbox.Status.PENDING, fourth.getStatus());
+        assertTrue(broken.getLastError().startsWith("IllegalStateException"));
+        assertTrue(fourth.getNextAttemptAt().isAfter(LocalDateTime.now().plusSeconds(25)));
+        assertEquals(2.0, meterRegistry.counter("mail.outbox.deliveries", "outcome", "sent").count());
+        assertEquals(2.0, meterRegistry.counter("mail.outbox.deliveries", "outcome", "retry").count());
+    }
+
+    private static String recipient(MimeMessage message) {
+        try {
+            return message.getAllRecipients()[0].toString();
+        } catch (MessagingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private MailOutbox mail(Long id, String recipient) {
+        MailOutbox mail = new MailOutbox();
+        mail.setId(id);
+        mail.setRecipient(recipient);
+        mail.setSubject("Верификация аккаунта BankCards");
+        mail.setBody("<p>link</p>");
+        mail.setStatus(MailOutbox.Status.PENDING);
+        mail.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        mail.setCreatedAt(LocalDateTime.now());
+        return mail;
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.PanRange;
+import com.example.bankcards.repository.PanRangeRepository;
+import com.example.bankcards.service.impl.PanAllocationServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PanAllocationServiceImplTest {
+    @Mock
+    private PanRangeRepository panRangeRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private PanAllocationServiceImpl panAllocationService;
+    private final Map<String, PanRange> ranges = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        panAllocationService = new PanAllocationServiceImpl(panRangeRepository, transactionManager);
+        ReflectionTestUtils.setField(panAllocationService, "bins", List.of("220070"));
+        ReflectionTestUtils.setField(panAllocationService, "blockSize", 100);
+        ReflectionTestUtils.setField(panAllocationService, "permutationMultiplier", 387420489L);
+
+        when(panRangeRepository.findForUpdate(anyString())).thenAnswer(invocation -> {
+            String bin = invocation.getArgument(0);
+            return Optional.of(ranges.computeIfAbsent(bin, b -> {
+                PanRange range = new PanRange();
+                range.setBin(b);
+                range.setNextValue(0L);
+                return range;
+            }));
+        });
+    }
+
+    @Test
+    @DisplayName("Номера уникальны, начинаются с BIN и проходят проверку Луна")
+    void nextPans_uniqueAndLuhnValid() {
+        List<String> pans = panAllocationService.nextPans(250);
+
+        assertEquals(250, new HashSet<>(pans).size());
+        for (String pan : pans) {
+            assertEquals(16, pan.length());
+            assertTrue(pan.startsWith("220070"));
+            assertTrue(isLuhnValid(pan), pan);
+        }
+        // 250 номеров при блоке 100 — три резервирования
+        verify(panRangeRepository, times(3)).findForUpdate("220070");
+        assertEquals(300L, ranges.get("220070").getNextValue());
+    }
+
+    @Test
+    @DisplayName("Номера не идут подряд")
+    void nextPan_notSequential() {
+        String first = panAllocationService.nextPan();
+        String second = panAllocationService.nextPan();
+        String third = panAllocationService.nextPan();
+
+        long firstAccount = Long.parseLong(second.substring(6, 15));
+        long secondAccount = Long.parseLong(third.substring(6, 15));
+        assertNotEquals(firstAccount + 1, secondAccount);
+        assertNotEquals(first, second);
+    }
+
+    @Test
+    @DisplayName("Резервирование продолжается с сохраненного счетчика")
+    void nextPan_continuesFromPersistedCounter() {
+        PanRange range = new PanRange();
+        range.setBin("220070");
+        range.setNextValue(500L);
+        ranges.put("220070", range);
+
+        panAllocationService.nextPan();
+
+        assertEquals(600L, range.getNextValue());
+    }
+
+    @Test
+    @DisplayName("При исчерпании BIN выдача переходит к следующему")
+    void nextPan_switchesToNextBin() {
+        ReflectionTestUtils.setField(panAllocationService, "bins", List.of("22007001", "22007002"));
+        PanRange exhausted = new PanRange();
+        exhausted.setBin("22007001");
+        exhausted.setNextValue(10_000_000L);
+        ranges.put("22007001", exhausted);
+
+        String pan = panAllocationService.nextPan();
+
+        assertTrue(pan.startsWith("22007002"));
+        assertTrue(isLuhnValid(pan));
+    }
+
+    @Test
+    @DisplayName("Ошибка, если все диапазоны исчерпаны")
+    void nextPan_allRangesExhausted() {
+        PanRange exhausted = new PanRange();
+        exhausted.setBin("220070");
+        exhausted.setNextValue(1_000_000_000L);
+        ranges.put("220070", exhausted);
+
+        assertThrows(IllegalStateException.class, () -> panAllocationService.nextPan());
+    }
+
+    private boolean isLuhnValid(String pan) {
+        int sum = 0;
+        boolean alternate = false;
+        for (int i = pan.length() - 1; i >= 0; i--) {
+            int n = pan.charAt(i) - '0';
+            if (alternate) {
+                n *= 2;
+                if (n > 9) n -= 9;
+            }
+            sum += n;
+            alternate = !alternate;
+        }
+        return sum % 10 == 0;
+    }
+}
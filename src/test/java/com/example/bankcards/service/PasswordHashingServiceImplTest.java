@@ -0,0 +1,112 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.exception.TooManyRequestsException;
+import com.example.bankcards.service.impl.PasswordHashingServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingServiceImplTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ThreadPoolTaskExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.initialize();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Хеширование и проверка выполняются на пуле и попадают в метрики")
+    void encodeAndMatches() {
+        PasswordHashingService service = create(new BCryptPasswordEncoder(4));
+
+        String hash = service.encode("secret");
+
+        assertTrue(service.matches("secret", hash));
+        assertFalse(service.matches("wrong", hash));
+        assertEquals(2, meterRegistry.timer("auth.password.check").count());
+        assertEquals(1, meterRegistry.timer("auth.password.encode").count());
+    }
+
+    @Test
+    @DisplayName("При заполненной очереди проверка сразу отклоняется с 429")
+    void rejectsWhenQueueFull() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder blockingEncoder = new BCryptPasswordEncoder(4) {
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return false;
+            }
+        };
+        PasswordHashingService service = create(blockingEncoder);
+
+        // Один поток занят, одно место в очереди занято
+        Thread first = new Thread(() -> service.matches("a", "hash"));
+        first.start();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        executor.execute(() -> { });
+
+        assertThrows(TooManyRequestsException.class, () -> service.matches("b", "hash"));
+        assertEquals(1.0, meterRegistry.counter("auth.password.rejected", "reason", "queue_full").count());
+
+        release.countDown();
+        first.join(5000);
+    }
+
+    @Test
+    @DisplayName("Слишком долгое ожидание результата отклоняется с 429")
+    void rejectsOnTimeout() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder slowEncoder = new BCryptPasswordEncoder(4) {
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return true;
+            }
+        };
+        PasswordHashingService service = create(slowEncoder);
+        ReflectionTestUtils.setField(service, "timeoutMs", 50L);
+
+        assertThrows(TooManyRequestsException.class, () -> service.matches("a", "hash"));
+        assertEquals(1.0, meterRegistry.counter("auth.password.rejected", "reason", "timeout").count());
+        release.countDown();
+    }
+
+    private PasswordHashingService create(PasswordEncoder passwordEncoder) {
+        PasswordHashingServiceImpl service = new PasswordHashingServiceImpl(passwordEncoder, executor, meterRegistry);
+        ReflectionTestUtils.setField(service, "timeoutMs", 5000L);
+        return service;
+    }
+}
@@ -18,7 +18,6 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.Optional;
 import java.util.Set;
@@ -30,7 +29,7 @@ class UserServiceImplTest {
     @Mock
     private UserRepository userRepository;
     @Mock
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
     @Mock
     private JwtUtils jwtUtils;
 
@@ -101,7 +100,7 @@ class UserServiceImplTest {
         dto.setFirstName("New");
         dto.setLastName("User");
         dto.setPassword("pass");
-        when(passwordEncoder.encode("pass")).thenReturn("hashed");
+        when(passwordHashingService.encode("pass")).thenReturn("hashed");
         when(userRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
         UserRespDTO resp = userService.createUser(dto);
         assertEquals("new@example.com", resp.getEmail());
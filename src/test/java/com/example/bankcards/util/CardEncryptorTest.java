@@ -0,0 +1,62 @@
+package com.example.bankcards.util;
+
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CardEncryptorTest {
+
+    private static final String KEY = "0123456789abcdef";
+
+    @Test
+    void blindIndex_matchesHmacOfDerivedKey() throws Exception {
+        CardEncryptor encryptor = new CardEncryptor(vault());
+
+        assertEquals(reference("2200700000000018"), encryptor.blindIndex("2200700000000018"));
+        assertEquals(reference("2200700000000026"), encryptor.blindIndex("2200700000000026"));
+    }
+
+    @Test
+    void blindIndex_sameResultAcrossThreads_keyDerivedOnce() throws Exception {
+        VaultService vaultService = vault();
+        CardEncryptor encryptor = new CardEncryptor(vaultService);
+        String expected = reference("2200700000000018");
+
+        List<String> indexes = IntStream.range(0, 1_000).parallel()
+                .mapToObj(i -> encryptor.blindIndex("2200700000000018"))
+                .distinct()
+                .toList();
+
+        assertEquals(List.of(expected), indexes);
+        verify(vaultService, times(1)).getEncryptionKey();
+    }
+
+    private static VaultService vault() {
+        VaultService vaultService = mock(VaultService.class);
+        when(vaultService.getEncryptionKey()).thenReturn(KEY);
+        return vaultService;
+    }
+
+    private static String reference(String pan) throws Exception {
+        byte[] indexKey = hmac(KEY.getBytes(StandardCharsets.UTF_8),
+                "card-pan-blind-index".getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(hmac(indexKey, pan.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static byte[] hmac(byte[] key, byte[] data) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(key, "HmacSHA256"));
+        return mac.doFinal(data);
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.bankcards.util;
+
+import com.example.bankcards.entity.Card;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class CardMasksTest {
+
+    private final CardEncryptor cardEncryptor = mock(CardEncryptor.class);
+
+    @Test
+    @DisplayName("Маска строится по сохраненным последним цифрам без расшифровки номера")
+    void mask_usesStoredLastFour() {
+        Card card = new Card();
+        card.setCardNumber("encrypted");
+        card.setLastFour("4321");
+
+        assertEquals("**** **** **** 4321", CardMasks.mask(card, cardEncryptor));
+        verifyNoInteractions(cardEncryptor);
+    }
+
+    @Test
+    @DisplayName("Для старой карты без последних цифр номер расшифровывается")
+    void mask_legacyCardDecrypts() {
+        Card card = new Card();
+        card.setCardNumber("encrypted");
+        when(cardEncryptor.decrypt("encrypted")).thenReturn("1234567812345678");
+
+        assertEquals("**** **** **** 5678", CardMasks.mask(card, cardEncryptor));
+
+        when(cardEncryptor.decrypt("encrypted")).thenReturn("12");
+        assertEquals("****", CardMasks.mask(card, cardEncryptor));
+    }
+}
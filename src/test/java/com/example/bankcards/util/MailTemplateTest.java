@@ -0,0 +1,41 @@
+package com.example.bankcards.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MailTemplateTest {
+
+    @Test
+    @DisplayName("Результат совпадает с цепочкой String.replace")
+    void render_matchesReplace() {
+        String template = "<p>@EMAIL@</p><a href=\"@LINK@\">@LINK@</a><i>@TOKEN@</i>@EMAIL@";
+        MailTemplate compiled = MailTemplate.compile(template, MailUtils.LINK, "@EMAIL@", "@TOKEN@");
+
+        String expected = template.replace(MailUtils.LINK, "http://x/verify")
+                .replace("@EMAIL@", "user@example.com")
+                .replace("@TOKEN@", "abc");
+        assertEquals(expected, compiled.render("http://x/verify", "user@example.com", "abc"));
+        assertEquals(expected, compiled.render("http://x/verify", "user@example.com", "abc"));
+    }
+
+    @Test
+    @DisplayName("Шаблоны писем без плейсхолдеров email и токена отрисовываются только со ссылкой")
+    void render_existingTemplates() {
+        MailTemplate compiled = MailTemplate.compile(MailUtils.ACCOUNT_VERIFY_TEMPLATE, MailUtils.LINK, "@EMAIL@", "@TOKEN@");
+
+        assertEquals(MailUtils.ACCOUNT_VERIFY_TEMPLATE.replace(MailUtils.LINK, "link"),
+                compiled.render("link", "user@example.com", "token"));
+    }
+
+    @Test
+    @DisplayName("Шаблон без плейсхолдеров и неверное число значений")
+    void render_edgeCases() {
+        MailTemplate plain = MailTemplate.compile("static text", MailUtils.LINK);
+
+        assertEquals("static text", plain.render("ignored"));
+        assertThrows(IllegalArgumentException.class, () -> plain.render());
+        assertThrows(IllegalArgumentException.class, () -> MailTemplate.compile("x", ""));
+    }
+}